@@ -0,0 +1,229 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.DEVICE_MODEL_NAME;
+import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.OS_NAME;
+import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.OS_VERSION;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_METHOD;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_STATUS_CODE;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_URL;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.NET_HOST_CONNECTION_TYPE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+
+/**
+ * Spans that look like the ones the RUM instrumentation produces: a mix of lifecycle, http and
+ * custom spans, with the attributes that the {@link RumAttributeAppender} adds.
+ */
+final class BenchmarkSpans {
+    private static final Attributes COMMON_ATTRIBUTES = Attributes.builder()
+            .put(RumAttributeAppender.APP_NAME_KEY, "benchmark")
+            .put(RumAttributeAppender.SESSION_ID_KEY, "8a4d1e0fa6dd6c1ba6a5d2a51fc2a4e1")
+            .put(RumAttributeAppender.RUM_VERSION_KEY, "0.13.0")
+            .put(DEVICE_MODEL_NAME, "Pixel 5")
+            .put(OS_NAME, "Android")
+            .put(OS_VERSION, "12")
+            .put(SplunkRum.SCREEN_NAME_KEY, "MainActivity")
+            .put(NET_HOST_CONNECTION_TYPE, "wifi")
+            .build();
+
+    private BenchmarkSpans() {
+    }
+
+    /**
+     * @param count           the number of spans.
+     * @param endEpochNanos   the end time of the first span.
+     * @param intervalNanos   the time between the end of one span and the next.
+     */
+    static List<SpanData> batch(int count, long endEpochNanos, long intervalNanos) {
+        List<SpanData> spans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            spans.add(span(i, endEpochNanos + i * intervalNanos));
+        }
+        return spans;
+    }
+
+    static SpanData span(int i, long endEpochNanos) {
+        String name;
+        SpanKind kind = SpanKind.INTERNAL;
+        Attributes attributes;
+        switch (i % 4) {
+            case 0:
+                name = "Created";
+                attributes = COMMON_ATTRIBUTES.toBuilder()
+                        .put(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI)
+                        .put(RumAttributeAppender.SPLUNK_OPERATION_KEY, name)
+                        .put(ActivityTracer.ACTIVITY_NAME_KEY, "MainActivity")
+                        .build();
+                break;
+            case 1:
+                name = "HTTP GET";
+                kind = SpanKind.CLIENT;
+                attributes = COMMON_ATTRIBUTES.toBuilder()
+                        .put(SplunkRum.COMPONENT_KEY, "http")
+                        .put(RumAttributeAppender.SPLUNK_OPERATION_KEY, name)
+                        .put(HTTP_METHOD, "GET")
+                        .put(HTTP_URL, "https://api.example.com/v1/catalog/items?page=" + i)
+                        .put(HTTP_STATUS_CODE, 200L)
+                        .build();
+                break;
+            case 2:
+                name = "Resumed";
+                attributes = COMMON_ATTRIBUTES.toBuilder()
+                        .put(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI)
+                        .put(RumAttributeAppender.SPLUNK_OPERATION_KEY, name)
+                        .put(ActivityTracer.ACTIVITY_NAME_KEY, "MainActivity")
+                        .build();
+                break;
+            default:
+                name = "addToCart";
+                attributes = COMMON_ATTRIBUTES.toBuilder()
+                        .put(RumAttributeAppender.SPLUNK_OPERATION_KEY, name)
+                        .put("item.id", "sku-" + i)
+                        .build();
+                break;
+        }
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(kind)
+                .setSpanContext(SpanContext.create(TraceId.fromLongs(i + 1, 42), SpanId.fromLong(i + 1), TraceFlags.getSampled(), TraceState.getDefault()))
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(endEpochNanos - TimeUnit.MILLISECONDS.toNanos(25))
+                .setEndEpochNanos(endEpochNanos)
+                .setAttributes(attributes)
+                .setTotalAttributeCount(attributes.size())
+                .setResource(Resource.getDefault())
+                .build();
+    }
+
+    /**
+     * Wraps the span, replacing its end time; this is much cheaper than building a new span when a
+     * benchmark needs time to move forward.
+     */
+    static SpanData endingAt(SpanData span, long endEpochNanos) {
+        return new EndTimeSpanData(span, endEpochNanos);
+    }
+
+    private static final class EndTimeSpanData implements SpanData {
+        private final SpanData original;
+        private final long endEpochNanos;
+
+        private EndTimeSpanData(SpanData original, long endEpochNanos) {
+            this.original = original;
+            this.endEpochNanos = endEpochNanos;
+        }
+
+        @Override
+        public String getName() {
+            return original.getName();
+        }
+
+        @Override
+        public SpanKind getKind() {
+            return original.getKind();
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return original.getSpanContext();
+        }
+
+        @Override
+        public SpanContext getParentSpanContext() {
+            return original.getParentSpanContext();
+        }
+
+        @Override
+        public StatusData getStatus() {
+            return original.getStatus();
+        }
+
+        @Override
+        public long getStartEpochNanos() {
+            return endEpochNanos - (original.getEndEpochNanos() - original.getStartEpochNanos());
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return original.getAttributes();
+        }
+
+        @Override
+        public List<EventData> getEvents() {
+            return original.getEvents();
+        }
+
+        @Override
+        public List<LinkData> getLinks() {
+            return original.getLinks();
+        }
+
+        @Override
+        public long getEndEpochNanos() {
+            return endEpochNanos;
+        }
+
+        @Override
+        public boolean hasEnded() {
+            return true;
+        }
+
+        @Override
+        public int getTotalRecordedEvents() {
+            return original.getTotalRecordedEvents();
+        }
+
+        @Override
+        public int getTotalRecordedLinks() {
+            return original.getTotalRecordedLinks();
+        }
+
+        @Override
+        public int getTotalAttributeCount() {
+            return original.getTotalAttributeCount();
+        }
+
+        @Override
+        public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+            return original.getInstrumentationLibraryInfo();
+        }
+
+        @Override
+        public Resource getResource() {
+            return original.getResource();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_URL;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.exporter.zipkin.ZipkinSpanExporter;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Each stage of the span export pipeline that {@link RumInitializer} sets up, on its own and all
+ * together: {@link SpanFilter} -> {@link ThrottlingExporter} -> {@link BufferingExporter} -> Zipkin
+ * (with the {@link SpanDataZipkinEncoder}), where the Zipkin sender is a {@link RecordingSender}.
+ * <p>
+ * {@code encode} is the stock otel Zipkin exporter, which converts each span to a zipkin span first;
+ * {@code encodeDirect} writes the JSON straight from the span data.
+ * <p>
+ * One operation is the export of one batch.
+ */
+@State(Scope.Benchmark)
+public class ExportPipelineBenchmark {
+    private static final long SPAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Param({"10", "100"})
+    public int batchSize;
+
+    private final CountingExporter sink = new CountingExporter();
+    private final RecordingSender sender = new RecordingSender();
+    private CurrentNetwork network = CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null);
+
+    private List<SpanData> batch;
+    private long nowNanos;
+
+    private SpanExporter filter;
+    private SpanExporter throttle;
+    private SpanExporter buffer;
+    private SpanExporter zipkin;
+    private SpanExporter direct;
+    private SpanExporter pipeline;
+    //shared by all the exporters, like in the library.
+    private final PipelineMetrics metrics = new PipelineMetrics();
+
+    @Setup
+    public void setup() {
+        nowNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        batch = BenchmarkSpans.batch(batchSize, nowNanos, SPAN_INTERVAL_NANOS);
+
+        ConnectionUtil connectionUtil = new ConnectionUtil(() -> network);
+        connectionUtil.refreshNetworkStatus();
+
+        filter = spanFilter().apply(sink, metrics);
+        throttle = throttlingExporter(sink);
+        buffer = new BufferingExporter(connectionUtil, sink, false, metrics, new SpanDataZipkinEncoder()::sizeInBytes);
+        zipkin = zipkinExporter();
+        direct = directExporter();
+        //like the RumInitializer: the encoder that sends the spans also measures a drained backlog.
+        SpanDataZipkinEncoder encoder = new SpanDataZipkinEncoder(metrics);
+        pipeline = spanFilter().apply(throttlingExporter(new BufferingExporter(connectionUtil, new SpanDataZipkinExporter(encoder, sender), false, metrics, encoder::sizeInBytes)), metrics);
+    }
+
+    @Benchmark
+    public CompletableResultCode filter() {
+        return filter.export(batch);
+    }
+
+    @Benchmark
+    public CompletableResultCode throttle() {
+        return throttle.export(nextBatch());
+    }
+
+    @Benchmark
+    public CompletableResultCode buffer() {
+        return buffer.export(batch);
+    }
+
+    /**
+     * A batch is buffered while offline, then sent along with the next one.
+     */
+    @Benchmark
+    public CompletableResultCode bufferOfflineThenDrain() {
+        network = CurrentNetwork.of(NetworkState.NO_NETWORK_AVAILABLE, null);
+        buffer.export(batch);
+        network = CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null);
+        return buffer.export(batch);
+    }
+
+    @Benchmark
+    public CompletableResultCode encode() {
+        return zipkin.export(batch);
+    }
+
+    @Benchmark
+    public CompletableResultCode encodeDirect() {
+        return direct.export(batch);
+    }
+
+    @Benchmark
+    public CompletableResultCode pipeline() {
+        return pipeline.export(nextBatch());
+    }
+
+    //the throttling exporter expects time to move forward, the spans are a second apart.
+    private List<SpanData> nextBatch() {
+        List<SpanData> next = new ArrayList<>(batch.size());
+        for (SpanData span : batch) {
+            next.add(BenchmarkSpans.endingAt(span, nowNanos));
+            nowNanos += SPAN_INTERVAL_NANOS;
+        }
+        return next;
+    }
+
+    private static BiFunction<SpanExporter, PipelineMetrics, SpanExporter> spanFilter() {
+        return new SpanFilterBuilder()
+                .rejectSpansByName(name -> name.equals("Paused"))
+                .removeSpanAttribute(AttributeKey.stringKey("item.id"))
+                .replaceSpanAttribute(HTTP_URL, url -> url.substring(0, url.indexOf('?')))
+                .build();
+    }
+
+    private SpanExporter throttlingExporter(SpanExporter delegate) {
+        return ThrottlingExporter.newBuilder(delegate)
+                .categorizeByAttribute(SplunkRum.COMPONENT_KEY)
+                .maxSpansInWindow(100)
+                .windowSize(Duration.ofSeconds(30))
+                .metrics(metrics)
+                .build();
+    }
+
+    private SpanExporter zipkinExporter() {
+        return ZipkinSpanExporter.builder()
+                .setSender(sender)
+                .build();
+    }
+
+    private SpanExporter directExporter() {
+        return new SpanDataZipkinExporter(new SpanDataZipkinEncoder(metrics), sender);
+    }
+
+    private static final class CountingExporter implements SpanExporter {
+        private long spans;
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            this.spans += spans.size();
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
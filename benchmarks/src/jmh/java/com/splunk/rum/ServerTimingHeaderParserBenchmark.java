@@ -0,0 +1,71 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+
+/**
+ * The Server-Timing scanner, compared to the regex it replaced (which only handled a header that
+ * consisted of nothing but the traceparent entry).
+ */
+@State(Scope.Benchmark)
+public class ServerTimingHeaderParserBenchmark {
+    private static final Pattern REGEX = Pattern.compile("traceparent;desc=['\"]00-([0-9a-f]{32})-([0-9a-f]{16})-01['\"]");
+
+    @Param({
+            "traceparent;desc=\"00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01\"",
+            "db;dur=53, cache;desc=hit, traceparent;desc=\"00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01\""
+    })
+    public String header;
+
+    private final ServerTimingHeaderParser scanner = new ServerTimingHeaderParser();
+    private final ServerTimingHeaderParser scannerWithMetrics = new ServerTimingHeaderParser(true);
+
+    @Benchmark
+    public Attributes regex() {
+        AttributesBuilder attributes = Attributes.builder();
+        Matcher matcher = REGEX.matcher(header);
+        if (matcher.matches()) {
+            attributes.put(RumResponseAttributesExtractor.LINK_TRACE_ID_KEY, matcher.group(1));
+            attributes.put(RumResponseAttributesExtractor.LINK_SPAN_ID_KEY, matcher.group(2));
+        }
+        return attributes.build();
+    }
+
+    @Benchmark
+    public Attributes scanner() {
+        AttributesBuilder attributes = Attributes.builder();
+        scanner.parse(header, attributes);
+        return attributes.build();
+    }
+
+    @Benchmark
+    public Attributes scannerWithMetrics() {
+        AttributesBuilder attributes = Attributes.builder();
+        scannerWithMetrics.parse(header, attributes);
+        return attributes.build();
+    }
+}
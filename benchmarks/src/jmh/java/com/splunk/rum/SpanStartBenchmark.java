@@ -0,0 +1,114 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanLimits;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+/**
+ * Starting and ending a span, with and without the {@link RumAttributeAppender}, for sampled spans,
+ * spans that are recorded but not sampled, and spans that are dropped by the sampler. There is no
+ * export here; see {@link ExportPipelineBenchmark} for that.
+ */
+@State(Scope.Benchmark)
+public class SpanStartBenchmark {
+    @Param({"true", "false"})
+    public boolean appendRumAttributes;
+
+    @Param({"sampled", "recordOnly", "dropped"})
+    public String sampling;
+
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @Setup
+    public void setup() {
+        Config config = Config.builder()
+                .applicationName("benchmark")
+                .rumAccessToken("token")
+                .realm("us0")
+                .globalAttributes(Attributes.of(AttributeKey.stringKey("app.flavor"), "benchmark"))
+                .build();
+        ConnectionUtil connectionUtil = new ConnectionUtil(() -> CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null));
+        connectionUtil.refreshNetworkStatus();
+
+        RumAttributeAppender appender = new RumAttributeAppender(config, new SessionId(), "0.13.0", new VisibleScreenTracker(), connectionUtil);
+        tracerProvider = SdkTracerProvider.builder()
+                .setSpanLimits(SpanLimits.builder().setMaxAttributeValueLength(2048).build())
+                .setSampler(sampler())
+                .addSpanProcessor(appendRumAttributes ? appender : SpanProcessor.composite())
+                .build();
+        tracer = tracerProvider.get(SplunkRum.RUM_TRACER_NAME);
+    }
+
+    private Sampler sampler() {
+        switch (sampling) {
+            case "recordOnly":
+                return new RecordOnlySampler();
+            case "dropped":
+                return Sampler.alwaysOff();
+            default:
+                return Sampler.alwaysOn();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        tracerProvider.shutdown();
+    }
+
+    @Benchmark
+    public Span startAndEnd() {
+        Span span = tracer.spanBuilder("Created")
+                .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI)
+                .startSpan();
+        span.end();
+        return span;
+    }
+
+    //keeps the spans in memory without exporting them, like a sampler that only records for local processing.
+    private static final class RecordOnlySampler implements Sampler {
+        @Override
+        public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind, Attributes attributes, List<LinkData> parentLinks) {
+            return SamplingResult.recordOnly();
+        }
+
+        @Override
+        public String getDescription() {
+            return "RecordOnlySampler";
+        }
+    }
+}
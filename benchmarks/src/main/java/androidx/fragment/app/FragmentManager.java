@@ -0,0 +1,73 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package androidx.fragment.app;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.View;
+
+/**
+ * Stand-in for the androidx class, which is only published as an Android archive.
+ */
+public abstract class FragmentManager {
+    public void registerFragmentLifecycleCallbacks(FragmentLifecycleCallbacks callbacks, boolean recursive) {
+    }
+
+    public abstract static class FragmentLifecycleCallbacks {
+        public void onFragmentPreAttached(FragmentManager fm, Fragment f, Context context) {
+        }
+
+        public void onFragmentAttached(FragmentManager fm, Fragment f, Context context) {
+        }
+
+        public void onFragmentPreCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+        }
+
+        public void onFragmentCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+        }
+
+        public void onFragmentActivityCreated(FragmentManager fm, Fragment f, Bundle savedInstanceState) {
+        }
+
+        public void onFragmentViewCreated(FragmentManager fm, Fragment f, View v, Bundle savedInstanceState) {
+        }
+
+        public void onFragmentStarted(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentResumed(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentPaused(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentStopped(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentSaveInstanceState(FragmentManager fm, Fragment f, Bundle outState) {
+        }
+
+        public void onFragmentViewDestroyed(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentDestroyed(FragmentManager fm, Fragment f) {
+        }
+
+        public void onFragmentDetached(FragmentManager fm, Fragment f) {
+        }
+    }
+}
@@ -1,2 +1,6 @@
 # keep everything in the opentelemetry packages
--keep class io.opentelemetry.** { *; }
\ No newline at end of file
+-keep class io.opentelemetry.** { *; }
+
+# screen names are read from the @RumScreenName annotation at runtime
+-keepattributes RuntimeVisibleAnnotations
+-keep @interface com.splunk.rum.RumScreenName
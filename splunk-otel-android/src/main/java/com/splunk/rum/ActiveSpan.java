@@ -23,12 +23,18 @@ import io.opentelemetry.context.Scope;
 
 class ActiveSpan {
     private final VisibleScreenTracker visibleScreenTracker;
+    private final LifecycleEventRecorder eventRecorder;
 
     private Span span;
     private Scope scope;
 
     ActiveSpan(VisibleScreenTracker visibleScreenTracker) {
+        this(visibleScreenTracker, LifecycleEventRecorder.direct());
+    }
+
+    ActiveSpan(VisibleScreenTracker visibleScreenTracker, LifecycleEventRecorder eventRecorder) {
         this.visibleScreenTracker = visibleScreenTracker;
+        this.eventRecorder = eventRecorder;
     }
 
     boolean spanInProgress() {
@@ -44,12 +50,18 @@ class ActiveSpan {
         scope = span.makeCurrent();
     }
 
-    void endActiveSpan() {
+    //the span stays in progress, but later work on this thread isn't parented to it anymore.
+    void closeScope() {
         if (scope != null) {
             scope.close();
             scope = null;
         }
+    }
+
+    void endActiveSpan() {
+        closeScope();
         if (this.span != null) {
+            eventRecorder.flush(span);
             this.span.end();
             this.span = null;
         }
@@ -57,7 +69,7 @@ class ActiveSpan {
 
     void addEvent(String eventName) {
         if (span != null) {
-            span.addEvent(eventName);
+            eventRecorder.record(span, eventName);
         }
     }
 
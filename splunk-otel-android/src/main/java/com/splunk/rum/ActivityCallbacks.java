@@ -25,40 +25,57 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.FragmentActivity;
 import androidx.fragment.app.FragmentManager;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import io.opentelemetry.api.trace.Tracer;
 
 class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
 
-    private final Map<String, ActivityTracer> tracersByActivityClassName = new HashMap<>();
+    //keyed by instance, so two activities of the same class (eg. in the back stack) each get their own spans.
+    private final Map<Activity, ActivityTracer> tracersByActivity = new IdentityHashMap<>();
     private final AtomicReference<String> initialAppActivity = new AtomicReference<>();
     private final Tracer tracer;
     private final VisibleScreenTracker visibleScreenTracker;
     private final AppStartupTimer startupTimer;
     private final List<AppStateListener> appStateListeners;
+    private final SelfProfiler selfProfiler;
+    private final Supplier<LifecycleEventRecorder> eventRecorders;
+    private final ScreenDrawTimer drawTimer;
+    private final FragmentLifecycleAggregator fragmentAggregator;
+    private final ScreenNames screenNames;
     //we count the number of activities that have been "started" and not yet "stopped" here to figure out when the app goes into the background.
     private int numberOfOpenActivities = 0;
 
     ActivityCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer startupTimer, List<AppStateListener> appStateListeners) {
+        this(tracer, visibleScreenTracker, startupTimer, appStateListeners, SelfProfiler.disabled(), LifecycleEventRecorder::direct, ScreenDrawTimer.disabled(), FragmentLifecycleAggregator.disabled(), ScreenNames.simpleClassNames());
+    }
+
+    ActivityCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer startupTimer, List<AppStateListener> appStateListeners, SelfProfiler selfProfiler, Supplier<LifecycleEventRecorder> eventRecorders, ScreenDrawTimer drawTimer, FragmentLifecycleAggregator fragmentAggregator, ScreenNames screenNames) {
         this.tracer = tracer;
         this.visibleScreenTracker = visibleScreenTracker;
         this.startupTimer = startupTimer;
         this.appStateListeners = appStateListeners;
+        this.selfProfiler = selfProfiler;
+        this.eventRecorders = eventRecorders;
+        this.drawTimer = drawTimer;
+        this.fragmentAggregator = fragmentAggregator;
+        this.screenNames = screenNames;
     }
 
     @Override
     public void onActivityPreCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        drawTimer.activityCreationStarted(screenNames.get(activity));
         getTracer(activity)
-                .startActivityCreation()
+                .startActivityCreation(savedInstanceState != null)
                 .addEvent("activityPreCreated");
 
         if (activity instanceof FragmentActivity) {
             FragmentManager fragmentManager = ((FragmentActivity) activity).getSupportFragmentManager();
-            fragmentManager.registerFragmentLifecycleCallbacks(new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker), true);
+            fragmentManager.registerFragmentLifecycleCallbacks(createFragmentCallbacks(), true);
         }
     }
 
@@ -75,7 +92,7 @@ class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
     @Override
     public void onActivityPreStarted(@NonNull Activity activity) {
         getTracer(activity)
-                .initiateRestartSpanIfNecessary(tracersByActivityClassName.size() > 1)
+                .initiateRestartSpanIfNecessary(tracersByActivity.size() > 1)
                 .addEvent("activityPreStarted");
     }
 
@@ -109,10 +126,14 @@ class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
 
     @Override
     public void onActivityPostResumed(@NonNull Activity activity) {
-        getTracer(activity)
+        ActivityTracer activityTracer = getTracer(activity)
                 .addEvent("activityPostResumed")
-                .addPreviousScreenAttribute()
-                .endSpanForActivityResumed();
+                .addPreviousScreenAttribute();
+        if (drawTimer.isFirstDrawEnabled()) {
+            activityTracer.endSpanForActivityResumedAfterFirstDraw(drawTimer);
+        } else {
+            activityTracer.endSpanForActivityResumed();
+        }
         visibleScreenTracker.activityResumed(activity);
     }
 
@@ -186,17 +207,27 @@ class ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
     @Override
     public void onActivityPostDestroyed(@NonNull Activity activity) {
         getTracer(activity).addEvent("activityPostDestroyed").endActiveSpan();
+        tracersByActivity.remove(activity);
     }
 
+    //only used by the callbacks that don't start or end a span, so these are the events that can be dropped.
     private void addEvent(@NonNull Activity activity, String eventName) {
+        if (selfProfiler.shouldDropEvent()) {
+            return;
+        }
         getTracer(activity).addEvent(eventName);
     }
 
+    private FragmentManager.FragmentLifecycleCallbacks createFragmentCallbacks() {
+        RumFragmentLifecycleCallbacks fragmentCallbacks = new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker, selfProfiler, fragmentAggregator, drawTimer, screenNames);
+        return selfProfiler.isEnabled() ? new ProfilingFragmentCallbacks(fragmentCallbacks, selfProfiler) : fragmentCallbacks;
+    }
+
     private ActivityTracer getTracer(Activity activity) {
-        ActivityTracer activityTracer = tracersByActivityClassName.get(activity.getClass().getName());
+        ActivityTracer activityTracer = tracersByActivity.get(activity);
         if (activityTracer == null) {
-            activityTracer = new ActivityTracer(activity, initialAppActivity, tracer, visibleScreenTracker, startupTimer);
-            tracersByActivityClassName.put(activity.getClass().getName(), activityTracer);
+            activityTracer = new ActivityTracer(activity, initialAppActivity, tracer, visibleScreenTracker, startupTimer, eventRecorders.get(), screenNames);
+            tracersByActivity.put(activity, activityTracer);
         }
         return activityTracer;
     }
@@ -37,16 +37,23 @@ class ActivityTracer {
     private final String activityName;
     private final AppStartupTimer appStartupTimer;
     private final ActiveSpan activeSpan;
+    //created on the first resume that waits for a draw, then reused.
+    private FirstDrawCallback firstDrawCallback;
 
     ActivityTracer(Activity activity, AtomicReference<String> initialAppActivity, Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer appStartupTimer) {
+        this(activity, initialAppActivity, tracer, visibleScreenTracker, appStartupTimer, LifecycleEventRecorder.direct(), ScreenNames.simpleClassNames());
+    }
+
+    ActivityTracer(Activity activity, AtomicReference<String> initialAppActivity, Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer appStartupTimer, LifecycleEventRecorder eventRecorder, ScreenNames screenNames) {
         this.initialAppActivity = initialAppActivity;
         this.tracer = tracer;
-        this.activityName = activity.getClass().getSimpleName();
+        this.activityName = screenNames.get(activity);
         this.appStartupTimer = appStartupTimer;
-        this.activeSpan = new ActiveSpan(visibleScreenTracker);
+        this.activeSpan = new ActiveSpan(visibleScreenTracker, eventRecorder);
     }
 
     ActivityTracer startSpanIfNoneInProgress(String action) {
+        endSpanWaitingForFirstDraw();
         if (activeSpan.spanInProgress()) {
             return this;
         }
@@ -54,17 +61,25 @@ class ActivityTracer {
         return this;
     }
 
-    ActivityTracer startActivityCreation() {
-        activeSpan.startSpan(this::makeCreationSpan);
+    ActivityTracer startActivityCreation(boolean restoringState) {
+        endSpanWaitingForFirstDraw();
+        activeSpan.startSpan(() -> makeCreationSpan(restoringState));
         return this;
     }
 
-    private Span makeCreationSpan() {
+    private Span makeCreationSpan(boolean restoringState) {
         //If the application has never loaded an activity, or this is the initial activity getting re-created,
         // we name this span specially to show that it's the application starting up. Otherwise, use
         // the activity class name as the base of the span name.
-        boolean isColdStart = initialAppActivity.get() == null;
-        if (isColdStart) {
+        boolean isFirstActivity = initialAppActivity.get() == null;
+        if (isFirstActivity) {
+            //the process was already running, only the activity has to be created.
+            if (appStartupTimer.isLaunchedInBackground()) {
+                return createAppStartSpan("warm");
+            }
+            if (restoringState) {
+                appStartupTimer.activityRestored();
+            }
             return createSpanWithParent("Created", appStartupTimer.getStartupSpan());
         }
         if (activityName.equals(initialAppActivity.get())) {
@@ -74,6 +89,7 @@ class ActivityTracer {
     }
 
     ActivityTracer initiateRestartSpanIfNecessary(boolean multiActivityApp) {
+        endSpanWaitingForFirstDraw();
         if (activeSpan.spanInProgress()) {
             return this;
         }
@@ -124,7 +140,31 @@ class ActivityTracer {
         endActiveSpan();
     }
 
+    /**
+     * Ends the span once the next frame has been drawn, instead of right away. The scope is closed
+     * now, so work done on the main thread while waiting isn't attributed to this span.
+     */
+    void endSpanForActivityResumedAfterFirstDraw(ScreenDrawTimer drawTimer) {
+        if (!activeSpan.spanInProgress()) {
+            return;
+        }
+        if (firstDrawCallback == null) {
+            firstDrawCallback = drawTimer.newFirstDrawCallback(this::endSpanForActivityResumed);
+        }
+        activeSpan.closeScope();
+        firstDrawCallback.schedule();
+    }
+
+    //if the activity moves on before a frame is drawn (eg. it's paused right away), end the resumed span now.
+    private void endSpanWaitingForFirstDraw() {
+        if (firstDrawCallback != null && firstDrawCallback.isScheduled()) {
+            firstDrawCallback.cancel();
+            endSpanForActivityResumed();
+        }
+    }
+
     void endActiveSpan() {
+        endSpanWaitingForFirstDraw();
         // If we happen to be in app startup, make sure this ends it. It's harmless if we're already out of the startup phase.
         appStartupTimer.end();
         activeSpan.endActiveSpan();
@@ -16,6 +16,11 @@
 
 package com.splunk.rum;
 
+import android.app.ActivityManager;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+
 import androidx.annotation.Nullable;
 
 import java.util.concurrent.TimeUnit;
@@ -25,27 +30,41 @@ import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.sdk.common.Clock;
 
 class AppStartupTimer {
+    //a process start time further back than this is from a pre-forked process, not from the launch.
+    private static final long MAX_PROCESS_START_OFFSET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
     //exposed so it can be used for the rest of the startup sequence timing.
     final RumInitializer.AnchoredClock startupClock = RumInitializer.AnchoredClock.create(Clock.getDefault());
     private final long firstPossibleTimestamp = startupClock.now();
+    final StartupPhaseTracer phaseTracer = new StartupPhaseTracer(startupClock);
     private volatile Span overallAppStartSpan = null;
+    private volatile boolean launchedInBackground = false;
 
     Span start(Tracer tracer) {
         //guard against a double-start and just return what's already in flight.
         if (overallAppStartSpan != null) {
             return overallAppStartSpan;
         }
+        //measured from process start, a process started for a broadcast or a service would count the
+        //time until the user opened the app, so these launches are not reported as a cold start.
+        if (launchedInBackground || (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N && !isForegroundProcess())) {
+            launchedInBackground = true;
+            return Span.getInvalid();
+        }
+        long startTimestamp = appStartTimestamp();
         final Span appStart = tracer.spanBuilder("AppStart")
-                .setStartTimestamp(firstPossibleTimestamp, TimeUnit.NANOSECONDS)
+                .setStartTimestamp(startTimestamp, TimeUnit.NANOSECONDS)
                 .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_APPSTART)
                 .setAttribute(SplunkRum.START_TYPE_KEY, "cold")
                 .startSpan();
         overallAppStartSpan = appStart;
+        phaseTracer.appStartStarted(tracer, appStart, startTimestamp);
         return appStart;
     }
 
     void end() {
-        if (overallAppStartSpan != null) {
+        //when the startup phases are traced, it ends with the first frame phase.
+        if (overallAppStartSpan != null && !phaseTracer.endAfterFirstFrame(this::end)) {
             overallAppStartSpan.end(startupClock.now(), TimeUnit.NANOSECONDS);
             overallAppStartSpan = null;
         }
@@ -55,4 +74,47 @@ class AppStartupTimer {
     Span getStartupSpan() {
         return overallAppStartSpan;
     }
+
+    /**
+     * Whether the process was started for something other than an activity (eg. a broadcast
+     * receiver), so the first activity created in it is not a cold start.
+     */
+    boolean isLaunchedInBackground() {
+        return launchedInBackground;
+    }
+
+    //visible for testing
+    void setLaunchedInBackground() {
+        launchedInBackground = true;
+    }
+
+    /**
+     * The first activity was restored from a saved instance state: the process was killed while the
+     * app was in the background, which makes this a warm start.
+     */
+    void activityRestored() {
+        Span appStart = overallAppStartSpan;
+        if (appStart != null) {
+            appStart.setAttribute(SplunkRum.START_TYPE_KEY, "warm");
+        }
+    }
+
+    private long appStartTimestamp() {
+        //the process start time includes the Application class loading and the content providers.
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            long sinceProcessStartMillis = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+            long processStartTimestamp = startupClock.now() - TimeUnit.MILLISECONDS.toNanos(sinceProcessStartMillis);
+            if (firstPossibleTimestamp - processStartTimestamp <= TimeUnit.MILLISECONDS.toNanos(MAX_PROCESS_START_OFFSET_MILLIS)) {
+                return processStartTimestamp;
+            }
+        }
+        return firstPossibleTimestamp;
+    }
+
+    //when started to launch an activity, the process is already in the foreground while the application is created.
+    private static boolean isForegroundProcess() {
+        ActivityManager.RunningAppProcessInfo processInfo = new ActivityManager.RunningAppProcessInfo();
+        ActivityManager.getMyMemoryState(processInfo);
+        return processInfo.importance == ActivityManager.RunningAppProcessInfo.IMPORTANCE_FOREGROUND;
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * The most recent breadcrumbs of the session (see {@link SplunkRum#addBreadcrumb(String, Attributes)}),
+ * in a fixed-size ring buffer: once it's full, each new breadcrumb replaces the oldest one.
+ * <p>
+ * Breadcrumbs aren't spans: adding one only stores its name, time and attributes. They're sent as a
+ * single {@code breadcrumbs} attribute on the next error, crash or ANR span, or, when a batch
+ * interval is configured (see {@link Config.Builder#breadcrumbBatchInterval(java.time.Duration)}),
+ * periodically on a {@code Breadcrumbs} span. Either way the buffer is emptied, as it is when a new
+ * session starts. When the breadcrumbs don't all fit in the attribute length limit (see
+ * {@link Config.Builder#maxAttributeValueLength(int)}), the oldest ones are left out, rather than
+ * having the span limits cut off the newest ones.
+ */
+final class BreadcrumbBuffer {
+    static final String BATCH_SPAN_NAME = "Breadcrumbs";
+    //one line per breadcrumb, oldest first: the epoch millis, the name and the attributes, eg. "1634567890123 tap view=list".
+    static final AttributeKey<String> BREADCRUMBS_KEY = stringKey("breadcrumbs");
+    static final AttributeKey<Long> BREADCRUMB_COUNT_KEY = longKey("breadcrumbs.count");
+
+    private final int maxLength;
+    private final Clock clock;
+
+    // guarded by this.
+    private final String[] names;
+    private final long[] timestampsMillis;
+    private final Attributes[] attributes;
+    //the index of the oldest breadcrumb.
+    private int start;
+    private int size;
+
+    //a maxLength of 0 means no limit.
+    BreadcrumbBuffer(int capacity, int maxLength) {
+        this(capacity, maxLength, Clock.getDefault());
+    }
+
+    //visible for testing
+    BreadcrumbBuffer(int capacity, int maxLength, Clock clock) {
+        this.maxLength = maxLength;
+        this.clock = clock;
+        this.names = new String[capacity];
+        this.timestampsMillis = new long[capacity];
+        this.attributes = new Attributes[capacity];
+    }
+
+    void add(String name, Attributes attributes) {
+        if (names.length == 0) {
+            return;
+        }
+        long nowMillis = TimeUnit.NANOSECONDS.toMillis(clock.now());
+        synchronized (this) {
+            int index = (start + size) % names.length;
+            if (size == names.length) {
+                //overwrite the oldest one.
+                start = (start + 1) % names.length;
+            } else {
+                size++;
+            }
+            this.names[index] = name;
+            this.timestampsMillis[index] = nowMillis;
+            this.attributes[index] = attributes == null ? Attributes.empty() : attributes;
+        }
+    }
+
+    synchronized void clear() {
+        for (int i = 0; i < names.length; i++) {
+            names[i] = null;
+            attributes[i] = null;
+        }
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Adds the buffered breadcrumbs to the span (which is about to end), and empties the buffer.
+     */
+    void attachTo(Span span) {
+        List<String> lines;
+        synchronized (this) {
+            lines = drain();
+        }
+        if (lines != null) {
+            span.setAttribute(BREADCRUMBS_KEY, join(lines));
+            span.setAttribute(BREADCRUMB_COUNT_KEY, (long) lines.size());
+        }
+    }
+
+    /**
+     * Sends the buffered breadcrumbs as a single span, if there are any.
+     */
+    void report(Tracer tracer) {
+        List<String> lines;
+        synchronized (this) {
+            lines = drain();
+        }
+        if (lines != null) {
+            tracer.spanBuilder(BATCH_SPAN_NAME)
+                    .setAttribute(BREADCRUMBS_KEY, join(lines))
+                    .setAttribute(BREADCRUMB_COUNT_KEY, (long) lines.size())
+                    .startSpan()
+                    .end();
+        }
+    }
+
+    //the lines of the newest breadcrumbs that fit in maxLength, newest first. Guarded by this.
+    @Nullable
+    private List<String> drain() {
+        if (size == 0) {
+            return null;
+        }
+        List<String> lines = new ArrayList<>(size);
+        int length = 0;
+        StringBuilder line = new StringBuilder();
+        for (int i = size - 1; i >= 0; i--) {
+            int index = (start + i) % names.length;
+            line.setLength(0);
+            line.append(timestampsMillis[index]).append(' ').append(names[index]);
+            attributes[index].forEach((key, value) -> line.append(' ').append(key.getKey()).append('=').append(value));
+            //the newest one is always sent, even if the span limits will have to cut it short.
+            int withSeparator = lines.isEmpty() ? line.length() : length + 1 + line.length();
+            if (!lines.isEmpty() && maxLength > 0 && withSeparator > maxLength) {
+                break;
+            }
+            lines.add(line.toString());
+            length = withSeparator;
+        }
+        clear();
+        return lines;
+    }
+
+    //oldest first.
+    private static String join(List<String> newestFirst) {
+        StringBuilder breadcrumbs = new StringBuilder();
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            breadcrumbs.append(newestFirst.get(i));
+            if (i > 0) {
+                breadcrumbs.append('\n');
+            }
+        }
+        return breadcrumbs.toString();
+    }
+}
@@ -20,77 +20,239 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
+/**
+ * Holds back spans while the device is offline, and keeps the spans of failed exports for a later
+ * retry.
+ * <p>
+ * Besides the BatchSpanProcessor's worker thread, the backlog is also changed from the http callback
+ * threads that complete an export, and drained by {@link #flush()} calls from any thread, so it is a
+ * lock-free queue. Each span in it is taken out by exactly one export.
+ */
 class BufferingExporter implements SpanExporter {
     private static final int MAX_BACKLOG_SIZE = 100;
+    //below this estimated uplink speed, we don't want to push a large backlog in a single request.
+    private static final int LOW_UPSTREAM_BANDWIDTH_KBPS = 256;
+    //backlogs this small are always sent along with the current batch.
+    private static final int DEFERRABLE_BACKLOG_SIZE = 20;
+    //a backlog is held back for at most this long, so a device that is only ever on a metered link
+    //still gets it out eventually.
+    static final long MAX_BACKLOG_DEFERRAL_NANOS = TimeUnit.MINUTES.toNanos(15);
+    private static final long NOT_DEFERRING = Long.MIN_VALUE;
+    //a drained backlog is sent in requests of at most this many (estimated) bytes, so that each one
+    //can complete on a weak link.
+    static final int MAX_CHUNK_BYTES = 64 * 1024;
 
     private final ConnectionUtil connectionUtil;
     private final SpanExporter delegate;
-    //note: no need to make this queue thread-safe since it will only ever be called from the BatchSpanProcessor worker thread.
-    private final Queue<SpanData> backlog = new ArrayDeque<>(MAX_BACKLOG_SIZE);
+    private final boolean deferBacklogOnConstrainedNetwork;
+    private final PipelineMetrics metrics;
+    private final ToIntFunction<SpanData> spanSizeEstimator;
+    private final Clock clock;
+    private final Queue<SpanData> backlog = new ConcurrentLinkedQueue<>();
+    //the queue's own size() walks the whole queue. This is incremented before a span is added, and
+    //decremented after one is taken out, so it is never lower than the actual size.
+    private final AtomicInteger backlogSize = new AtomicInteger();
+    //when the current run of deferred exports started, or NOT_DEFERRING.
+    private volatile long deferringSinceNanos = NOT_DEFERRING;
 
     BufferingExporter(ConnectionUtil connectionUtil, SpanExporter delegate) {
+        this(connectionUtil, delegate, false, new PipelineMetrics());
+    }
+
+    //without a size estimator, all spans are sent in a single request.
+    BufferingExporter(ConnectionUtil connectionUtil, SpanExporter delegate, boolean deferBacklogOnConstrainedNetwork, PipelineMetrics metrics) {
+        this(connectionUtil, delegate, deferBacklogOnConstrainedNetwork, metrics, span -> 0);
+    }
+
+    BufferingExporter(ConnectionUtil connectionUtil, SpanExporter delegate, boolean deferBacklogOnConstrainedNetwork, PipelineMetrics metrics, ToIntFunction<SpanData> spanSizeEstimator) {
+        this(connectionUtil, delegate, deferBacklogOnConstrainedNetwork, metrics, spanSizeEstimator, Clock.getDefault());
+    }
+
+    //visible for testing
+    BufferingExporter(ConnectionUtil connectionUtil, SpanExporter delegate, boolean deferBacklogOnConstrainedNetwork, PipelineMetrics metrics, ToIntFunction<SpanData> spanSizeEstimator, Clock clock) {
         this.connectionUtil = connectionUtil;
         this.delegate = delegate;
+        this.deferBacklogOnConstrainedNetwork = deferBacklogOnConstrainedNetwork;
+        this.metrics = metrics;
+        this.spanSizeEstimator = spanSizeEstimator;
+        this.clock = clock;
     }
 
     @Override
     public CompletableResultCode export(Collection<SpanData> spans) {
-        backlog.addAll(spans);
-        if (!connectionUtil.refreshNetworkStatus().isOnline()) {
+        return export(spans, false);
+    }
+
+    private CompletableResultCode export(Collection<SpanData> spans, boolean fromBacklog) {
+        CurrentNetwork currentNetwork = connectionUtil.refreshNetworkStatusIfUnmonitored();
+        if (!currentNetwork.isOnline()) {
+            addToBacklog(spans);
+            metrics.recordBuffered(spans.size());
             Log.i(SplunkRum.LOG_TAG, "Network offline, buffering " + spans.size() + " spans for eventual export.");
             return CompletableResultCode.ofSuccess();
         }
-        List<SpanData> toExport = fillFromBacklog();
-        Log.d(SplunkRum.LOG_TAG, "Sending " + toExport.size() + " spans for export");
-        CompletableResultCode exportResult = delegate.export(toExport);
+        List<SpanData> toExport;
+        boolean drainingBacklog = fromBacklog;
+        if (shouldDeferBacklog(currentNetwork)) {
+            Log.d(SplunkRum.LOG_TAG, "Constrained network, deferring export of " + backlogSize.get() + " backlogged spans.");
+            toExport = new ArrayList<>(spans);
+        } else {
+            toExport = fillFromBacklog();
+            drainingBacklog |= !toExport.isEmpty();
+            toExport.addAll(spans);
+        }
+        //measuring a span costs about as much as encoding it, so a regular batch is sent as it is.
+        List<List<SpanData>> chunks = drainingBacklog ? splitIntoChunks(toExport) : Collections.singletonList(toExport);
+        Log.d(SplunkRum.LOG_TAG, "Sending " + toExport.size() + " spans for export in " + chunks.size() + " requests");
+        CompletableResultCode result = new CompletableResultCode();
+        exportChunks(chunks, 0, result);
+        return result;
+    }
+
+    private List<List<SpanData>> splitIntoChunks(List<SpanData> spans) {
+        List<List<SpanData>> chunks = new ArrayList<>();
+        List<SpanData> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for (SpanData span : spans) {
+            int spanBytes = spanSizeEstimator.applyAsInt(span);
+            //a span that is larger than the limit by itself still gets sent, on its own.
+            if (!chunk.isEmpty() && chunkBytes + spanBytes > MAX_CHUNK_BYTES) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(span);
+            chunkBytes += spanBytes;
+        }
+        chunks.add(chunk);
+        return chunks;
+    }
+
+    //one chunk at a time, each after the previous one succeeded. The chunks that were sent stay sent
+    //when a later one fails; that one and the rest go back to the backlog.
+    private void exportChunks(List<List<SpanData>> chunks, int index, CompletableResultCode result) {
+        if (index == chunks.size()) {
+            result.succeed();
+            return;
+        }
+        List<SpanData> chunk = chunks.get(index);
+        long exportStartNanos = clock.nanoTime();
+        CompletableResultCode exportResult = delegate.export(chunk);
         exportResult.whenComplete(() -> {
+            metrics.getExportTime().record(clock.nanoTime() - exportStartNanos);
             if (exportResult.isSuccess()) {
+                metrics.recordExported(chunk.size());
+                exportChunks(chunks, index + 1, result);
                 return;
             }
-            Log.i(SplunkRum.LOG_TAG, "Export failed. adding " + toExport.size() + " spans to the backlog");
-            addFailedSpansToBacklog(toExport);
+            metrics.recordFailed(chunk.size());
+            List<SpanData> unsent = new ArrayList<>();
+            for (int i = index; i < chunks.size(); i++) {
+                unsent.addAll(chunks.get(i));
+            }
+            Log.i(SplunkRum.LOG_TAG, "Export failed. adding " + unsent.size() + " spans to the backlog");
+            addFailedSpansToBacklog(unsent);
+            result.fail();
         });
-        return exportResult;
+    }
+
+    private boolean shouldDeferBacklog(CurrentNetwork currentNetwork) {
+        if (!deferBacklogOnConstrainedNetwork || backlogSize.get() <= DEFERRABLE_BACKLOG_SIZE || !isConstrained(currentNetwork)) {
+            deferringSinceNanos = NOT_DEFERRING;
+            return false;
+        }
+        long now = clock.nanoTime();
+        long deferringSince = deferringSinceNanos;
+        if (deferringSince == NOT_DEFERRING) {
+            deferringSinceNanos = now;
+            return true;
+        }
+        if (now - deferringSince < MAX_BACKLOG_DEFERRAL_NANOS) {
+            return true;
+        }
+        Log.d(SplunkRum.LOG_TAG, "Backlog deferred for too long, sending it on the constrained network.");
+        deferringSinceNanos = NOT_DEFERRING;
+        return false;
+    }
+
+    private static boolean isConstrained(CurrentNetwork currentNetwork) {
+        int upstreamBandwidthKbps = currentNetwork.getUpstreamBandwidthKbps();
+        boolean lowBandwidth = upstreamBandwidthKbps != CurrentNetwork.UNKNOWN_BANDWIDTH
+                && upstreamBandwidthKbps < LOW_UPSTREAM_BANDWIDTH_KBPS;
+        return currentNetwork.isMetered() || lowBandwidth;
+    }
+
+    private void addToBacklog(Collection<SpanData> spans) {
+        backlogSize.addAndGet(spans.size());
+        backlog.addAll(spans);
     }
 
     //todo Should we favor saving certain kinds of span if we're out of space? Or favor recency?
     private void addFailedSpansToBacklog(List<SpanData> toExport) {
+        int evicted = 0;
         for (SpanData spanData : toExport) {
-            if (backlog.size() < MAX_BACKLOG_SIZE) {
+            if (reserveBacklogSpace()) {
                 backlog.add(spanData);
+            } else {
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            metrics.recordEvicted(evicted);
+        }
+    }
+
+    private boolean reserveBacklogSpace() {
+        while (true) {
+            int size = backlogSize.get();
+            if (size >= MAX_BACKLOG_SIZE) {
+                return false;
+            }
+            if (backlogSize.compareAndSet(size, size + 1)) {
+                return true;
             }
         }
     }
 
     @NonNull
     private List<SpanData> fillFromBacklog() {
-        List<SpanData> retries = new ArrayList<>(backlog);
-        backlog.clear();
+        List<SpanData> retries = new ArrayList<>();
+        SpanData span;
+        while ((span = backlog.poll()) != null) {
+            backlogSize.decrementAndGet();
+            retries.add(span);
+        }
         return retries;
     }
 
     @Override
     public CompletableResultCode flush() {
-        if (!backlog.isEmpty()) {
+        List<SpanData> retries = fillFromBacklog();
+        if (!retries.isEmpty()) {
             //note: the zipkin exporter has a no-op flush() method, so no need to call it after this.
-            return export(fillFromBacklog());
+            return export(retries, true);
         }
         return delegate.flush();
     }
 
     @Override
     public CompletableResultCode shutdown() {
-        backlog.clear();
+        fillFromBacklog();
         return delegate.shutdown();
     }
 }
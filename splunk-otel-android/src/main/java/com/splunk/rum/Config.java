@@ -18,7 +18,16 @@ package com.splunk.rum;
 
 import android.util.Log;
 
+import androidx.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -34,6 +43,15 @@ import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
  * to build a Config instance without both of these items specified will result in an exception being thrown.
  */
 public class Config {
+    static final Duration DEFAULT_WORKFLOW_TIMEOUT = Duration.ofMinutes(30);
+    static final int DEFAULT_BREADCRUMB_CAPACITY = 50;
+    //the sdk's defaults, except for the value length which the sdk doesn't limit.
+    static final int DEFAULT_MAX_SPAN_ATTRIBUTES = 128;
+    static final int DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH = 2048;
+    static final int DEFAULT_MAX_SPAN_EVENTS = 128;
+    static final int DEFAULT_MAX_SPAN_LINKS = 128;
+    static final int DEFAULT_STACK_TRACE_TOP_FRAMES = 15;
+    static final int DEFAULT_STACK_TRACE_BOTTOM_FRAMES = 5;
 
     private final String beaconEndpoint;
     private final String rumAccessToken;
@@ -42,8 +60,34 @@ public class Config {
     private final boolean crashReportingEnabled;
     private final boolean networkMonitorEnabled;
     private final boolean anrDetectionEnabled;
+    private final boolean backlogDeferralEnabled;
+    private final boolean serverTimingMetricsEnabled;
+    private final boolean pipelineMetricsReportingEnabled;
+    private final boolean selfProfilingEnabled;
+    private final Duration selfProfilingFrameBudget;
+    private final boolean compactLifecycleEventsEnabled;
+    @Nullable
+    private final Duration compactLifecycleEventThreshold;
+    private final boolean firstDrawTimingEnabled;
+    private final boolean fragmentLifecycleAggregationEnabled;
+    private final Duration fragmentLifecycleOutlierThreshold;
+    private final Duration workflowTimeout;
+    private final Map<String, Integer> debugLogLevels;
+    private final Map<String, Duration> coalescedRumEvents;
+    private final int breadcrumbCapacity;
+    @Nullable
+    private final Duration breadcrumbBatchInterval;
+    private final int maxSpanAttributes;
+    private final int maxAttributeValueLength;
+    private final int maxSpanEvents;
+    private final int maxSpanLinks;
+    private final int stackTraceTopFrames;
+    private final int stackTraceBottomFrames;
+    @Nullable
+    private final Function<Class<?>, String> screenNameMapping;
+    private final List<AdditionalEndpoint> additionalEndpoints;
     private final AtomicReference<Attributes> globalAttributes = new AtomicReference<>();
-    private final Function<SpanExporter, SpanExporter> spanFilterExporterDecorator;
+    private final BiFunction<SpanExporter, PipelineMetrics, SpanExporter> spanFilterExporterDecorator;
 
     private Config(Builder builder) {
         this.beaconEndpoint = builder.beaconEndpoint;
@@ -54,7 +98,30 @@ public class Config {
         this.globalAttributes.set(addDeploymentEnvironment(builder));
         this.networkMonitorEnabled = builder.networkMonitorEnabled;
         this.anrDetectionEnabled = builder.anrDetectionEnabled;
+        this.backlogDeferralEnabled = builder.backlogDeferralEnabled;
+        this.serverTimingMetricsEnabled = builder.serverTimingMetricsEnabled;
+        this.pipelineMetricsReportingEnabled = builder.pipelineMetricsReportingEnabled;
+        this.selfProfilingEnabled = builder.selfProfilingEnabled;
+        this.selfProfilingFrameBudget = builder.selfProfilingFrameBudget;
+        this.compactLifecycleEventsEnabled = builder.compactLifecycleEventsEnabled;
+        this.compactLifecycleEventThreshold = builder.compactLifecycleEventThreshold;
+        this.firstDrawTimingEnabled = builder.firstDrawTimingEnabled;
+        this.fragmentLifecycleAggregationEnabled = builder.fragmentLifecycleAggregationEnabled;
+        this.fragmentLifecycleOutlierThreshold = builder.fragmentLifecycleOutlierThreshold;
+        this.workflowTimeout = builder.workflowTimeout;
+        this.debugLogLevels = Collections.unmodifiableMap(new HashMap<>(builder.debugLogLevels));
+        this.coalescedRumEvents = Collections.unmodifiableMap(new HashMap<>(builder.coalescedRumEvents));
+        this.breadcrumbCapacity = builder.breadcrumbCapacity;
+        this.breadcrumbBatchInterval = builder.breadcrumbBatchInterval;
+        this.maxSpanAttributes = builder.maxSpanAttributes;
+        this.maxAttributeValueLength = builder.maxAttributeValueLength;
+        this.maxSpanEvents = builder.maxSpanEvents;
+        this.maxSpanLinks = builder.maxSpanLinks;
+        this.stackTraceTopFrames = builder.stackTraceTopFrames;
+        this.stackTraceBottomFrames = builder.stackTraceBottomFrames;
+        this.screenNameMapping = builder.screenNameMapping;
         this.spanFilterExporterDecorator = builder.spanFilterBuilder.build();
+        this.additionalEndpoints = Collections.unmodifiableList(new ArrayList<>(builder.additionalEndpoints));
     }
 
     private Attributes addDeploymentEnvironment(Builder builder) {
@@ -125,14 +192,203 @@ public class Config {
         return anrDetectionEnabled;
     }
 
+    /**
+     * Is deferring the upload of buffered spans on metered or low-bandwidth networks enabled.
+     */
+    public boolean isBacklogDeferralEnabled() {
+        return backlogDeferralEnabled;
+    }
+
+    /**
+     * Is recording the durations from the Server-Timing response header as http span attributes enabled.
+     */
+    public boolean isServerTimingMetricsEnabled() {
+        return serverTimingMetricsEnabled;
+    }
+
+    /**
+     * Is periodically reporting the {@link PipelineMetrics} as a span enabled.
+     */
+    public boolean isPipelineMetricsReportingEnabled() {
+        return pipelineMetricsReportingEnabled;
+    }
+
+    /**
+     * Is measuring the time spent by the library in lifecycle callbacks and span processors enabled.
+     */
+    public boolean isSelfProfilingEnabled() {
+        return selfProfilingEnabled;
+    }
+
+    /**
+     * The time the lifecycle callbacks may take per frame, when self-profiling is enabled.
+     */
+    public Duration getSelfProfilingFrameBudget() {
+        return selfProfilingFrameBudget;
+    }
+
+    /**
+     * Is compact recording of the activity lifecycle events enabled.
+     */
+    public boolean isCompactLifecycleEventsEnabled() {
+        return compactLifecycleEventsEnabled;
+    }
+
+    /**
+     * The minimum time between lifecycle events for them to be recorded as span events in compact
+     * mode, or {@code null} if they're all recorded in a single attribute.
+     */
+    @Nullable
+    public Duration getCompactLifecycleEventThreshold() {
+        return compactLifecycleEventThreshold;
+    }
+
+    /**
+     * Do the activity spans that end when the activity is resumed end after its first frame is drawn.
+     */
+    public boolean isFirstDrawTimingEnabled() {
+        return firstDrawTimingEnabled;
+    }
+
+    /**
+     * Are the fragment lifecycle transitions aggregated into per-screen histograms, instead of being
+     * sent as spans.
+     */
+    public boolean isFragmentLifecycleAggregationEnabled() {
+        return fragmentLifecycleAggregationEnabled;
+    }
+
+    /**
+     * How long an aggregated fragment lifecycle transition may take before it's also sent as a span.
+     */
+    public Duration getFragmentLifecycleOutlierThreshold() {
+        return fragmentLifecycleOutlierThreshold;
+    }
+
+    /**
+     * How long a workflow may stay open before it's ended as abandoned.
+     */
+    public Duration getWorkflowTimeout() {
+        return workflowTimeout;
+    }
+
+    /**
+     * The {@link Log} priorities that spans are logged at in debug mode, by component.
+     */
+    public Map<String, Integer> getDebugLogLevels() {
+        return debugLogLevels;
+    }
+
+    /**
+     * The names of the custom events that are coalesced, and their time windows.
+     */
+    public Map<String, Duration> getCoalescedRumEvents() {
+        return coalescedRumEvents;
+    }
+
+    /**
+     * The number of breadcrumbs that are kept until the next error, crash or ANR.
+     */
+    public int getBreadcrumbCapacity() {
+        return breadcrumbCapacity;
+    }
+
+    /**
+     * How often the breadcrumbs are sent in a batch, or {@code null} if they're only sent along with
+     * errors, crashes and ANRs.
+     */
+    @Nullable
+    public Duration getBreadcrumbBatchInterval() {
+        return breadcrumbBatchInterval;
+    }
+
+    /**
+     * The maximum number of attributes on a span, 0 if there's no limit.
+     */
+    public int getMaxSpanAttributes() {
+        return maxSpanAttributes;
+    }
+
+    /**
+     * The maximum length of a string attribute value, 0 if there's no limit.
+     */
+    public int getMaxAttributeValueLength() {
+        return maxAttributeValueLength;
+    }
+
+    /**
+     * The maximum number of events on a span, 0 if there's no limit.
+     */
+    public int getMaxSpanEvents() {
+        return maxSpanEvents;
+    }
+
+    /**
+     * The maximum number of links on a span, 0 if there's no limit.
+     */
+    public int getMaxSpanLinks() {
+        return maxSpanLinks;
+    }
+
+    /**
+     * The number of frames kept from the top of a long stack trace.
+     */
+    public int getStackTraceTopFrames() {
+        return stackTraceTopFrames;
+    }
+
+    /**
+     * The number of frames kept from the bottom of a long stack trace.
+     */
+    public int getStackTraceBottomFrames() {
+        return stackTraceBottomFrames;
+    }
+
+    /**
+     * The custom screen names of activity and fragment classes, if any.
+     */
+    @Nullable
+    public Function<Class<?>, String> getScreenNameMapping() {
+        return screenNameMapping;
+    }
+
+    StackTraceTruncator newStackTraceTruncator() {
+        return new StackTraceTruncator(stackTraceTopFrames, stackTraceBottomFrames, maxAttributeValueLength);
+    }
+
+    LifecycleEventRecorder newLifecycleEventRecorder() {
+        if (!compactLifecycleEventsEnabled) {
+            return LifecycleEventRecorder.direct();
+        }
+        return LifecycleEventRecorder.compact(compactLifecycleEventThreshold);
+    }
+
     void updateGlobalAttributes(Consumer<AttributesBuilder> updater) {
         AttributesBuilder builder = globalAttributes.get().toBuilder();
         updater.accept(builder);
         globalAttributes.set(builder.build());
     }
 
-    SpanExporter decorateWithSpanFilter(SpanExporter exporter) {
-        return spanFilterExporterDecorator.apply(exporter);
+    SpanExporter decorateWithSpanFilter(SpanExporter exporter, PipelineMetrics metrics) {
+        return spanFilterExporterDecorator.apply(exporter, metrics);
+    }
+
+    List<AdditionalEndpoint> getAdditionalEndpoints() {
+        return additionalEndpoints;
+    }
+
+    static final class AdditionalEndpoint {
+        final String endpoint;
+        private final BiFunction<SpanExporter, PipelineMetrics, SpanExporter> spanFilterExporterDecorator;
+
+        AdditionalEndpoint(String endpoint, BiFunction<SpanExporter, PipelineMetrics, SpanExporter> spanFilterExporterDecorator) {
+            this.endpoint = endpoint;
+            this.spanFilterExporterDecorator = spanFilterExporterDecorator;
+        }
+
+        SpanExporter decorateWithSpanFilter(SpanExporter exporter, PipelineMetrics metrics) {
+            return spanFilterExporterDecorator.apply(exporter, metrics);
+        }
     }
 
     /**
@@ -146,9 +402,35 @@ public class Config {
         private boolean debugEnabled = false;
         private String applicationName;
         private boolean crashReportingEnabled = true;
+        private boolean backlogDeferralEnabled = false;
+        private boolean serverTimingMetricsEnabled = false;
+        private boolean pipelineMetricsReportingEnabled = false;
+        private boolean selfProfilingEnabled = false;
+        private Duration selfProfilingFrameBudget = Duration.ofMillis(2);
+        private boolean compactLifecycleEventsEnabled = false;
+        @Nullable
+        private Duration compactLifecycleEventThreshold = null;
+        private boolean firstDrawTimingEnabled = false;
+        private boolean fragmentLifecycleAggregationEnabled = false;
+        private Duration fragmentLifecycleOutlierThreshold = Duration.ofMillis(250);
+        private Duration workflowTimeout = DEFAULT_WORKFLOW_TIMEOUT;
+        private final Map<String, Integer> debugLogLevels = new HashMap<>();
+        private final Map<String, Duration> coalescedRumEvents = new HashMap<>();
+        private int breadcrumbCapacity = DEFAULT_BREADCRUMB_CAPACITY;
+        @Nullable
+        private Duration breadcrumbBatchInterval = null;
+        private int maxSpanAttributes = DEFAULT_MAX_SPAN_ATTRIBUTES;
+        private int maxAttributeValueLength = DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH;
+        private int maxSpanEvents = DEFAULT_MAX_SPAN_EVENTS;
+        private int maxSpanLinks = DEFAULT_MAX_SPAN_LINKS;
+        private int stackTraceTopFrames = DEFAULT_STACK_TRACE_TOP_FRAMES;
+        private int stackTraceBottomFrames = DEFAULT_STACK_TRACE_BOTTOM_FRAMES;
+        @Nullable
+        private Function<Class<?>, String> screenNameMapping = null;
         private Attributes globalAttributes = Attributes.empty();
         private String deploymentEnvironment;
         private final SpanFilterBuilder spanFilterBuilder = new SpanFilterBuilder();
+        private final List<AdditionalEndpoint> additionalEndpoints = new ArrayList<>();
         private String realm;
 
         /**
@@ -258,6 +540,275 @@ public class Config {
             return this;
         }
 
+        /**
+         * Enable/disable deferring the upload of spans that were buffered while offline (or after
+         * a failed export) while the device is on a metered or low-bandwidth network. Newly created
+         * spans are still sent right away, and the backlog is sent anyway once it has been held back
+         * for 15 minutes. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder backlogDeferralEnabled(boolean enable) {
+            this.backlogDeferralEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Enable/disable recording the metric durations from the {@code Server-Timing} response header
+         * (for example {@code db;dur=53}) as numeric attributes on the http client spans, named
+         * {@code http.server_timing.<metric name>}. Only the first 10 metrics with a duration and a name
+         * of at most 32 characters are recorded. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder serverTimingMetricsEnabled(boolean enable) {
+            this.serverTimingMetricsEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Enable/disable reporting the {@link PipelineMetrics} every 5 minutes, as a
+         * {@code PipelineMetrics} span with the changes since the previous report. Nothing is reported
+         * when no spans were created in the meantime. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder pipelineMetricsReportingEnabled(boolean enable) {
+            this.pipelineMetricsReportingEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Enable/disable measuring the time the library spends in the activity and fragment
+         * lifecycle callbacks and in its span processors, available from
+         * {@link SplunkRum#getSelfProfiler()}. When the lifecycle callbacks take longer than the
+         * {@link #selfProfilingFrameBudget(Duration) frame budget}, the span events of the callbacks
+         * that don't start or end a span are dropped for the rest of the frame. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder selfProfilingEnabled(boolean enable) {
+            this.selfProfilingEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Sets the time the lifecycle callbacks may take within one frame before lifecycle span
+         * events are dropped, when self-profiling is enabled. Defaults to 2 milliseconds.
+         *
+         * @return this.
+         */
+        public Builder selfProfilingFrameBudget(Duration frameBudget) {
+            this.selfProfilingFrameBudget = frameBudget;
+            return this;
+        }
+
+        /**
+         * Enable/disable compact recording of the activity lifecycle events. Instead of adding a
+         * span event for each lifecycle callback, the callback names and times are added to the span
+         * as a single {@code lifecycle.events} attribute when it ends, for example
+         * {@code activityPreCreated:0,activityCreated:1520}, with the times in microseconds since the
+         * first event. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder compactLifecycleEventsEnabled(boolean enable) {
+            this.compactLifecycleEventsEnabled = enable;
+            return this;
+        }
+
+        /**
+         * When compact lifecycle event recording is enabled, only add the lifecycle events that came
+         * at least this long after the previous one, as span events, instead of the
+         * {@code lifecycle.events} attribute. Not set by default.
+         *
+         * @return this.
+         */
+        public Builder compactLifecycleEventThreshold(Duration threshold) {
+            this.compactLifecycleEventThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Enable/disable ending the activity creation, restart and resume spans (including the
+         * {@code AppStart} span) and the fragment resume spans after the next frame has been drawn,
+         * instead of when the activity or fragment is resumed. This includes the time spent
+         * measuring, laying out and drawing that frame. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder firstDrawTimingEnabled(boolean enable) {
+            this.firstDrawTimingEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Enable/disable aggregating the fragment lifecycle transitions ({@code Created},
+         * {@code Restored}, {@code Resumed}, {@code Paused}, {@code ViewDestroyed}, {@code Destroyed}
+         * and {@code Detached}) into per-screen histograms of their durations, instead of sending a
+         * span for each of them. The histograms are sent as the attributes of a
+         * {@code FragmentLifecycleSummary} span per screen every minute, and when the app goes to the
+         * background.
+         * Transitions that take longer than the
+         * {@link #fragmentLifecycleOutlierThreshold(Duration) outlier threshold} are still sent as
+         * spans, without their lifecycle events. Disabled by default.
+         *
+         * @return this.
+         */
+        public Builder fragmentLifecycleAggregationEnabled(boolean enable) {
+            this.fragmentLifecycleAggregationEnabled = enable;
+            return this;
+        }
+
+        /**
+         * Sets how long an aggregated fragment lifecycle transition may take before it's also sent as
+         * a span, when fragment lifecycle aggregation is enabled. Defaults to 250 milliseconds.
+         *
+         * @return this.
+         */
+        public Builder fragmentLifecycleOutlierThreshold(Duration threshold) {
+            this.fragmentLifecycleOutlierThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets how long a workflow started with {@link SplunkRum#startWorkflow(String)} may stay
+         * open. Workflows that haven't been ended by then are ended with an error status, so that
+         * they're still exported instead of being kept in memory. Defaults to 30 minutes.
+         *
+         * @return this.
+         */
+        public Builder workflowTimeout(Duration timeout) {
+            this.workflowTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Log} priority that spans of a component (the {@code component} attribute,
+         * for example {@code ui} or {@code http}) are logged at in debug mode. Spans are logged at
+         * {@link Log#INFO} by default. Spans whose priority isn't loggable for the {@code SplunkRum}
+         * tag, for example {@link Log#DEBUG} unless enabled with
+         * {@code adb shell setprop log.tag.SplunkRum DEBUG}, are not formatted or logged.
+         *
+         * @return this.
+         */
+        public Builder debugLogLevel(String component, int priority) {
+            this.debugLogLevels.put(component, priority);
+            return this;
+        }
+
+        /**
+         * Coalesces the custom events of the given name (see
+         * {@link SplunkRum#addRumEvent(String, Attributes)}): the events with the same attributes
+         * within the time window after the first one are sent as a single span, from the first
+         * event to the last one, with their number in the {@code event.count} attribute. Useful for
+         * events that can be added many times in a short time, like scrolls or taps. Events are not
+         * coalesced by default.
+         *
+         * @return this.
+         */
+        public Builder coalesceRumEvents(String eventName, Duration window) {
+            this.coalescedRumEvents.put(eventName, window);
+            return this;
+        }
+
+        /**
+         * Sets the number of breadcrumbs (see {@link SplunkRum#addBreadcrumb(String, Attributes)})
+         * that are kept until the next error, crash or ANR. Older breadcrumbs are dropped. Defaults
+         * to 50; 0 disables breadcrumbs.
+         *
+         * @return this.
+         */
+        public Builder breadcrumbCapacity(int capacity) {
+            this.breadcrumbCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Also send the breadcrumbs periodically, in a single {@code Breadcrumbs} span, instead of
+         * only along with the next error, crash or ANR. Not set by default.
+         *
+         * @return this.
+         */
+        public Builder breadcrumbBatchInterval(Duration interval) {
+            this.breadcrumbBatchInterval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of attributes on a span; additional attributes are dropped.
+         * Defaults to 128; 0 removes the limit.
+         *
+         * @return this.
+         */
+        public Builder maxSpanAttributes(int limit) {
+            this.maxSpanAttributes = limit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of string attribute values; longer values are truncated. Stack
+         * traces are shortened to fit by removing whole frames instead (see
+         * {@link #stackTraceFrames(int, int)}). Defaults to 2048; 0 removes the limit.
+         *
+         * @return this.
+         */
+        public Builder maxAttributeValueLength(int limit) {
+            this.maxAttributeValueLength = limit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of events on a span; additional events are dropped. Defaults to
+         * 128; 0 removes the limit.
+         *
+         * @return this.
+         */
+        public Builder maxSpanEvents(int limit) {
+            this.maxSpanEvents = limit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of links on a span; additional links are dropped. Defaults to 128;
+         * 0 removes the limit.
+         *
+         * @return this.
+         */
+        public Builder maxSpanLinks(int limit) {
+            this.maxSpanLinks = limit;
+            return this;
+        }
+
+        /**
+         * Sets how many frames of a long crash or ANR stack trace are kept: the top frames, where the
+         * error happened, and the bottom ones, where the work started. The frames in between are
+         * replaced with a "... N frames elided" line. Each cause of an exception is shortened
+         * separately, and when the stack trace is still longer than the
+         * {@link #maxAttributeValueLength(int) attribute value length limit}, fewer frames of each
+         * cause are kept until it fits. Defaults to 15 top and 5 bottom frames; 0 and 0 keep all frames.
+         *
+         * @return this.
+         */
+        public Builder stackTraceFrames(int topFrames, int bottomFrames) {
+            this.stackTraceTopFrames = topFrames;
+            this.stackTraceBottomFrames = bottomFrames;
+            return this;
+        }
+
+        /**
+         * Sets the screen names of activities and fragments. The mapping is called once per
+         * activity or fragment class, and the name it returns is used for every instance of it.
+         * When it returns {@code null}, the name comes from the {@link RumScreenName} annotation on
+         * the class or, without one, is the simple class name.
+         *
+         * @return this.
+         */
+        public Builder screenNameMapping(Function<Class<?>, String> screenNameMapping) {
+            this.screenNameMapping = screenNameMapping;
+            return this;
+        }
+
         /**
          * Provide a set of global {@link Attributes} that will be applied to every span generated
          * by the RUM instrumentation.
@@ -291,5 +842,23 @@ public class Config {
             configurer.accept(spanFilterBuilder);
             return this;
         }
+
+        /**
+         * Also send the spans to another Zipkin-compatible endpoint, for example an internal
+         * collector. The spans are filtered with their own {@link SpanFilterBuilder} (use
+         * {@link SpanFilterBuilder#sampleTraces(double)} for a sampled stream), and throttled and
+         * buffered separately from the RUM ingest, on their own thread. The filters configured with
+         * {@link #filterSpans(Consumer)} don't apply to them.
+         *
+         * @param endpoint   The full URL to send the spans to, including any authentication.
+         * @param configurer A function that will configure the passed {@link SpanFilterBuilder}.
+         * @return {@code this}.
+         */
+        public Builder additionalEndpoint(String endpoint, Consumer<SpanFilterBuilder> configurer) {
+            SpanFilterBuilder endpointFilterBuilder = new SpanFilterBuilder();
+            configurer.accept(endpointFilterBuilder);
+            additionalEndpoints.add(new AdditionalEndpoint(endpoint, endpointFilterBuilder.build()));
+            return this;
+        }
     }
 }
@@ -30,13 +30,15 @@ import java.util.function.Supplier;
 //note: based on ideas from stack overflow: https://stackoverflow.com/questions/32547006/connectivitymanager-getnetworkinfoint-deprecated
 class ConnectionUtil {
 
-    static final CurrentNetwork NO_NETWORK = new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null);
-    static final CurrentNetwork UNKNOWN_NETWORK = new CurrentNetwork(NetworkState.TRANSPORT_UNKNOWN, null);
+    static final CurrentNetwork NO_NETWORK = CurrentNetwork.of(NetworkState.NO_NETWORK_AVAILABLE, null);
+    static final CurrentNetwork UNKNOWN_NETWORK = CurrentNetwork.of(NetworkState.TRANSPORT_UNKNOWN, null);
 
     private final NetworkDetector networkDetector;
 
     private volatile CurrentNetwork currentNetwork;
     private volatile ConnectionStateListener connectionStateListener;
+    //when false, nothing reliably pushes changes of the active network to us, so callers that need fresh data have to poll.
+    private volatile boolean trackingDefaultNetwork = false;
 
     ConnectionUtil(NetworkDetector networkDetector) {
         this.networkDetector = networkDetector;
@@ -45,20 +47,22 @@ class ConnectionUtil {
     void startMonitoring(Supplier<NetworkRequest> createNetworkMonitoringRequest, ConnectivityManager connectivityManager) {
         refreshNetworkStatus();
         try {
-            registerNetworkCallbacks(createNetworkMonitoringRequest, connectivityManager);
+            trackingDefaultNetwork = registerNetworkCallbacks(createNetworkMonitoringRequest, connectivityManager);
         } catch (Exception e) {
             //if this fails, we'll go without network change events.
             Log.w(SplunkRum.LOG_TAG, "Failed to register network callbacks. Automatic network monitoring is disabled.", e);
         }
     }
 
-    private void registerNetworkCallbacks(Supplier<NetworkRequest> createNetworkMonitoringRequest, ConnectivityManager connectivityManager) {
+    //returns whether the registered callback tracks the default network.
+    private boolean registerNetworkCallbacks(Supplier<NetworkRequest> createNetworkMonitoringRequest, ConnectivityManager connectivityManager) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            connectivityManager.registerDefaultNetworkCallback(new ConnectionMonitor());
-        } else {
-            NetworkRequest networkRequest = createNetworkMonitoringRequest.get();
-            connectivityManager.registerNetworkCallback(networkRequest, new ConnectionMonitor());
+            connectivityManager.registerDefaultNetworkCallback(new ConnectionMonitor(true));
+            return true;
         }
+        NetworkRequest networkRequest = createNetworkMonitoringRequest.get();
+        connectivityManager.registerNetworkCallback(networkRequest, new ConnectionMonitor(false));
+        return false;
     }
 
     CurrentNetwork refreshNetworkStatus() {
@@ -72,6 +76,18 @@ class ConnectionUtil {
         return currentNetwork;
     }
 
+    /**
+     * Returns the network state maintained by the registered default network
+     * {@link ConnectivityManager.NetworkCallback}. If there is no such callback (before API 24, or if
+     * the registration failed), this queries the system for the current state.
+     */
+    CurrentNetwork refreshNetworkStatusIfUnmonitored() {
+        if (trackingDefaultNetwork) {
+            return currentNetwork;
+        }
+        return refreshNetworkStatus();
+    }
+
     static NetworkRequest createNetworkMonitoringRequest() {
         //note: this throws an NPE when running in junit without robolectric, due to Android
         return new NetworkRequest.Builder()
@@ -95,7 +111,23 @@ class ConnectionUtil {
         connectionStateListener = listener;
     }
 
+    private void updateFromCapabilities(NetworkCapabilities capabilities) {
+        try {
+            currentNetwork = networkDetector.detectCurrentNetwork(capabilities);
+        } catch (Exception e) {
+            //same guard as in refreshNetworkStatus()
+            currentNetwork = UNKNOWN_NETWORK;
+        }
+    }
+
     private class ConnectionMonitor extends ConnectivityManager.NetworkCallback {
+        //true if we're only told about the default network, in which case the capabilities we're handed
+        // always describe the active network.
+        private final boolean tracksDefaultNetwork;
+
+        private ConnectionMonitor(boolean tracksDefaultNetwork) {
+            this.tracksDefaultNetwork = tracksDefaultNetwork;
+        }
 
         @Override
         public void onAvailable(@NonNull Network network) {
@@ -107,17 +139,41 @@ class ConnectionUtil {
             }
         }
 
+        @Override
+        public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities networkCapabilities) {
+            CurrentNetwork previous = currentNetwork;
+            if (tracksDefaultNetwork) {
+                updateFromCapabilities(networkCapabilities);
+            } else {
+                //the changed network might not be the active one, so ask the system which one that is.
+                refreshNetworkStatus();
+            }
+            CurrentNetwork activeNetwork = currentNetwork;
+            //this gets called often (e.g. on bandwidth estimate changes), so only tell the listener when the connection type changes.
+            if (connectionStateListener != null && !activeNetwork.hasSameConnectionType(previous)) {
+                connectionStateListener.onAvailable(activeNetwork.isOnline(), activeNetwork);
+                Log.d(SplunkRum.LOG_TAG, "  onCapabilitiesChanged: isConnected:" + activeNetwork.isOnline() + ", activeNetwork: " + activeNetwork);
+            }
+        }
+
         @Override
         public void onLost(@NonNull Network network) {
             Log.d(SplunkRum.LOG_TAG, "onLost: ");
-            //it seems that the "currentActiveNetwork" is still the one that is being lost, so for
-            //this method, we'll force it to be NO_NETWORK, rather than relying on the ConnectivityManager to have the right
-            //state at the right time during this event.
-            CurrentNetwork activeNetwork = NO_NETWORK;
-            currentNetwork = activeNetwork;
+            CurrentNetwork activeNetwork;
+            if (tracksDefaultNetwork) {
+                //it seems that the "currentActiveNetwork" is still the one that is being lost, so for
+                //this method, we'll force it to be NO_NETWORK, rather than relying on the ConnectivityManager to have the right
+                //state at the right time during this event.
+                activeNetwork = NO_NETWORK;
+                currentNetwork = activeNetwork;
+            } else {
+                //only one of the watched networks went away, another one may still be up. if the system
+                //still reports the lost one, the polling in refreshNetworkStatusIfUnmonitored() corrects it.
+                activeNetwork = refreshNetworkStatus();
+            }
             if (connectionStateListener != null) {
-                connectionStateListener.onAvailable(false, activeNetwork);
-                Log.d(SplunkRum.LOG_TAG, "  onLost: isConnected:" + false + ", activeNetwork: " + activeNetwork);
+                connectionStateListener.onAvailable(activeNetwork.isOnline(), activeNetwork);
+                Log.d(SplunkRum.LOG_TAG, "  onLost: isConnected:" + activeNetwork.isOnline() + ", activeNetwork: " + activeNetwork);
             }
         }
     }
@@ -18,9 +18,7 @@ package com.splunk.rum;
 
 import androidx.annotation.NonNull;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.StatusCode;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
@@ -29,9 +27,9 @@ import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
 
 class CrashReporter {
 
-    static void initializeCrashReporting(Tracer tracer, OpenTelemetrySdk openTelemetrySdk) {
+    static void initializeCrashReporting(Tracer tracer, OpenTelemetrySdk openTelemetrySdk, BreadcrumbBuffer breadcrumbs, StackTraceTruncator stackTraces) {
         Thread.UncaughtExceptionHandler existingHandler = Thread.getDefaultUncaughtExceptionHandler();
-        Thread.setDefaultUncaughtExceptionHandler(new CrashReportingExceptionHandler(tracer, openTelemetrySdk.getSdkTracerProvider(), existingHandler));
+        Thread.setDefaultUncaughtExceptionHandler(new CrashReportingExceptionHandler(tracer, openTelemetrySdk.getSdkTracerProvider(), existingHandler, breadcrumbs, stackTraces));
     }
 
     //visible for testing
@@ -39,27 +37,30 @@ class CrashReporter {
         private final Tracer tracer;
         private final Thread.UncaughtExceptionHandler existingHandler;
         private final SdkTracerProvider sdkTracerProvider;
+        private final BreadcrumbBuffer breadcrumbs;
+        private final StackTraceTruncator stackTraces;
 
-        CrashReportingExceptionHandler(Tracer tracer, SdkTracerProvider sdkTracerProvider, Thread.UncaughtExceptionHandler existingHandler) {
+        CrashReportingExceptionHandler(Tracer tracer, SdkTracerProvider sdkTracerProvider, Thread.UncaughtExceptionHandler existingHandler, BreadcrumbBuffer breadcrumbs, StackTraceTruncator stackTraces) {
             this.tracer = tracer;
             this.existingHandler = existingHandler;
             this.sdkTracerProvider = sdkTracerProvider;
+            this.breadcrumbs = breadcrumbs;
+            this.stackTraces = stackTraces;
         }
 
         @Override
         public void uncaughtException(@NonNull Thread t, @NonNull Throwable e) {
-            StringWriter writer = new StringWriter();
-            e.printStackTrace(new PrintWriter(writer));
             String exceptionType = e.getClass().getSimpleName();
-            tracer.spanBuilder(exceptionType)
+            Span span = tracer.spanBuilder(exceptionType)
                     .setAttribute(SemanticAttributes.THREAD_ID, t.getId())
                     .setAttribute(SemanticAttributes.THREAD_NAME, t.getName())
-                    .setAttribute(SemanticAttributes.EXCEPTION_STACKTRACE, writer.toString())
+                    .setAttribute(SemanticAttributes.EXCEPTION_STACKTRACE, stackTraces.format(e))
                     .setAttribute(SemanticAttributes.EXCEPTION_ESCAPED, true)
                     .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_CRASH)
                     .startSpan()
-                    .setStatus(StatusCode.ERROR)
-                    .end();
+                    .setStatus(StatusCode.ERROR);
+            breadcrumbs.attachTo(span);
+            span.end();
             //do our best to make sure the crash makes it out of the VM
             sdkTracerProvider.forceFlush();
             //preserve any existing behavior:
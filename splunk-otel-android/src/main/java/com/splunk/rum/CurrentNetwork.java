@@ -16,22 +16,93 @@
 
 package com.splunk.rum;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 class CurrentNetwork {
+    // instances are immutable, so we hand out a shared one for every state/subType combination we see.
+    // the set of subTypes is small and fixed (radio technology names), so these maps stay tiny.
+    private static final Map<NetworkState, CurrentNetwork> NO_SUBTYPE_INSTANCES = new EnumMap<>(NetworkState.class);
+    private static final Map<NetworkState, ConcurrentMap<String, CurrentNetwork>> SUBTYPE_INSTANCES = new EnumMap<>(NetworkState.class);
+
+    static {
+        for (NetworkState state : NetworkState.values()) {
+            NO_SUBTYPE_INSTANCES.put(state, new CurrentNetwork(state, null));
+            SUBTYPE_INSTANCES.put(state, new ConcurrentHashMap<>());
+        }
+    }
+
+    //Android reports 0 when it doesn't have a bandwidth estimate.
+    static final int UNKNOWN_BANDWIDTH = 0;
+
     private final NetworkState state;
     private final String subType;
+    private final int downstreamBandwidthKbps;
+    private final int upstreamBandwidthKbps;
+    private final boolean metered;
+    private final boolean validated;
 
     CurrentNetwork(NetworkState state, String subType) {
+        this(state, subType, UNKNOWN_BANDWIDTH, UNKNOWN_BANDWIDTH, false, false);
+    }
+
+    CurrentNetwork(NetworkState state, String subType, int downstreamBandwidthKbps, int upstreamBandwidthKbps, boolean metered, boolean validated) {
         this.state = state;
         this.subType = subType;
+        this.downstreamBandwidthKbps = downstreamBandwidthKbps;
+        this.upstreamBandwidthKbps = upstreamBandwidthKbps;
+        this.metered = metered;
+        this.validated = validated;
+    }
+
+    /**
+     * Returns a cached, shared instance for the given state and subType, with no capability information.
+     */
+    static CurrentNetwork of(NetworkState state, String subType) {
+        if (subType == null) {
+            return NO_SUBTYPE_INSTANCES.get(state);
+        }
+        ConcurrentMap<String, CurrentNetwork> bySubType = SUBTYPE_INSTANCES.get(state);
+        CurrentNetwork instance = bySubType.get(subType);
+        if (instance == null) {
+            CurrentNetwork created = new CurrentNetwork(state, subType);
+            instance = bySubType.putIfAbsent(subType, created);
+            if (instance == null) {
+                instance = created;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns a copy of this network with the given capabilities. If nothing changed, this instance
+     * is returned, so repeated capability callbacks with the same values don't allocate.
+     */
+    CurrentNetwork withCapabilities(int downstreamBandwidthKbps, int upstreamBandwidthKbps, boolean metered, boolean validated) {
+        if (this.downstreamBandwidthKbps == downstreamBandwidthKbps
+                && this.upstreamBandwidthKbps == upstreamBandwidthKbps
+                && this.metered == metered
+                && this.validated == validated) {
+            return this;
+        }
+        return new CurrentNetwork(state, subType, downstreamBandwidthKbps, upstreamBandwidthKbps, metered, validated);
     }
 
     boolean isOnline() {
         return getState() != NetworkState.NO_NETWORK_AVAILABLE;
     }
 
+    /**
+     * Whether the other network is of the same type & subtype, ignoring any changes in capabilities.
+     */
+    boolean hasSameConnectionType(CurrentNetwork other) {
+        return other != null && state == other.state && Objects.equals(subType, other.subType);
+    }
+
     public NetworkState getState() {
         return state;
     }
@@ -40,11 +111,43 @@ class CurrentNetwork {
         return Optional.ofNullable(subType);
     }
 
+    /**
+     * The estimated downstream bandwidth, or {@link #UNKNOWN_BANDWIDTH} if there is no estimate.
+     */
+    int getDownstreamBandwidthKbps() {
+        return downstreamBandwidthKbps;
+    }
+
+    /**
+     * The estimated upstream bandwidth, or {@link #UNKNOWN_BANDWIDTH} if there is no estimate.
+     */
+    int getUpstreamBandwidthKbps() {
+        return upstreamBandwidthKbps;
+    }
+
+    /**
+     * Whether the user may be charged for traffic on this network. {@code false} if unknown.
+     */
+    boolean isMetered() {
+        return metered;
+    }
+
+    /**
+     * Whether the system has verified that this network actually reaches the internet. {@code false} if unknown.
+     */
+    boolean isValidated() {
+        return validated;
+    }
+
     @Override
     public String toString() {
         return "CurrentNetwork{" +
                 "state=" + state +
                 ", subType='" + subType + '\'' +
+                ", downstreamBandwidthKbps=" + downstreamBandwidthKbps +
+                ", upstreamBandwidthKbps=" + upstreamBandwidthKbps +
+                ", metered=" + metered +
+                ", validated=" + validated +
                 '}';
     }
 
@@ -54,11 +157,15 @@ class CurrentNetwork {
         if (o == null || getClass() != o.getClass()) return false;
         CurrentNetwork that = (CurrentNetwork) o;
         return state == that.state &&
-                Objects.equals(subType, that.subType);
+                Objects.equals(subType, that.subType) &&
+                downstreamBandwidthKbps == that.downstreamBandwidthKbps &&
+                upstreamBandwidthKbps == that.upstreamBandwidthKbps &&
+                metered == that.metered &&
+                validated == that.validated;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(state, subType);
+        return Objects.hash(state, subType, downstreamBandwidthKbps, upstreamBandwidthKbps, metered, validated);
     }
 }
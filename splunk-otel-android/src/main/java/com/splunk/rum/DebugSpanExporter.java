@@ -0,0 +1,89 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.util.Log;
+
+import java.util.Collection;
+import java.util.Map;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Logs spans to logcat in debug mode. Each span is logged at the priority configured for its
+ * component (see {@link Config.Builder#debugLogLevel(String, int)}), {@link Log#INFO} by default, and
+ * is skipped without being formatted if that priority isn't loggable for the {@code SplunkRum} tag.
+ * <p>
+ * Meant to be used from a {@link io.opentelemetry.sdk.trace.export.BatchSpanProcessor}, so the
+ * spans are formatted on its worker thread and not on the thread that ended them.
+ */
+class DebugSpanExporter implements SpanExporter {
+    private final Map<String, Integer> logLevels;
+    //only used from the exporting thread.
+    private final StringBuilder message = new StringBuilder();
+
+    DebugSpanExporter(Map<String, Integer> logLevels) {
+        this.logLevels = logLevels;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            int priority = priorityOf(span);
+            if (!isLoggable(priority)) {
+                continue;
+            }
+            message.setLength(0);
+            message.append('\'').append(span.getName()).append("' : ")
+                    .append(span.getTraceId()).append(' ')
+                    .append(span.getSpanId()).append(' ')
+                    .append(span.getKind()).append(" [tracer: ")
+                    .append(span.getInstrumentationLibraryInfo().getName()).append("] ")
+                    .append(span.getAttributes());
+            log(priority, message.toString());
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private int priorityOf(SpanData span) {
+        String component = span.getAttributes().get(SplunkRum.COMPONENT_KEY);
+        Integer priority = component == null ? null : logLevels.get(component);
+        return priority == null ? Log.INFO : priority;
+    }
+
+    //visible for testing
+    boolean isLoggable(int priority) {
+        return Log.isLoggable(SplunkRum.LOG_TAG, priority);
+    }
+
+    //visible for testing
+    void log(int priority, String message) {
+        Log.println(priority, SplunkRum.LOG_TAG, message);
+    }
+}
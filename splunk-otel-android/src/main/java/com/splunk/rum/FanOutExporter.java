@@ -0,0 +1,154 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Sends the same spans to several destinations, each with its own exporter pipeline (filter,
+ * throttle, buffer and encoder). Every destination exports on its own thread, from a bounded queue of
+ * batches, so a slow or unreachable endpoint can't hold up the others. When a destination's queue is
+ * full, new batches for it are dropped.
+ */
+final class FanOutExporter implements SpanExporter {
+    //how long a destination's export may take before its thread moves on to the next batch.
+    private static final long EXPORT_TIMEOUT_SECONDS = 30;
+
+    private final List<Destination> destinations;
+
+    FanOutExporter(List<Destination> destinations) {
+        this.destinations = destinations;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        //the batch span processor reuses its list once this returns, so all destinations share one copy.
+        List<SpanData> batch = new ArrayList<>(spans);
+        for (Destination destination : destinations) {
+            destination.export(batch);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        List<CompletableResultCode> results = new ArrayList<>(destinations.size());
+        for (Destination destination : destinations) {
+            results.add(destination.flush());
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        List<CompletableResultCode> results = new ArrayList<>(destinations.size());
+        for (Destination destination : destinations) {
+            results.add(destination.shutdown());
+        }
+        return CompletableResultCode.ofAll(results);
+    }
+
+    static final class Destination {
+        private final String name;
+        private final SpanExporter delegate;
+        private final PipelineMetrics metrics;
+        private final int maxQueuedBatches;
+        private final AtomicInteger queuedBatches = new AtomicInteger();
+        private final ThreadPoolExecutor executor;
+
+        Destination(String name, SpanExporter delegate, PipelineMetrics metrics, int maxQueuedBatches) {
+            this.name = name;
+            this.delegate = delegate;
+            this.metrics = metrics;
+            this.maxQueuedBatches = maxQueuedBatches;
+            //only span batches count towards the limit, flush and shutdown always get queued.
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "splunk-rum-export-" + name);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+
+        void export(List<SpanData> batch) {
+            if (queuedBatches.incrementAndGet() > maxQueuedBatches) {
+                queuedBatches.decrementAndGet();
+                drop(batch, "is full");
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    queuedBatches.decrementAndGet();
+                    delegate.export(batch).join(EXPORT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                });
+            } catch (RejectedExecutionException e) {
+                queuedBatches.decrementAndGet();
+                drop(batch, "has been shut down");
+            }
+        }
+
+        private void drop(List<SpanData> batch, String reason) {
+            Log.w(SplunkRum.LOG_TAG, "Export queue for " + name + " " + reason + ", dropping " + batch.size() + " spans");
+            metrics.recordEvicted(batch.size());
+        }
+
+        CompletableResultCode flush() {
+            return runInOrder(delegate::flush);
+        }
+
+        CompletableResultCode shutdown() {
+            CompletableResultCode result = runInOrder(delegate::shutdown);
+            executor.shutdown();
+            return result;
+        }
+
+        //runs after the batches that are already queued, so they are included.
+        private CompletableResultCode runInOrder(Supplier<CompletableResultCode> action) {
+            CompletableResultCode result = new CompletableResultCode();
+            try {
+                executor.execute(() -> {
+                    CompletableResultCode actionResult = action.get();
+                    actionResult.whenComplete(() -> {
+                        if (actionResult.isSuccess()) {
+                            result.succeed();
+                        } else {
+                            result.fail();
+                        }
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                result.fail();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.os.Handler;
+import android.view.Choreographer;
+
+/**
+ * Runs an action once the next frame has been drawn: the frame callback runs at the start of the
+ * frame, and the message it posts runs right after that frame's layout and draw.
+ * <p>
+ * One instance is reused for every resume of an activity or fragment, so scheduling doesn't allocate.
+ * The callbacks are one-shot, there's nothing to unregister after they fire. Only used on the main
+ * thread.
+ */
+class FirstDrawCallback implements Choreographer.FrameCallback, Runnable {
+    private final Handler handler;
+    private final Runnable onFirstDraw;
+    private boolean scheduled;
+
+    FirstDrawCallback(Handler handler, Runnable onFirstDraw) {
+        this.handler = handler;
+        this.onFirstDraw = onFirstDraw;
+    }
+
+    boolean isScheduled() {
+        return scheduled;
+    }
+
+    void schedule() {
+        if (scheduled) {
+            return;
+        }
+        scheduled = true;
+        postFrameCallback();
+    }
+
+    void cancel() {
+        if (!scheduled) {
+            return;
+        }
+        scheduled = false;
+        removeFrameCallback();
+        handler.removeCallbacks(this);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        handler.postAtFrontOfQueue(this);
+    }
+
+    @Override
+    public void run() {
+        if (!scheduled) {
+            return;
+        }
+        scheduled = false;
+        onFirstDraw.run();
+    }
+
+    //visible for testing
+    void postFrameCallback() {
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    //visible for testing
+    void removeFrameCallback() {
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+}
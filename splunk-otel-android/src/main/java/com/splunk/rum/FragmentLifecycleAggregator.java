@@ -0,0 +1,219 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.longArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Keeps per-screen histograms of the fragment lifecycle transitions (the {@code Created},
+ * {@code Restored}, {@code Resumed}, ... spans of the {@link RumFragmentLifecycleCallbacks}), when
+ * fragment lifecycle aggregation is enabled (see
+ * {@link Config.Builder#fragmentLifecycleAggregationEnabled(boolean)}).
+ * <p>
+ * The transitions are then only timed, and {@link #report(Tracer)} sends the histograms collected
+ * since the previous report as a summary span per screen, with {@code fragment.<transition>.count},
+ * {@code .total_ms}, {@code .max_ms} and {@code .buckets} attributes for each transition that
+ * happened. They are attributes rather than span events, because the zipkin format only keeps the
+ * names of events. Only the transitions that take longer than the outlier threshold are still sent as
+ * spans of their own.
+ */
+final class FragmentLifecycleAggregator {
+    static final String SUMMARY_SPAN_NAME = "FragmentLifecycleSummary";
+    static final AttributeKey<List<Long>> BUCKET_BOUNDS_KEY = longArrayKey("fragment.transition.bucket_bounds_ms");
+    //the span names of the RumFragmentLifecycleCallbacks.
+    static final String[] TRANSITIONS = {"Created", "Restored", "Resumed", "Paused", "ViewDestroyed", "Destroyed", "Detached"};
+    //the (inclusive) upper bounds of the buckets; the last bucket holds everything above 1 second.
+    private static final long[] BUCKET_BOUNDS_MILLIS = {1, 5, 10, 25, 50, 100, 250, 500, 1000};
+    private static final int BUCKETS = BUCKET_BOUNDS_MILLIS.length + 1;
+    //per transition, in the order of TRANSITIONS.
+    private static final List<AttributeKey<Long>> COUNT_KEYS = new ArrayList<>();
+    private static final List<AttributeKey<Long>> TOTAL_DURATION_KEYS = new ArrayList<>();
+    private static final List<AttributeKey<Long>> MAX_DURATION_KEYS = new ArrayList<>();
+    private static final List<AttributeKey<List<Long>>> BUCKET_COUNTS_KEYS = new ArrayList<>();
+
+    static {
+        for (String transition : TRANSITIONS) {
+            //ViewDestroyed -> fragment.view_destroyed.
+            String prefix = "fragment." + transition.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT) + ".";
+            COUNT_KEYS.add(longKey(prefix + "count"));
+            TOTAL_DURATION_KEYS.add(longKey(prefix + "total_ms"));
+            MAX_DURATION_KEYS.add(longKey(prefix + "max_ms"));
+            BUCKET_COUNTS_KEYS.add(longArrayKey(prefix + "buckets"));
+        }
+    }
+
+    private final boolean enabled;
+    private final long outlierThresholdNanos;
+    private final Clock clock;
+
+    // guarded by this. Recorded on the main thread, reported from a background thread.
+    private Map<String, ScreenHistogram> histogramsByScreen = new HashMap<>();
+
+    FragmentLifecycleAggregator(boolean enabled, Duration outlierThreshold) {
+        this(enabled, outlierThreshold, Clock.getDefault());
+    }
+
+    //visible for testing
+    FragmentLifecycleAggregator(boolean enabled, Duration outlierThreshold, Clock clock) {
+        this.enabled = enabled;
+        this.outlierThresholdNanos = outlierThreshold.toNanos();
+        this.clock = clock;
+    }
+
+    static FragmentLifecycleAggregator disabled() {
+        return new FragmentLifecycleAggregator(false, Duration.ZERO);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    //epoch nanos, so that outliers can be sent with the time the transition started.
+    long now() {
+        return clock.now();
+    }
+
+    //monotonic, for the durations of the transitions.
+    long nanoTime() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Adds a transition of a screen to its histogram.
+     *
+     * @return whether the transition took longer than the outlier threshold, and should also be sent
+     * as a span.
+     */
+    synchronized boolean record(String screenName, String transition, long durationNanos) {
+        int transitionIndex = indexOf(transition);
+        if (transitionIndex < 0) {
+            return true;
+        }
+        ScreenHistogram histogram = histogramsByScreen.get(screenName);
+        if (histogram == null) {
+            histogram = new ScreenHistogram();
+            histogramsByScreen.put(screenName, histogram);
+        }
+        histogram.record(transitionIndex, durationNanos);
+        return durationNanos > outlierThresholdNanos;
+    }
+
+    /**
+     * Sends the histograms collected since the last report, as a span per screen, and starts over.
+     * Nothing is sent when no transitions were recorded.
+     */
+    void report(Tracer tracer) {
+        Map<String, ScreenHistogram> histograms;
+        synchronized (this) {
+            if (histogramsByScreen.isEmpty()) {
+                return;
+            }
+            histograms = histogramsByScreen;
+            histogramsByScreen = new HashMap<>();
+        }
+
+        List<Long> bucketBounds = toList(BUCKET_BOUNDS_MILLIS, 0, BUCKET_BOUNDS_MILLIS.length);
+        for (Map.Entry<String, ScreenHistogram> entry : histograms.entrySet()) {
+            Span span = tracer.spanBuilder(SUMMARY_SPAN_NAME)
+                    .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI)
+                    .setAttribute(SplunkRum.SCREEN_NAME_KEY, entry.getKey())
+                    .setAttribute(BUCKET_BOUNDS_KEY, bucketBounds)
+                    .startSpan();
+            entry.getValue().addAttributes(span);
+            span.end();
+        }
+    }
+
+    static AttributeKey<Long> countKey(String transition) {
+        return COUNT_KEYS.get(indexOf(transition));
+    }
+
+    static AttributeKey<Long> totalDurationKey(String transition) {
+        return TOTAL_DURATION_KEYS.get(indexOf(transition));
+    }
+
+    static AttributeKey<Long> maxDurationKey(String transition) {
+        return MAX_DURATION_KEYS.get(indexOf(transition));
+    }
+
+    static AttributeKey<List<Long>> bucketCountsKey(String transition) {
+        return BUCKET_COUNTS_KEYS.get(indexOf(transition));
+    }
+
+    private static int indexOf(String transition) {
+        for (int i = 0; i < TRANSITIONS.length; i++) {
+            if (TRANSITIONS[i].equals(transition)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<Long> toList(long[] values, int from, int to) {
+        List<Long> list = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            list.add(values[i]);
+        }
+        return list;
+    }
+
+    private static final class ScreenHistogram {
+        //the bucket counts of all the transitions, one after the other.
+        private final long[] bucketCounts = new long[TRANSITIONS.length * BUCKETS];
+        private final long[] counts = new long[TRANSITIONS.length];
+        private final long[] totalNanos = new long[TRANSITIONS.length];
+        private final long[] maxNanos = new long[TRANSITIONS.length];
+
+        void record(int transitionIndex, long durationNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+                bucket++;
+            }
+            bucketCounts[transitionIndex * BUCKETS + bucket]++;
+            counts[transitionIndex]++;
+            totalNanos[transitionIndex] += durationNanos;
+            maxNanos[transitionIndex] = Math.max(maxNanos[transitionIndex], durationNanos);
+        }
+
+        void addAttributes(Span span) {
+            for (int i = 0; i < TRANSITIONS.length; i++) {
+                if (counts[i] == 0) {
+                    continue;
+                }
+                span.setAttribute(COUNT_KEYS.get(i), counts[i]);
+                span.setAttribute(TOTAL_DURATION_KEYS.get(i), TimeUnit.NANOSECONDS.toMillis(totalNanos[i]));
+                span.setAttribute(MAX_DURATION_KEYS.get(i), TimeUnit.NANOSECONDS.toMillis(maxNanos[i]));
+                span.setAttribute(BUCKET_COUNTS_KEYS.get(i), toList(bucketCounts, i * BUCKETS, (i + 1) * BUCKETS));
+            }
+        }
+    }
+}
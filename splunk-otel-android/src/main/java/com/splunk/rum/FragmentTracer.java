@@ -18,8 +18,11 @@ package com.splunk.rum;
 
 import androidx.fragment.app.Fragment;
 
+import java.util.concurrent.TimeUnit;
+
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.Tracer;
 
 class FragmentTracer {
@@ -28,14 +31,32 @@ class FragmentTracer {
     private final String fragmentName;
     private final Tracer tracer;
     private final ActiveSpan activeSpan;
+    private final FragmentLifecycleAggregator aggregator;
+
+    //when aggregating, the transition that would otherwise be the active span.
+    private String transition;
+    private long transitionStartNanos;
+    private long transitionStartEpochNanos;
+    //created on the first resume that waits for a draw, then reused.
+    private FirstDrawCallback firstDrawCallback;
 
     FragmentTracer(Fragment fragment, Tracer tracer, VisibleScreenTracker visibleScreenTracker) {
+        this(fragment, tracer, visibleScreenTracker, FragmentLifecycleAggregator.disabled(), ScreenNames.simpleClassNames());
+    }
+
+    FragmentTracer(Fragment fragment, Tracer tracer, VisibleScreenTracker visibleScreenTracker, FragmentLifecycleAggregator aggregator, ScreenNames screenNames) {
         this.tracer = tracer;
-        this.fragmentName = fragment.getClass().getSimpleName();
+        this.fragmentName = screenNames.get(fragment);
         this.activeSpan = new ActiveSpan(visibleScreenTracker);
+        this.aggregator = aggregator;
     }
 
     FragmentTracer startSpanIfNoneInProgress(String action) {
+        endSpanWaitingForFirstDraw();
+        if (aggregator.isEnabled()) {
+            startTransition(action);
+            return this;
+        }
         if (activeSpan.spanInProgress()) {
             return this;
         }
@@ -44,12 +65,21 @@ class FragmentTracer {
     }
 
     FragmentTracer startFragmentCreation() {
+        endSpanWaitingForFirstDraw();
+        if (aggregator.isEnabled()) {
+            startTransition("Created");
+            return this;
+        }
         activeSpan.startSpan(() -> createSpan("Created"));
         return this;
     }
 
     private Span createSpan(String spanName) {
-        Span span = tracer.spanBuilder(spanName)
+        return startSpan(tracer.spanBuilder(spanName));
+    }
+
+    private Span startSpan(SpanBuilder spanBuilder) {
+        Span span = spanBuilder
                 .setAttribute(FRAGMENT_NAME_KEY, fragmentName)
                 .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI).startSpan();
         //do this after the span is started, so we can override the default screen.name set by the RumAttributeAppender.
@@ -57,10 +87,62 @@ class FragmentTracer {
         return span;
     }
 
+    /**
+     * Ends the span (or the aggregated transition) once the next frame has been drawn, instead of
+     * right away. The scope is closed now, so work done on the main thread while waiting isn't
+     * attributed to this span.
+     */
+    void endSpanForFragmentResumedAfterFirstDraw(ScreenDrawTimer drawTimer) {
+        if (aggregator.isEnabled() ? transition == null : !activeSpan.spanInProgress()) {
+            return;
+        }
+        if (firstDrawCallback == null) {
+            firstDrawCallback = drawTimer.newFirstDrawCallback(this::endActiveSpan);
+        }
+        activeSpan.closeScope();
+        firstDrawCallback.schedule();
+    }
+
+    //if the fragment moves on before a frame is drawn (eg. it's paused right away), end the resumed span now.
+    private void endSpanWaitingForFirstDraw() {
+        if (firstDrawCallback != null && firstDrawCallback.isScheduled()) {
+            endActiveSpan();
+        }
+    }
+
     void endActiveSpan() {
+        if (firstDrawCallback != null) {
+            firstDrawCallback.cancel();
+        }
+        if (aggregator.isEnabled()) {
+            endTransition();
+            return;
+        }
         activeSpan.endActiveSpan();
     }
 
+    //there's no span while aggregating, so the events and the previous screen are left out.
+    private void startTransition(String name) {
+        if (transition != null) {
+            return;
+        }
+        transition = name;
+        transitionStartNanos = aggregator.nanoTime();
+        transitionStartEpochNanos = aggregator.now();
+    }
+
+    private void endTransition() {
+        if (transition == null) {
+            return;
+        }
+        long durationNanos = aggregator.nanoTime() - transitionStartNanos;
+        if (aggregator.record(fragmentName, transition, durationNanos)) {
+            startSpan(tracer.spanBuilder(transition).setStartTimestamp(transitionStartEpochNanos, TimeUnit.NANOSECONDS))
+                    .end(transitionStartEpochNanos + durationNanos, TimeUnit.NANOSECONDS);
+        }
+        transition = null;
+    }
+
     FragmentTracer addPreviousScreenAttribute() {
         activeSpan.addPreviousScreenAttribute(fragmentName);
         return this;
@@ -0,0 +1,319 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.sdk.common.Clock;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records how long the DNS, connect, TLS, request and waiting-for-response phases of an OkHttp call
+ * took, as attributes (in milliseconds) on the http client span.
+ * <p>
+ * The attributes are added to the current span when the response headers have been read (or the
+ * call failed), which is still inside the scope of the tracing interceptor. The response body is read
+ * after that span has ended, so it isn't covered here.
+ * <p>
+ * One instance is created per call, and all events are forwarded to the listener created by the
+ * {@link EventListener.Factory} that the client was originally configured with.
+ */
+class HttpPhaseTimingListener extends EventListener {
+    static final AttributeKey<Long> DNS_DURATION_KEY = longKey("http.timing.dns");
+    static final AttributeKey<Long> CONNECT_DURATION_KEY = longKey("http.timing.connect");
+    static final AttributeKey<Long> TLS_DURATION_KEY = longKey("http.timing.tls");
+    static final AttributeKey<Long> REQUEST_DURATION_KEY = longKey("http.timing.request");
+    //time between the request being sent and the response headers starting to arrive.
+    static final AttributeKey<Long> SERVER_DURATION_KEY = longKey("http.timing.server");
+    static final AttributeKey<Long> RESPONSE_HEADERS_DURATION_KEY = longKey("http.timing.response_headers");
+    static final AttributeKey<Boolean> CONNECTION_REUSED_KEY = booleanKey("http.connection.reused");
+
+    private final EventListener delegate;
+    private final Clock clock;
+
+    // 0 means that the phase hasn't happened (yet).
+    private long dnsStartNanos;
+    private long dnsNanos;
+    private long connectStartNanos;
+    private long connectNanos;
+    private long secureConnectStartNanos;
+    private long tlsNanos;
+    private long requestStartNanos;
+    private long requestEndNanos;
+    private long responseHeadersStartNanos;
+    private boolean connectionAcquired;
+    private boolean connected;
+
+    HttpPhaseTimingListener(EventListener delegate, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void callStart(@NonNull Call call) {
+        delegate.callStart(call);
+    }
+
+    @Override
+    public void proxySelectStart(@NonNull Call call, @NonNull HttpUrl url) {
+        delegate.proxySelectStart(call, url);
+    }
+
+    @Override
+    public void proxySelectEnd(@NonNull Call call, @NonNull HttpUrl url, @NonNull List<Proxy> proxies) {
+        delegate.proxySelectEnd(call, url, proxies);
+    }
+
+    @Override
+    public void dnsStart(@NonNull Call call, @NonNull String domainName) {
+        dnsStartNanos = clock.nanoTime();
+        delegate.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(@NonNull Call call, @NonNull String domainName, @NonNull List<InetAddress> inetAddressList) {
+        dnsNanos += elapsedSince(dnsStartNanos);
+        delegate.dnsEnd(call, domainName, inetAddressList);
+    }
+
+    @Override
+    public void connectStart(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy) {
+        connectStartNanos = clock.nanoTime();
+        connected = true;
+        delegate.connectStart(call, inetSocketAddress, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull Call call) {
+        secureConnectStartNanos = clock.nanoTime();
+        delegate.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull Call call, @Nullable Handshake handshake) {
+        tlsNanos += elapsedSince(secureConnectStartNanos);
+        delegate.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol) {
+        connectNanos += elapsedSince(connectStartNanos);
+        delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(@NonNull Call call, @NonNull InetSocketAddress inetSocketAddress, @NonNull Proxy proxy, @Nullable Protocol protocol, @NonNull IOException ioe) {
+        connectNanos += elapsedSince(connectStartNanos);
+        delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(@NonNull Call call, @NonNull Connection connection) {
+        connectionAcquired = true;
+        delegate.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(@NonNull Call call, @NonNull Connection connection) {
+        delegate.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull Call call) {
+        requestStartNanos = clock.nanoTime();
+        delegate.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull Call call, @NonNull Request request) {
+        requestEndNanos = clock.nanoTime();
+        delegate.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(@NonNull Call call) {
+        delegate.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull Call call, long byteCount) {
+        requestEndNanos = clock.nanoTime();
+        delegate.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void requestFailed(@NonNull Call call, @NonNull IOException ioe) {
+        recordPhases();
+        delegate.requestFailed(call, ioe);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull Call call) {
+        responseHeadersStartNanos = clock.nanoTime();
+        delegate.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull Call call, @NonNull Response response) {
+        recordPhases();
+        delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull Call call) {
+        delegate.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull Call call, long byteCount) {
+        delegate.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseFailed(@NonNull Call call, @NonNull IOException ioe) {
+        recordPhases();
+        delegate.responseFailed(call, ioe);
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        delegate.callFailed(call, ioe);
+    }
+
+    @Override
+    public void canceled(@NonNull Call call) {
+        delegate.canceled(call);
+    }
+
+    @Override
+    public void satisfactionFailure(@NonNull Call call, @NonNull Response response) {
+        delegate.satisfactionFailure(call, response);
+    }
+
+    @Override
+    public void cacheHit(@NonNull Call call, @NonNull Response response) {
+        delegate.cacheHit(call, response);
+    }
+
+    @Override
+    public void cacheMiss(@NonNull Call call) {
+        delegate.cacheMiss(call);
+    }
+
+    @Override
+    public void cacheConditionalHit(@NonNull Call call, @NonNull Response cachedResponse) {
+        delegate.cacheConditionalHit(call, cachedResponse);
+    }
+
+    private long elapsedSince(long startNanos) {
+        return startNanos == 0 ? 0 : clock.nanoTime() - startNanos;
+    }
+
+    private void recordPhases() {
+        Span span = Span.current();
+        if (span.isRecording()) {
+            long now = clock.nanoTime();
+            if (dnsNanos > 0) {
+                span.setAttribute(DNS_DURATION_KEY, toMillis(dnsNanos));
+            }
+            if (connectNanos > 0) {
+                span.setAttribute(CONNECT_DURATION_KEY, toMillis(connectNanos));
+            }
+            if (tlsNanos > 0) {
+                span.setAttribute(TLS_DURATION_KEY, toMillis(tlsNanos));
+            }
+            if (requestStartNanos > 0 && requestEndNanos > 0) {
+                span.setAttribute(REQUEST_DURATION_KEY, toMillis(requestEndNanos - requestStartNanos));
+            }
+            if (requestEndNanos > 0 && responseHeadersStartNanos > 0) {
+                span.setAttribute(SERVER_DURATION_KEY, toMillis(responseHeadersStartNanos - requestEndNanos));
+            }
+            if (responseHeadersStartNanos > 0) {
+                span.setAttribute(RESPONSE_HEADERS_DURATION_KEY, toMillis(now - responseHeadersStartNanos));
+            }
+            if (connectionAcquired) {
+                span.setAttribute(CONNECTION_REUSED_KEY, !connected);
+            }
+        }
+        //a follow-up (redirect, retry) gets its own measurements.
+        reset();
+    }
+
+    private void reset() {
+        dnsStartNanos = 0;
+        dnsNanos = 0;
+        connectStartNanos = 0;
+        connectNanos = 0;
+        secureConnectStartNanos = 0;
+        tlsNanos = 0;
+        requestStartNanos = 0;
+        requestEndNanos = 0;
+        responseHeadersStartNanos = 0;
+        connectionAcquired = false;
+        connected = false;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    static class Factory implements EventListener.Factory {
+        private final EventListener.Factory delegate;
+        private final Clock clock;
+
+        Factory(EventListener.Factory delegate) {
+            this(delegate, Clock.getDefault());
+        }
+
+        //visible for testing
+        Factory(EventListener.Factory delegate, Clock clock) {
+            this.delegate = delegate;
+            this.clock = clock;
+        }
+
+        @NonNull
+        @Override
+        public EventListener create(@NonNull Call call) {
+            return new HttpPhaseTimingListener(delegate.create(call), clock);
+        }
+    }
+}
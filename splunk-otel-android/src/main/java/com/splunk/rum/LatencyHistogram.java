@@ -0,0 +1,83 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations, with fixed bucket boundaries. Recording a duration is lock-free, so it
+ * can be done from any thread.
+ */
+public final class LatencyHistogram {
+    private final long[] upperBoundsNanos;
+    //one more than the boundaries: the last bucket holds everything above the highest boundary.
+    private final AtomicLongArray bucketCounts;
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    LatencyHistogram(long... upperBoundsNanos) {
+        this.upperBoundsNanos = upperBoundsNanos;
+        this.bucketCounts = new AtomicLongArray(upperBoundsNanos.length + 1);
+    }
+
+    void record(long nanos) {
+        int bucket = 0;
+        while (bucket < upperBoundsNanos.length && nanos > upperBoundsNanos[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        totalNanos.addAndGet(nanos);
+    }
+
+    /**
+     * The number of durations recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < bucketCounts.length(); i++) {
+            count += bucketCounts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * The sum of all the durations recorded, in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * The (inclusive) upper bound of each bucket, in nanoseconds.
+     */
+    public long[] getBucketUpperBoundsNanos() {
+        return Arrays.copyOf(upperBoundsNanos, upperBoundsNanos.length);
+    }
+
+    /**
+     * The number of durations in each bucket. This has one more element than
+     * {@link #getBucketUpperBoundsNanos()}: the last one counts the durations above the highest bound.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[bucketCounts.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import androidx.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Records the lifecycle events of a span.
+ * <p>
+ * By default, every event is added to the span right away. In compact mode (see
+ * {@link Config.Builder#compactLifecycleEventsEnabled(boolean)}) only the event names and timestamps
+ * are kept, in arrays that are reused from span to span, until the span is about to end. They are
+ * then added as a single {@code lifecycle.events} attribute, or, with a threshold, only the events
+ * that came at least that long after the previous one are added as span events.
+ * <p>
+ * Like the rest of the lifecycle tracking, this is only used from the main thread.
+ */
+final class LifecycleEventRecorder {
+    static final AttributeKey<String> LIFECYCLE_EVENTS_KEY = stringKey("lifecycle.events");
+
+    private static final LifecycleEventRecorder DIRECT = new LifecycleEventRecorder(false, -1, Clock.getDefault());
+    //the activity lifecycle has 15 callbacks that add events, fragments a few less.
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean compact;
+    //negative when the events are encoded in an attribute.
+    private final long thresholdNanos;
+    private final Clock clock;
+
+    private String[] names;
+    private long[] timestamps;
+    private int count;
+
+    private LifecycleEventRecorder(boolean compact, long thresholdNanos, Clock clock) {
+        this.compact = compact;
+        this.thresholdNanos = thresholdNanos;
+        this.clock = clock;
+        if (compact) {
+            names = new String[INITIAL_CAPACITY];
+            timestamps = new long[INITIAL_CAPACITY];
+        }
+    }
+
+    static LifecycleEventRecorder direct() {
+        return DIRECT;
+    }
+
+    static LifecycleEventRecorder compact(@Nullable Duration threshold) {
+        return compact(threshold, Clock.getDefault());
+    }
+
+    //visible for testing
+    static LifecycleEventRecorder compact(@Nullable Duration threshold, Clock clock) {
+        return new LifecycleEventRecorder(true, threshold == null ? -1 : threshold.toNanos(), clock);
+    }
+
+    void record(Span span, String eventName) {
+        if (!compact) {
+            span.addEvent(eventName);
+            return;
+        }
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+            timestamps = Arrays.copyOf(timestamps, count * 2);
+        }
+        names[count] = eventName;
+        timestamps[count] = clock.nanoTime();
+        count++;
+    }
+
+    /**
+     * Adds the recorded events to the span, which is about to end.
+     */
+    void flush(Span span) {
+        if (count == 0) {
+            return;
+        }
+        if (thresholdNanos < 0) {
+            span.setAttribute(LIFECYCLE_EVENTS_KEY, encode());
+        } else {
+            addSlowEvents(span);
+        }
+        Arrays.fill(names, 0, count, null);
+        count = 0;
+    }
+
+    //eg. "activityPreCreated:0,activityCreated:1520,activityPostCreated:1710", in microseconds since the first event.
+    private String encode() {
+        StringBuilder encoded = new StringBuilder(count * 24);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                encoded.append(',');
+            }
+            encoded.append(names[i])
+                    .append(':')
+                    .append(TimeUnit.NANOSECONDS.toMicros(timestamps[i] - timestamps[0]));
+        }
+        return encoded.toString();
+    }
+
+    private void addSlowEvents(Span span) {
+        //span events need an epoch timestamp.
+        long epochOffsetNanos = clock.now() - clock.nanoTime();
+        for (int i = 1; i < count; i++) {
+            if (timestamps[i] - timestamps[i - 1] >= thresholdNanos) {
+                span.addEvent(names[i], epochOffsetNanos + timestamps[i], TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+
+/**
+ * A workflow span that is tracked by the {@link WorkflowRegistry} until it's ended, either by the app
+ * or by the registry when it's abandoned. Only the first of the two ends the span.
+ */
+final class ManagedWorkflowSpan implements Span {
+    private final Span delegate;
+    private final WorkflowRegistry registry;
+    final long deadlineNanos;
+    private final AtomicBoolean ended = new AtomicBoolean();
+
+    ManagedWorkflowSpan(Span delegate, WorkflowRegistry registry, long deadlineNanos) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public <T> Span setAttribute(AttributeKey<T> key, T value) {
+        delegate.setAttribute(key, value);
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name, Attributes attributes) {
+        delegate.addEvent(name, attributes);
+        return this;
+    }
+
+    @Override
+    public Span addEvent(String name, Attributes attributes, long timestamp, TimeUnit unit) {
+        delegate.addEvent(name, attributes, timestamp, unit);
+        return this;
+    }
+
+    @Override
+    public Span setStatus(StatusCode statusCode, String description) {
+        delegate.setStatus(statusCode, description);
+        return this;
+    }
+
+    @Override
+    public Span recordException(Throwable exception, Attributes additionalAttributes) {
+        delegate.recordException(exception, additionalAttributes);
+        return this;
+    }
+
+    @Override
+    public Span updateName(String name) {
+        delegate.updateName(name);
+        return this;
+    }
+
+    @Override
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            registry.remove(this);
+            delegate.end();
+        }
+    }
+
+    @Override
+    public void end(long timestamp, TimeUnit unit) {
+        if (ended.compareAndSet(false, true)) {
+            registry.remove(this);
+            delegate.end(timestamp, unit);
+        }
+    }
+
+    //called by the registry, after it has stopped tracking this workflow.
+    boolean abandon(String reason, long endNanos) {
+        if (!ended.compareAndSet(false, true)) {
+            return false;
+        }
+        delegate.setAttribute(WorkflowRegistry.ABANDONED_KEY, true);
+        delegate.setStatus(StatusCode.ERROR, reason);
+        delegate.end(endNanos, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    @Override
+    public SpanContext getSpanContext() {
+        return delegate.getSpanContext();
+    }
+
+    @Override
+    public boolean isRecording() {
+        return !ended.get() && delegate.isRecording();
+    }
+}
@@ -18,12 +18,38 @@ package com.splunk.rum;
 
 import android.content.Context;
 import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
 import android.os.Build;
 import android.telephony.TelephonyManager;
 
 interface NetworkDetector {
     CurrentNetwork detectCurrentNetwork();
 
+    /**
+     * Detect the current network from capabilities that were pushed to us by a
+     * {@link ConnectivityManager.NetworkCallback}. Implementations that can't make use of the
+     * capabilities to find the transport fall back to querying the system for it.
+     */
+    default CurrentNetwork detectCurrentNetwork(NetworkCapabilities capabilities) {
+        return withCapabilities(detectCurrentNetwork(), capabilities);
+    }
+
+    /**
+     * Add the bandwidth, metered and validated capabilities to the detected network.
+     */
+    static CurrentNetwork withCapabilities(CurrentNetwork network, NetworkCapabilities capabilities) {
+        if (capabilities == null || !network.isOnline()) {
+            return network;
+        }
+        boolean validated = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+        return network.withCapabilities(
+                capabilities.getLinkDownstreamBandwidthKbps(),
+                capabilities.getLinkUpstreamBandwidthKbps(),
+                !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED),
+                validated);
+    }
+
     static NetworkDetector create(Context context) {
         ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
@@ -71,6 +71,16 @@ class NoOpSplunkRum extends SplunkRum {
         //no-op
     }
 
+    @Override
+    public void addBreadcrumb(String name, Attributes attributes) {
+        //no-op
+    }
+
+    @Override
+    public void reportFullyDrawn() {
+        //no-op
+    }
+
     @Override
     public void addRumException(Throwable throwable, Attributes attributes) {
         //no-op
@@ -0,0 +1,177 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+/**
+ * Counters and timings for the RUM span pipeline, from span creation to export. All values are
+ * totals since the library was initialized.
+ * <p>
+ * The spans that are created but never show up in any of the other counters are the ones that are
+ * still queued for export, or that were dropped because the export queue was full.
+ */
+public final class PipelineMetrics {
+    private final AtomicLong spansCreated = new AtomicLong();
+    private final AtomicLong spansFiltered = new AtomicLong();
+    private final AtomicLong spansThrottled = new AtomicLong();
+    private final AtomicLong spansBuffered = new AtomicLong();
+    private final AtomicLong spansEvicted = new AtomicLong();
+    private final AtomicLong spansExported = new AtomicLong();
+    private final AtomicLong spansFailed = new AtomicLong();
+    //single spans take microseconds to encode, a whole batch can take seconds to send.
+    private final LatencyHistogram encodeTime = new LatencyHistogram(
+            MICROSECONDS.toNanos(10), MICROSECONDS.toNanos(25), MICROSECONDS.toNanos(50),
+            MICROSECONDS.toNanos(100), MICROSECONDS.toNanos(250), MICROSECONDS.toNanos(500),
+            MILLISECONDS.toNanos(1), MILLISECONDS.toNanos(5));
+    private final LatencyHistogram exportTime = new LatencyHistogram(
+            MILLISECONDS.toNanos(10), MILLISECONDS.toNanos(25), MILLISECONDS.toNanos(50),
+            MILLISECONDS.toNanos(100), MILLISECONDS.toNanos(250), MILLISECONDS.toNanos(500),
+            MILLISECONDS.toNanos(1000), MILLISECONDS.toNanos(2500), MILLISECONDS.toNanos(5000),
+            MILLISECONDS.toNanos(10000));
+
+    PipelineMetrics() {
+    }
+
+    /**
+     * The number of sampled spans started.
+     */
+    public long getSpansCreated() {
+        return spansCreated.get();
+    }
+
+    /**
+     * The number of spans rejected by the span filter (see {@link Config.Builder#filterSpans}).
+     */
+    public long getSpansFiltered() {
+        return spansFiltered.get();
+    }
+
+    /**
+     * The number of spans dropped because too many spans of the same component were created in a
+     * short time.
+     */
+    public long getSpansThrottled() {
+        return spansThrottled.get();
+    }
+
+    /**
+     * The number of spans that were held back for a later export, because the device was offline.
+     */
+    public long getSpansBuffered() {
+        return spansBuffered.get();
+    }
+
+    /**
+     * The number of spans dropped because the buffer for spans that failed to export was full.
+     */
+    public long getSpansEvicted() {
+        return spansEvicted.get();
+    }
+
+    /**
+     * The number of spans successfully sent to the RUM ingest.
+     */
+    public long getSpansExported() {
+        return spansExported.get();
+    }
+
+    /**
+     * The number of spans in failed export attempts. A span that failed to export is retried later,
+     * so it can be counted more than once.
+     */
+    public long getSpansFailed() {
+        return spansFailed.get();
+    }
+
+    /**
+     * The time it took to encode each span for export.
+     */
+    public LatencyHistogram getEncodeTime() {
+        return encodeTime;
+    }
+
+    /**
+     * The time it took to export each batch of spans, whether it succeeded or not.
+     */
+    public LatencyHistogram getExportTime() {
+        return exportTime;
+    }
+
+    void recordFiltered(int count) {
+        spansFiltered.addAndGet(count);
+    }
+
+    void recordThrottled(int count) {
+        spansThrottled.addAndGet(count);
+    }
+
+    void recordBuffered(int count) {
+        spansBuffered.addAndGet(count);
+    }
+
+    void recordEvicted(int count) {
+        spansEvicted.addAndGet(count);
+    }
+
+    void recordExported(int count) {
+        spansExported.addAndGet(count);
+    }
+
+    void recordFailed(int count) {
+        spansFailed.addAndGet(count);
+    }
+
+    /**
+     * A {@link SpanProcessor} that counts the sampled spans that are started.
+     */
+    SpanProcessor spanCounter() {
+        return new SpanCounter();
+    }
+
+    private final class SpanCounter implements SpanProcessor {
+        @Override
+        public void onStart(Context parentContext, ReadWriteSpan span) {
+            //unsampled spans are never exported, they'd look like they were dropped from the export queue.
+            if (span.getSpanContext().isSampled()) {
+                spansCreated.incrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean isStartRequired() {
+            return true;
+        }
+
+        @Override
+        public void onEnd(ReadableSpan span) {
+        }
+
+        @Override
+        public boolean isEndRequired() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Tracer;
+
+/**
+ * Reports the changes in the {@link PipelineMetrics} since the last run as a single span.
+ */
+final class PipelineMetricsReporter implements Runnable {
+    static final String SPAN_NAME = "PipelineMetrics";
+    static final AttributeKey<Long> SPANS_CREATED_KEY = longKey("pipeline.spans.created");
+    static final AttributeKey<Long> SPANS_FILTERED_KEY = longKey("pipeline.spans.filtered");
+    static final AttributeKey<Long> SPANS_THROTTLED_KEY = longKey("pipeline.spans.throttled");
+    static final AttributeKey<Long> SPANS_BUFFERED_KEY = longKey("pipeline.spans.buffered");
+    static final AttributeKey<Long> SPANS_EVICTED_KEY = longKey("pipeline.spans.evicted");
+    static final AttributeKey<Long> SPANS_EXPORTED_KEY = longKey("pipeline.spans.exported");
+    static final AttributeKey<Long> SPANS_FAILED_KEY = longKey("pipeline.spans.failed");
+    static final AttributeKey<Long> ENCODE_COUNT_KEY = longKey("pipeline.encode.count");
+    static final AttributeKey<Long> ENCODE_TIME_KEY = longKey("pipeline.encode.time_us");
+    static final AttributeKey<Long> EXPORT_COUNT_KEY = longKey("pipeline.export.count");
+    static final AttributeKey<Long> EXPORT_TIME_KEY = longKey("pipeline.export.time_ms");
+
+    private final PipelineMetrics metrics;
+    private final Tracer tracer;
+
+    //values at the time of the last report; only touched by the (single) reporting thread.
+    private long created;
+    private long filtered;
+    private long throttled;
+    private long buffered;
+    private long evicted;
+    private long exported;
+    private long failed;
+    private long encodeCount;
+    private long encodeNanos;
+    private long exportCount;
+    private long exportNanos;
+
+    PipelineMetricsReporter(PipelineMetrics metrics, Tracer tracer) {
+        this.metrics = metrics;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void run() {
+        long currentCreated = metrics.getSpansCreated();
+        if (currentCreated == created) {
+            //nothing new happened since the last report (apart from the report itself).
+            return;
+        }
+        long currentFiltered = metrics.getSpansFiltered();
+        long currentThrottled = metrics.getSpansThrottled();
+        long currentBuffered = metrics.getSpansBuffered();
+        long currentEvicted = metrics.getSpansEvicted();
+        long currentExported = metrics.getSpansExported();
+        long currentFailed = metrics.getSpansFailed();
+        long currentEncodeCount = metrics.getEncodeTime().getCount();
+        long currentEncodeNanos = metrics.getEncodeTime().getTotalNanos();
+        long currentExportCount = metrics.getExportTime().getCount();
+        long currentExportNanos = metrics.getExportTime().getTotalNanos();
+
+        tracer.spanBuilder(SPAN_NAME)
+                .setAttribute(SPANS_CREATED_KEY, currentCreated - created)
+                .setAttribute(SPANS_FILTERED_KEY, currentFiltered - filtered)
+                .setAttribute(SPANS_THROTTLED_KEY, currentThrottled - throttled)
+                .setAttribute(SPANS_BUFFERED_KEY, currentBuffered - buffered)
+                .setAttribute(SPANS_EVICTED_KEY, currentEvicted - evicted)
+                .setAttribute(SPANS_EXPORTED_KEY, currentExported - exported)
+                .setAttribute(SPANS_FAILED_KEY, currentFailed - failed)
+                .setAttribute(ENCODE_COUNT_KEY, currentEncodeCount - encodeCount)
+                .setAttribute(ENCODE_TIME_KEY, TimeUnit.NANOSECONDS.toMicros(currentEncodeNanos - encodeNanos))
+                .setAttribute(EXPORT_COUNT_KEY, currentExportCount - exportCount)
+                .setAttribute(EXPORT_TIME_KEY, TimeUnit.NANOSECONDS.toMillis(currentExportNanos - exportNanos))
+                .startSpan()
+                .end();
+
+        //the report span itself is counted as created; leave it out, so an idle app stops reporting.
+        created = currentCreated + 1;
+        filtered = currentFiltered;
+        throttled = currentThrottled;
+        buffered = currentBuffered;
+        evicted = currentEvicted;
+        exported = currentExported;
+        failed = currentFailed;
+        encodeCount = currentEncodeCount;
+        encodeNanos = currentEncodeNanos;
+        exportCount = currentExportCount;
+        exportNanos = currentExportNanos;
+    }
+}
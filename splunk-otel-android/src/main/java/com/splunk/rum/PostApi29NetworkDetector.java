@@ -43,10 +43,18 @@ class PostApi29NetworkDetector implements NetworkDetector {
         this.context = context;
     }
 
-    @SuppressLint("MissingPermission")
     @Override
     public CurrentNetwork detectCurrentNetwork() {
-        NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
+        return detectCurrentNetwork(connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork()));
+    }
+
+    @Override
+    public CurrentNetwork detectCurrentNetwork(NetworkCapabilities capabilities) {
+        return NetworkDetector.withCapabilities(detectTransport(capabilities), capabilities);
+    }
+
+    @SuppressLint("MissingPermission")
+    private CurrentNetwork detectTransport(NetworkCapabilities capabilities) {
         if (capabilities == null) {
             return NO_NETWORK;
         }
@@ -56,11 +64,11 @@ class PostApi29NetworkDetector implements NetworkDetector {
             if (hasPermission(Manifest.permission.READ_PHONE_STATE)) {
                 subType = getDataNetworkTypeName(telephonyManager.getDataNetworkType());
             }
-            return new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, subType);
+            return CurrentNetwork.of(NetworkState.TRANSPORT_CELLULAR, subType);
         } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
-            return new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null);
+            return CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null);
         } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN)) {
-            return new CurrentNetwork(NetworkState.TRANSPORT_VPN, null);
+            return CurrentNetwork.of(NetworkState.TRANSPORT_VPN, null);
         }
         //there is an active network, but it doesn't fall into the neat buckets above
         return UNKNOWN_NETWORK;
@@ -25,38 +25,55 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.FragmentActivity;
 import androidx.fragment.app.FragmentManager;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import io.opentelemetry.api.trace.Tracer;
 
 class Pre29ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
     private final Tracer tracer;
     private final VisibleScreenTracker visibleScreenTracker;
-    private final Map<String, ActivityTracer> tracersByActivityClassName = new HashMap<>();
+    //keyed by instance, so two activities of the same class (eg. in the back stack) each get their own spans.
+    private final Map<Activity, ActivityTracer> tracersByActivity = new IdentityHashMap<>();
     private final AtomicReference<String> initialAppActivity = new AtomicReference<>();
     private final AppStartupTimer appStartupTimer;
     private final List<AppStateListener> appStateListeners;
+    private final SelfProfiler selfProfiler;
+    private final Supplier<LifecycleEventRecorder> eventRecorders;
+    private final ScreenDrawTimer drawTimer;
+    private final FragmentLifecycleAggregator fragmentAggregator;
+    private final ScreenNames screenNames;
     private int numberOfOpenActivities = 0;
 
     Pre29ActivityCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer appStartupTimer, List<AppStateListener> appStateListeners) {
+        this(tracer, visibleScreenTracker, appStartupTimer, appStateListeners, SelfProfiler.disabled(), LifecycleEventRecorder::direct, ScreenDrawTimer.disabled(), FragmentLifecycleAggregator.disabled(), ScreenNames.simpleClassNames());
+    }
+
+    Pre29ActivityCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker, AppStartupTimer appStartupTimer, List<AppStateListener> appStateListeners, SelfProfiler selfProfiler, Supplier<LifecycleEventRecorder> eventRecorders, ScreenDrawTimer drawTimer, FragmentLifecycleAggregator fragmentAggregator, ScreenNames screenNames) {
         this.tracer = tracer;
         this.visibleScreenTracker = visibleScreenTracker;
         this.appStartupTimer = appStartupTimer;
         this.appStateListeners = appStateListeners;
+        this.selfProfiler = selfProfiler;
+        this.eventRecorders = eventRecorders;
+        this.drawTimer = drawTimer;
+        this.fragmentAggregator = fragmentAggregator;
+        this.screenNames = screenNames;
     }
 
     @Override
     public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        drawTimer.activityCreationStarted(screenNames.get(activity));
         getTracer(activity)
-                .startActivityCreation()
+                .startActivityCreation(savedInstanceState != null)
                 .addEvent("activityCreated");
 
         if (activity instanceof FragmentActivity) {
             FragmentManager fragmentManager = ((FragmentActivity) activity).getSupportFragmentManager();
-            fragmentManager.registerFragmentLifecycleCallbacks(new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker), true);
+            fragmentManager.registerFragmentLifecycleCallbacks(createFragmentCallbacks(), true);
         }
     }
 
@@ -69,17 +86,21 @@ class Pre29ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
         }
         numberOfOpenActivities++;
         getTracer(activity)
-                .initiateRestartSpanIfNecessary(tracersByActivityClassName.size() > 1)
+                .initiateRestartSpanIfNecessary(tracersByActivity.size() > 1)
                 .addEvent("activityStarted");
     }
 
     @Override
     public void onActivityResumed(@NonNull Activity activity) {
-        getTracer(activity)
+        ActivityTracer activityTracer = getTracer(activity)
                 .startSpanIfNoneInProgress("Resumed")
                 .addEvent("activityResumed")
-                .addPreviousScreenAttribute()
-                .endSpanForActivityResumed();
+                .addPreviousScreenAttribute();
+        if (drawTimer.isFirstDrawEnabled()) {
+            activityTracer.endSpanForActivityResumedAfterFirstDraw(drawTimer);
+        } else {
+            activityTracer.endSpanForActivityResumed();
+        }
         visibleScreenTracker.activityResumed(activity);
     }
 
@@ -116,13 +137,19 @@ class Pre29ActivityCallbacks implements Application.ActivityLifecycleCallbacks {
                 .startSpanIfNoneInProgress("Destroyed")
                 .addEvent("activityDestroyed")
                 .endActiveSpan();
+        tracersByActivity.remove(activity);
+    }
+
+    private FragmentManager.FragmentLifecycleCallbacks createFragmentCallbacks() {
+        RumFragmentLifecycleCallbacks fragmentCallbacks = new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker, selfProfiler, fragmentAggregator, drawTimer, screenNames);
+        return selfProfiler.isEnabled() ? new ProfilingFragmentCallbacks(fragmentCallbacks, selfProfiler) : fragmentCallbacks;
     }
 
     private ActivityTracer getTracer(Activity activity) {
-        ActivityTracer activityTracer = tracersByActivityClassName.get(activity.getClass().getName());
+        ActivityTracer activityTracer = tracersByActivity.get(activity);
         if (activityTracer == null) {
-            activityTracer = new ActivityTracer(activity, initialAppActivity, tracer, visibleScreenTracker, appStartupTimer);
-            tracersByActivityClassName.put(activity.getClass().getName(), activityTracer);
+            activityTracer = new ActivityTracer(activity, initialAppActivity, tracer, visibleScreenTracker, appStartupTimer, eventRecorders.get(), screenNames);
+            tracersByActivity.put(activity, activityTracer);
         }
         return activityTracer;
     }
@@ -0,0 +1,247 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Records the time spent in each of the wrapped activity lifecycle callbacks with the {@link SelfProfiler}.
+ */
+class ProfilingActivityCallbacks implements Application.ActivityLifecycleCallbacks {
+    private final Application.ActivityLifecycleCallbacks delegate;
+    private final SelfProfiler profiler;
+
+    ProfilingActivityCallbacks(Application.ActivityLifecycleCallbacks delegate, SelfProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void onActivityPreCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreCreated(activity, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityCreated(activity, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostCreated(activity, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPreStarted(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreStarted(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityStarted(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityStarted(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostStarted(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostStarted(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPreResumed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreResumed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityResumed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityResumed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostResumed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostResumed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPrePaused(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPrePaused(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPaused(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPaused(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostPaused(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostPaused(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPreStopped(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreStopped(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityStopped(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityStopped(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostStopped(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostStopped(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPreSaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreSaveInstanceState(activity, outState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivitySaveInstanceState(activity, outState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostSaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostSaveInstanceState(activity, outState);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPreDestroyed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPreDestroyed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityDestroyed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityDestroyed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onActivityPostDestroyed(@NonNull Activity activity) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onActivityPostDestroyed(activity);
+        } finally {
+            profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+
+/**
+ * Records the time spent in each of the wrapped fragment lifecycle callbacks with the {@link SelfProfiler}.
+ */
+class ProfilingFragmentCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
+    private final FragmentManager.FragmentLifecycleCallbacks delegate;
+    private final SelfProfiler profiler;
+
+    ProfilingFragmentCallbacks(FragmentManager.FragmentLifecycleCallbacks delegate, SelfProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void onFragmentPreAttached(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Context context) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentPreAttached(fm, f, context);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentAttached(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Context context) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentAttached(fm, f, context);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentPreCreated(@NonNull FragmentManager fm, @NonNull Fragment f, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentPreCreated(fm, f, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentCreated(@NonNull FragmentManager fm, @NonNull Fragment f, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentCreated(fm, f, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentViewCreated(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull View v, @Nullable Bundle savedInstanceState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentViewCreated(fm, f, v, savedInstanceState);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentStarted(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentStarted(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentResumed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentResumed(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentPaused(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentPaused(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentStopped(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentStopped(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentSaveInstanceState(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Bundle outState) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentSaveInstanceState(fm, f, outState);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentViewDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentViewDestroyed(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentDestroyed(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+
+    @Override
+    public void onFragmentDetached(@NonNull FragmentManager fm, @NonNull Fragment f) {
+        long startNanos = profiler.callbackStarted();
+        try {
+            delegate.onFragmentDetached(fm, f);
+        } finally {
+            profiler.callbackEnded(profiler.getFragmentCallbackTime(), startNanos);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+/**
+ * Records the time spent in the wrapped {@link SpanProcessor} with the {@link SelfProfiler}.
+ */
+class ProfilingSpanProcessor implements SpanProcessor {
+    private final SpanProcessor delegate;
+    private final SelfProfiler profiler;
+
+    ProfilingSpanProcessor(SpanProcessor delegate, SelfProfiler profiler) {
+        this.delegate = delegate;
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        //don't skew the timings with spans that the rum processors skip.
+        if (!span.getSpanContext().isSampled()) {
+            delegate.onStart(parentContext, span);
+            return;
+        }
+        long startNanos = profiler.now();
+        delegate.onStart(parentContext, span);
+        profiler.getSpanProcessorTime().record(profiler.now() - startNanos);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) {
+            delegate.onEnd(span);
+            return;
+        }
+        long startNanos = profiler.now();
+        delegate.onEnd(span);
+        profiler.getSpanProcessorTime().record(profiler.now() - startNanos);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return delegate.isEndRequired();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+}
@@ -56,7 +56,11 @@ class RumAttributeAppender implements SpanProcessor {
 
     @Override
     public void onStart(Context parentContext, ReadWriteSpan span) {
-        //set this custom attribute in order to let the CustomZipkinEncoder use it for the span name on the wire.
+        //spans that are recorded but not sampled are never exported, so they don't need any of this.
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+        //set this custom attribute in order to let the zipkin encoders use it for the span name on the wire.
         span.setAttribute(SPLUNK_OPERATION_KEY, span.getName());
 
         span.setAttribute(APP_NAME_KEY, config.getApplicationName());
@@ -0,0 +1,169 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Merges the custom events (see {@link SplunkRum#addRumEvent(String, Attributes)}) that have the same
+ * name and attributes within a time window into a single span, for the event names configured with
+ * {@link Config.Builder#coalesceRumEvents(String, Duration)}.
+ * <p>
+ * The span starts at the first and ends at the last of the merged events, and has their number in
+ * the {@code event.count} attribute. It's sent when the window of the first event has passed, from a
+ * background thread: the caller only updates a counter. The screen name and the parent context are
+ * those of the first event, not the ones current when the span is sent.
+ */
+final class RumEventCoalescer {
+    static final AttributeKey<Long> EVENT_COUNT_KEY = longKey("event.count");
+
+    private final Map<String, Long> windowNanosByName;
+    private final Tracer tracer;
+    private final VisibleScreenTracker visibleScreenTracker;
+    private final ScheduledExecutorService scheduler;
+    private final Clock clock;
+    private final Map<EventKey, PendingEvent> pendingEvents = new ConcurrentHashMap<>();
+
+    RumEventCoalescer(Map<String, Duration> windows, Tracer tracer, VisibleScreenTracker visibleScreenTracker, ScheduledExecutorService scheduler) {
+        this(windows, tracer, visibleScreenTracker, scheduler, Clock.getDefault());
+    }
+
+    //visible for testing
+    RumEventCoalescer(Map<String, Duration> windows, Tracer tracer, VisibleScreenTracker visibleScreenTracker, ScheduledExecutorService scheduler, Clock clock) {
+        this.windowNanosByName = new HashMap<>();
+        for (Map.Entry<String, Duration> window : windows.entrySet()) {
+            windowNanosByName.put(window.getKey(), window.getValue().toNanos());
+        }
+        this.tracer = tracer;
+        this.visibleScreenTracker = visibleScreenTracker;
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    static RumEventCoalescer disabled() {
+        return new RumEventCoalescer(Collections.emptyMap(), null, null, null);
+    }
+
+    /**
+     * Adds the event to the pending span of the same name and attributes, if its name is coalesced.
+     *
+     * @return false if events of this name aren't coalesced, and should be sent right away.
+     */
+    boolean add(String name, Attributes attributes) {
+        Long windowNanos = windowNanosByName.get(name);
+        if (windowNanos == null) {
+            return false;
+        }
+        long now = clock.now();
+        EventKey key = new EventKey(name, attributes);
+        PendingEvent pending = pendingEvents.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return new PendingEvent(now, visibleScreenTracker.getCurrentlyVisibleScreen(), Context.current());
+            }
+            existing.count++;
+            existing.lastNanos = Math.max(existing.lastNanos, now);
+            return existing;
+        });
+        if (pending.scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> flush(key, pending), windowNanos, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Sends all the pending spans right away, for example when the app goes to the background.
+     */
+    void flushAll() {
+        for (Map.Entry<EventKey, PendingEvent> entry : pendingEvents.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flush(EventKey key, PendingEvent pending) {
+        //events added after this start a new span. Only this window's span is taken out: when it was
+        //already sent by flushAll(), its scheduled flush must leave the next window alone.
+        if (!pendingEvents.remove(key, pending)) {
+            return;
+        }
+        Span span = tracer.spanBuilder(key.name)
+                .setParent(pending.parentContext)
+                .setAllAttributes(key.attributes)
+                .setAttribute(EVENT_COUNT_KEY, pending.count)
+                .setStartTimestamp(pending.firstNanos, TimeUnit.NANOSECONDS)
+                .startSpan();
+        //after starting the span, to replace the screen that the RumAttributeAppender sees now.
+        span.setAttribute(SplunkRum.SCREEN_NAME_KEY, pending.screenName);
+        span.end(pending.lastNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static final class EventKey {
+        final String name;
+        final Attributes attributes;
+
+        EventKey(String name, Attributes attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EventKey that = (EventKey) o;
+            return name.equals(that.name) && attributes.equals(that.attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, attributes);
+        }
+    }
+
+    private static final class PendingEvent {
+        // only changed inside pendingEvents.compute(), and read after it's been removed from there.
+        long count = 1;
+        final long firstNanos;
+        long lastNanos;
+        final String screenName;
+        final Context parentContext;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        PendingEvent(long nowNanos, String screenName, Context parentContext) {
+            this.firstNanos = nowNanos;
+            this.lastNanos = nowNanos;
+            this.screenName = screenName;
+            this.parentContext = parentContext;
+        }
+    }
+}
@@ -25,20 +25,33 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 import io.opentelemetry.api.trace.Tracer;
 
 class RumFragmentLifecycleCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
-    private final Map<String, FragmentTracer> tracersByFragmentClassName = new HashMap<>();
+    //keyed by instance, so two fragments of the same class (eg. in the back stack) each get their own spans.
+    private final Map<Fragment, FragmentTracer> tracersByFragment = new IdentityHashMap<>();
 
     private final Tracer tracer;
     private final VisibleScreenTracker visibleScreenTracker;
+    private final SelfProfiler selfProfiler;
+    private final FragmentLifecycleAggregator aggregator;
+    private final ScreenDrawTimer drawTimer;
+    private final ScreenNames screenNames;
 
     RumFragmentLifecycleCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker) {
+        this(tracer, visibleScreenTracker, SelfProfiler.disabled(), FragmentLifecycleAggregator.disabled(), ScreenDrawTimer.disabled(), ScreenNames.simpleClassNames());
+    }
+
+    RumFragmentLifecycleCallbacks(Tracer tracer, VisibleScreenTracker visibleScreenTracker, SelfProfiler selfProfiler, FragmentLifecycleAggregator aggregator, ScreenDrawTimer drawTimer, ScreenNames screenNames) {
         this.tracer = tracer;
         this.visibleScreenTracker = visibleScreenTracker;
+        this.selfProfiler = selfProfiler;
+        this.aggregator = aggregator;
+        this.drawTimer = drawTimer;
+        this.screenNames = screenNames;
     }
 
     @Override
@@ -84,11 +97,15 @@ class RumFragmentLifecycleCallbacks extends FragmentManager.FragmentLifecycleCal
     @Override
     public void onFragmentResumed(@NonNull FragmentManager fm, @NonNull Fragment f) {
         super.onFragmentResumed(fm, f);
-        getTracer(f)
+        FragmentTracer fragmentTracer = getTracer(f)
                 .startSpanIfNoneInProgress("Resumed")
                 .addEvent("fragmentResumed")
-                .addPreviousScreenAttribute()
-                .endActiveSpan();
+                .addPreviousScreenAttribute();
+        if (drawTimer.isFirstDrawEnabled()) {
+            fragmentTracer.endSpanForFragmentResumedAfterFirstDraw(drawTimer);
+        } else {
+            fragmentTracer.endActiveSpan();
+        }
         visibleScreenTracker.fragmentResumed(f);
     }
 
@@ -138,21 +155,26 @@ class RumFragmentLifecycleCallbacks extends FragmentManager.FragmentLifecycleCal
                 .startSpanIfNoneInProgress("Detached")
                 .addEvent("fragmentDetached")
                 .endActiveSpan();
+        tracersByFragment.remove(f);
     }
 
+    //only used by the callbacks that don't start or end a span, so these are the events that can be dropped.
     private void addEvent(@NonNull Fragment fragment, String eventName) {
-        FragmentTracer fragmentTracer = tracersByFragmentClassName.get(fragment.getClass().getName());
+        if (selfProfiler.shouldDropEvent()) {
+            return;
+        }
+        FragmentTracer fragmentTracer = tracersByFragment.get(fragment);
         if (fragmentTracer != null) {
             fragmentTracer.addEvent(eventName);
         }
     }
 
     private FragmentTracer getTracer(Fragment fragment) {
-        FragmentTracer activityTracer = tracersByFragmentClassName.get(fragment.getClass().getName());
-        if (activityTracer == null) {
-            activityTracer = new FragmentTracer(fragment, tracer, visibleScreenTracker);
-            tracersByFragmentClassName.put(fragment.getClass().getName(), activityTracer);
+        FragmentTracer fragmentTracer = tracersByFragment.get(fragment);
+        if (fragmentTracer == null) {
+            fragmentTracer = new FragmentTracer(fragment, tracer, visibleScreenTracker, aggregator, screenNames);
+            tracersByFragment.put(fragment, fragmentTracer);
         }
-        return activityTracer;
+        return fragmentTracer;
     }
 }
@@ -32,32 +32,37 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
-import java.util.logging.Level;
 
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.context.Context;
-import io.opentelemetry.exporter.logging.LoggingSpanExporter;
-import io.opentelemetry.exporter.zipkin.ZipkinSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
 import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.SpanLimits;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
-import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.reporter.okhttp3.OkHttpSender;
 
 class RumInitializer {
+    //bounds the memory used by spans waiting to be logged in debug mode; more are dropped.
+    private static final int DEBUG_MAX_QUEUE_SIZE = 512;
+    //with additional endpoints: batches waiting for each destination, and encoded spans kept for reuse.
+    private static final int MAX_QUEUED_BATCHES = 20;
+    private static final int MAX_SHARED_ENCODED_SPANS = 1024;
 
     private final Config config;
     private final Application application;
     private final AppStartupTimer startupTimer;
     private final List<RumInitializer.InitializationEvent> initializationEvents = new ArrayList<>();
     private final AnchoredClock timingClock;
+    private final PipelineMetrics pipelineMetrics = new PipelineMetrics();
 
     RumInitializer(Config config, Application application, AppStartupTimer startupTimer) {
         this.config = config;
@@ -68,9 +73,11 @@ class RumInitializer {
 
     SplunkRum initialize(Supplier<ConnectionUtil> connectionUtilSupplier, Looper mainLooper) {
         String rumVersion = detectRumVersion();
-        VisibleScreenTracker visibleScreenTracker = new VisibleScreenTracker();
+        ScreenNames screenNames = new ScreenNames(config.getScreenNameMapping());
+        VisibleScreenTracker visibleScreenTracker = new VisibleScreenTracker(screenNames);
 
         long startTimeNanos = timingClock.now();
+        startupTimer.phaseTracer.phaseEnded(StartupPhaseTracer.CONTENT_PROVIDER_INIT);
 
         ConnectionUtil connectionUtil = connectionUtilSupplier.get();
         initializationEvents.add(new InitializationEvent("connectionUtilInitialized", timingClock.now()));
@@ -81,7 +88,13 @@ class RumInitializer {
         SessionId sessionId = new SessionId();
         initializationEvents.add(new RumInitializer.InitializationEvent("sessionIdInitialized", timingClock.now()));
 
-        SdkTracerProvider sdkTracerProvider = buildTracerProvider(Clock.getDefault(), zipkinExporter, sessionId, rumVersion, visibleScreenTracker, connectionUtil);
+        //shared by the periodic reports, the event coalescing and the workflow sweeps. Its thread is
+        //only started with the first task.
+        ScheduledExecutorService scheduler = newDaemonScheduler();
+
+        SelfProfiler selfProfiler = new SelfProfiler(config.isSelfProfilingEnabled(), config.getSelfProfilingFrameBudget());
+
+        SdkTracerProvider sdkTracerProvider = buildTracerProvider(Clock.getDefault(), zipkinExporter, sessionId, rumVersion, visibleScreenTracker, connectionUtil, selfProfiler);
         initializationEvents.add(new RumInitializer.InitializationEvent("tracerProviderInitialized", timingClock.now()));
 
         OpenTelemetrySdk openTelemetrySdk = OpenTelemetrySdk.builder().setTracerProvider(sdkTracerProvider).build();
@@ -94,7 +107,18 @@ class RumInitializer {
         }
 
         Tracer tracer = openTelemetrySdk.getTracer(SplunkRum.RUM_TRACER_NAME);
-        sessionId.setSessionIdChangeListener(new SessionIdChangeTracer(tracer));
+        BreadcrumbBuffer breadcrumbs = new BreadcrumbBuffer(config.getBreadcrumbCapacity(), config.getMaxAttributeValueLength());
+        SessionIdChangeListener sessionIdChangeTracer = new SessionIdChangeTracer(tracer);
+        //breadcrumbs are only meaningful within the session they were added in.
+        sessionId.setSessionIdChangeListener((oldSessionId, newSessionId) -> {
+            breadcrumbs.clear();
+            sessionIdChangeTracer.onChange(oldSessionId, newSessionId);
+        });
+        Duration breadcrumbBatchInterval = config.getBreadcrumbBatchInterval();
+        if (breadcrumbBatchInterval != null && breadcrumbBatchInterval.toMillis() > 0) {
+            initializeBreadcrumbReporting(breadcrumbs, tracer, breadcrumbBatchInterval, scheduler);
+            initializationEvents.add(new RumInitializer.InitializationEvent("breadcrumbReportingInitialized", timingClock.now()));
+        }
 
         if (config.isNetworkMonitorEnabled()) {
             NetworkMonitor networkMonitor = new NetworkMonitor(connectionUtil);
@@ -103,21 +127,49 @@ class RumInitializer {
             initializationEvents.add(new RumInitializer.InitializationEvent("networkMonitorInitialized", timingClock.now()));
         }
 
+        FragmentLifecycleAggregator fragmentAggregator = FragmentLifecycleAggregator.disabled();
+        if (config.isFragmentLifecycleAggregationEnabled()) {
+            fragmentAggregator = new FragmentLifecycleAggregator(true, config.getFragmentLifecycleOutlierThreshold());
+            appStateListeners.add(initializeFragmentLifecycleReporting(fragmentAggregator, tracer, scheduler));
+            initializationEvents.add(new RumInitializer.InitializationEvent("fragmentLifecycleAggregationInitialized", timingClock.now()));
+        }
+
+        RumEventCoalescer eventCoalescer = RumEventCoalescer.disabled();
+        if (!config.getCoalescedRumEvents().isEmpty()) {
+            eventCoalescer = new RumEventCoalescer(config.getCoalescedRumEvents(), tracer, visibleScreenTracker, scheduler);
+            appStateListeners.add(flushOnBackground(eventCoalescer));
+            initializationEvents.add(new RumInitializer.InitializationEvent("rumEventCoalescingInitialized", timingClock.now()));
+        }
+
+        ScreenDrawTimer drawTimer = new ScreenDrawTimer(config.isFirstDrawTimingEnabled(), mainLooper);
+        Application.ActivityLifecycleCallbacks activityCallbacks;
         if (Build.VERSION.SDK_INT < 29) {
-            application.registerActivityLifecycleCallbacks(new Pre29ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, appStateListeners));
+            activityCallbacks = new Pre29ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, appStateListeners, selfProfiler, config::newLifecycleEventRecorder, drawTimer, fragmentAggregator, screenNames);
         } else {
-            application.registerActivityLifecycleCallbacks(new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, appStateListeners));
+            activityCallbacks = new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, appStateListeners, selfProfiler, config::newLifecycleEventRecorder, drawTimer, fragmentAggregator, screenNames);
         }
+        if (selfProfiler.isEnabled()) {
+            activityCallbacks = new ProfilingActivityCallbacks(activityCallbacks, selfProfiler);
+        }
+        application.registerActivityLifecycleCallbacks(activityCallbacks);
         initializationEvents.add(new RumInitializer.InitializationEvent("activityLifecycleCallbacksInitialized", timingClock.now()));
 
         if (config.isCrashReportingEnabled()) {
-            CrashReporter.initializeCrashReporting(tracer, openTelemetrySdk);
+            CrashReporter.initializeCrashReporting(tracer, openTelemetrySdk, breadcrumbs, config.newStackTraceTruncator());
             initializationEvents.add(new RumInitializer.InitializationEvent("crashReportingInitialized", timingClock.now()));
         }
 
+        if (config.isPipelineMetricsReportingEnabled()) {
+            initializePipelineMetricsReporting(tracer, scheduler);
+            initializationEvents.add(new RumInitializer.InitializationEvent("pipelineMetricsReportingInitialized", timingClock.now()));
+        }
+
         recordInitializationSpans(startTimeNanos, initializationEvents, tracer, config);
 
-        return new SplunkRum(openTelemetrySdk, sessionId, config);
+        //starting a workflow also ends the timed out ones, the scheduler covers an app that stops starting them.
+        WorkflowRegistry workflows = new WorkflowRegistry(config.getWorkflowTimeout(), scheduler);
+
+        return new SplunkRum(openTelemetrySdk, sessionId, config, pipelineMetrics, selfProfiler, drawTimer, workflows, eventCoalescer, breadcrumbs);
     }
 
     private AppStateListener initializeAnrReporting(Looper mainLooper) {
@@ -146,6 +198,55 @@ class RumInitializer {
         };
     }
 
+    //reports every minute, and right away when the app goes to the background, in case it's killed there.
+    private AppStateListener initializeFragmentLifecycleReporting(FragmentLifecycleAggregator aggregator, Tracer tracer, ScheduledExecutorService reportingScheduler) {
+        Runnable report = () -> aggregator.report(tracer);
+        reportingScheduler.scheduleAtFixedRate(report, 1, 1, TimeUnit.MINUTES);
+        return new AppStateListener() {
+            @Override
+            public void appForegrounded() {
+            }
+
+            @Override
+            public void appBackgrounded() {
+                reportingScheduler.execute(report);
+            }
+        };
+    }
+
+    //the pending events would be lost if the app is killed in the background.
+    private static AppStateListener flushOnBackground(RumEventCoalescer eventCoalescer) {
+        return new AppStateListener() {
+            @Override
+            public void appForegrounded() {
+            }
+
+            @Override
+            public void appBackgrounded() {
+                eventCoalescer.flushAll();
+            }
+        };
+    }
+
+    private static void initializeBreadcrumbReporting(BreadcrumbBuffer breadcrumbs, Tracer tracer, Duration interval, ScheduledExecutorService reportingScheduler) {
+        long intervalMillis = interval.toMillis();
+        reportingScheduler.scheduleAtFixedRate(() -> breadcrumbs.report(tracer), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void initializePipelineMetricsReporting(Tracer tracer, ScheduledExecutorService reportingScheduler) {
+        PipelineMetricsReporter reporter = new PipelineMetricsReporter(pipelineMetrics, tracer);
+        reportingScheduler.scheduleAtFixedRate(reporter, 5, 5, TimeUnit.MINUTES);
+    }
+
+    //a daemon thread, so that it doesn't keep the process alive; the scheduler lives as long as the app.
+    private static ScheduledExecutorService newDaemonScheduler() {
+        return Executors.newScheduledThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "splunk-rum-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private String detectRumVersion() {
         try {
             //todo: figure out if there's a way to get access to resources from pure non-UI library code.
@@ -176,13 +277,27 @@ class RumInitializer {
         span.end(timingClock.now(), TimeUnit.NANOSECONDS);
     }
 
+    private SpanLimits buildSpanLimits() {
+        return SpanLimits.builder()
+                .setMaxNumberOfAttributes(orUnlimited(config.getMaxSpanAttributes()))
+                .setMaxAttributeValueLength(orUnlimited(config.getMaxAttributeValueLength()))
+                .setMaxNumberOfEvents(orUnlimited(config.getMaxSpanEvents()))
+                .setMaxNumberOfLinks(orUnlimited(config.getMaxSpanLinks()))
+                .build();
+    }
+
+    private static int orUnlimited(int limit) {
+        return limit > 0 ? limit : Integer.MAX_VALUE;
+    }
+
     private SdkTracerProvider buildTracerProvider(
             Clock clock,
             SpanExporter zipkinExporter,
             SessionId sessionId,
             String rumVersion,
             VisibleScreenTracker visibleScreenTracker,
-            ConnectionUtil connectionUtil) {
+            ConnectionUtil connectionUtil,
+            SelfProfiler selfProfiler) {
         BatchSpanProcessor batchSpanProcessor = BatchSpanProcessor.builder(zipkinExporter).build();
         initializationEvents.add(new RumInitializer.InitializationEvent("batchSpanProcessorInitialized", timingClock.now()));
 
@@ -194,47 +309,74 @@ class RumInitializer {
 
         SdkTracerProviderBuilder tracerProviderBuilder = SdkTracerProvider.builder()
                 .setClock(clock)
-                .addSpanProcessor(batchSpanProcessor)
-                .addSpanProcessor(attributeAppender)
-                .setSpanLimits(SpanLimits.builder().setMaxAttributeValueLength(2048).build())
+                .addSpanProcessor(pipelineMetrics.spanCounter())
+                .addSpanProcessor(profiled(batchSpanProcessor, selfProfiler))
+                .addSpanProcessor(profiled(attributeAppender, selfProfiler))
+                .setSpanLimits(buildSpanLimits())
                 .setResource(resource);
         initializationEvents.add(new RumInitializer.InitializationEvent("tracerProviderBuilderInitialized", timingClock.now()));
 
         if (config.isDebugEnabled()) {
+            //log on the batch processor's thread, so debug builds don't spend frame time formatting spans.
+            //the debug exporter sees the same spans; don't count them twice.
+            SpanExporter debugExporter = new LazyInitSpanExporter(() ->
+                    config.decorateWithSpanFilter(new DebugSpanExporter(config.getDebugLogLevels()), new PipelineMetrics()));
             tracerProviderBuilder.addSpanProcessor(
-                    SimpleSpanProcessor.create(
-                            config.decorateWithSpanFilter(new LoggingSpanExporter())));
+                    BatchSpanProcessor.builder(debugExporter)
+                            .setScheduleDelay(Duration.ofSeconds(1))
+                            .setMaxQueueSize(DEBUG_MAX_QUEUE_SIZE)
+                            .build());
             initializationEvents.add(new RumInitializer.InitializationEvent("debugSpanExporterInitialized", timingClock.now()));
         }
         return tracerProviderBuilder.build();
     }
 
+    private static SpanProcessor profiled(SpanProcessor spanProcessor, SelfProfiler selfProfiler) {
+        return selfProfiler.isEnabled() ? new ProfilingSpanProcessor(spanProcessor, selfProfiler) : spanProcessor;
+    }
+
     //visible for testing
     SpanExporter buildExporter(ConnectionUtil connectionUtil) {
         String endpoint = config.getBeaconEndpoint() + "?auth=" + config.getRumAccessToken();
-        if (!config.isDebugEnabled()) {
-            //tell the Zipkin exporter to shut up already. We're on mobile, network stuff happens.
-            // we'll do our best to hang on to the spans with the wrapping BufferingExporter.
-            ZipkinSpanExporter.baseLogger.setLevel(Level.SEVERE);
-            initializationEvents.add(new InitializationEvent("logger setup complete", timingClock.now()));
+        List<Config.AdditionalEndpoint> additionalEndpoints = config.getAdditionalEndpoints();
+        if (additionalEndpoints.isEmpty()) {
+            BytesEncoder<SpanData> encoder = new SpanDataZipkinEncoder(pipelineMetrics);
+            SpanExporter zipkinSpanExporter = getCoreSpanExporter(endpoint, encoder);
+            initializationEvents.add(new InitializationEvent("zipkin exporter initialized", timingClock.now()));
+            return config.decorateWithSpanFilter(throttleAndBuffer(zipkinSpanExporter, encoder, connectionUtil, pipelineMetrics), pipelineMetrics);
+        }
+
+        //every destination uses the same format, so a span is only encoded once for all of them.
+        BytesEncoder<SpanData> encoder = new SharedZipkinEncoder<>(new SpanDataZipkinEncoder(pipelineMetrics), MAX_SHARED_ENCODED_SPANS);
+        List<FanOutExporter.Destination> destinations = new ArrayList<>();
+        SpanExporter rumExporter = throttleAndBuffer(getCoreSpanExporter(endpoint, encoder), encoder, connectionUtil, pipelineMetrics);
+        destinations.add(new FanOutExporter.Destination("rum", config.decorateWithSpanFilter(rumExporter, pipelineMetrics), pipelineMetrics, MAX_QUEUED_BATCHES));
+        for (int i = 0; i < additionalEndpoints.size(); i++) {
+            Config.AdditionalEndpoint additionalEndpoint = additionalEndpoints.get(i);
+            //the pipeline metrics describe the RUM ingest stream; don't count the same spans again.
+            PipelineMetrics endpointMetrics = new PipelineMetrics();
+            SpanExporter exporter = throttleAndBuffer(getCoreSpanExporter(additionalEndpoint.endpoint, encoder), encoder, connectionUtil, endpointMetrics);
+            destinations.add(new FanOutExporter.Destination("endpoint-" + (i + 1), additionalEndpoint.decorateWithSpanFilter(exporter, endpointMetrics), endpointMetrics, MAX_QUEUED_BATCHES));
         }
-        SpanExporter zipkinSpanExporter = getCoreSpanExporter(endpoint);
         initializationEvents.add(new InitializationEvent("zipkin exporter initialized", timingClock.now()));
+        return new FanOutExporter(destinations);
+    }
 
-        ThrottlingExporter throttlingExporter = ThrottlingExporter.newBuilder(new BufferingExporter(connectionUtil, zipkinSpanExporter))
+    //the encoder that sends the spans also measures a drained backlog, so that no other encoder has
+    //to be set up for it.
+    private SpanExporter throttleAndBuffer(SpanExporter exporter, BytesEncoder<SpanData> encoder, ConnectionUtil connectionUtil, PipelineMetrics metrics) {
+        return ThrottlingExporter.newBuilder(new BufferingExporter(connectionUtil, exporter, config.isBacklogDeferralEnabled(), metrics, encoder::sizeInBytes))
                 .categorizeByAttribute(SplunkRum.COMPONENT_KEY)
                 .maxSpansInWindow(100)
                 .windowSize(Duration.ofSeconds(30))
+                .metrics(metrics)
                 .build();
-        return config.decorateWithSpanFilter(throttlingExporter);
     }
 
     //visible for testing
-    SpanExporter getCoreSpanExporter(String endpoint) {
+    SpanExporter getCoreSpanExporter(String endpoint, BytesEncoder<SpanData> encoder) {
         //return a lazy init exporter so the main thread doesn't block on the setup.
-        return new LazyInitSpanExporter(() -> ZipkinSpanExporter.builder()
-                .setEncoder(new CustomZipkinEncoder())
-                .setEndpoint(endpoint).build());
+        return new LazyInitSpanExporter(() -> new SpanDataZipkinExporter(encoder, OkHttpSender.create(endpoint)));
     }
 
     static class InitializationEvent {
@@ -52,13 +52,7 @@ class RumResponseAttributesExtractor extends AttributesExtractor<Request, Respon
 
     private void onResponse(AttributesBuilder attributes, Response response) {
         recordContentLength(attributes, response);
-        String serverTimingHeader = response.header("Server-Timing");
-
-        String[] ids = serverTimingHeaderParser.parse(serverTimingHeader);
-        if (ids.length == 2) {
-            attributes.put(LINK_TRACE_ID_KEY, ids[0]);
-            attributes.put(LINK_SPAN_ID_KEY, ids[1]);
-        }
+        serverTimingHeaderParser.parse(response.headers(), attributes);
     }
 
     private void recordContentLength(AttributesBuilder attributesBuilder, Response response) {
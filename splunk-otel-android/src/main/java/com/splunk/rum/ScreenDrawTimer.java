@@ -0,0 +1,93 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Times when screens are drawn: whether the activity and fragment spans end after the first frame is
+ * drawn (see {@link Config.Builder#firstDrawTimingEnabled(boolean)}), and the time to full display
+ * reported with {@link SplunkRum#reportFullyDrawn()}.
+ */
+class ScreenDrawTimer {
+    static final String FULLY_DRAWN_SPAN_NAME = "FullyDrawn";
+
+    private final boolean firstDrawEnabled;
+    private final Looper mainLooper;
+    private final Clock clock;
+
+    //written on the main thread, read when the app reports that the screen is fully drawn.
+    private String screenName;
+    private long screenStartEpochNanos;
+
+    ScreenDrawTimer(boolean firstDrawEnabled, Looper mainLooper) {
+        this(firstDrawEnabled, mainLooper, Clock.getDefault());
+    }
+
+    //visible for testing
+    ScreenDrawTimer(boolean firstDrawEnabled, Looper mainLooper, Clock clock) {
+        this.firstDrawEnabled = firstDrawEnabled;
+        this.mainLooper = mainLooper;
+        this.clock = clock;
+    }
+
+    static ScreenDrawTimer disabled() {
+        return new ScreenDrawTimer(false, null);
+    }
+
+    boolean isFirstDrawEnabled() {
+        return firstDrawEnabled;
+    }
+
+    FirstDrawCallback newFirstDrawCallback(Runnable onFirstDraw) {
+        return new FirstDrawCallback(new Handler(mainLooper), onFirstDraw);
+    }
+
+    synchronized void activityCreationStarted(String activityName) {
+        screenName = activityName;
+        screenStartEpochNanos = clock.now();
+    }
+
+    /**
+     * Records a span from the start of the most recent activity creation until now. Only the first
+     * report after each activity creation is recorded.
+     */
+    void reportFullyDrawn(Tracer tracer) {
+        String name;
+        long startEpochNanos;
+        synchronized (this) {
+            if (screenName == null) {
+                return;
+            }
+            name = screenName;
+            startEpochNanos = screenStartEpochNanos;
+            screenName = null;
+        }
+        tracer.spanBuilder(FULLY_DRAWN_SPAN_NAME)
+                .setStartTimestamp(startEpochNanos, TimeUnit.NANOSECONDS)
+                .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_UI)
+                .setAttribute(SplunkRum.SCREEN_NAME_KEY, name)
+                .startSpan()
+                .end(clock.now(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * The screen names of activity and fragment classes, resolved once per class and then cached.
+ * <p>
+ * A name comes from the mapping configured with
+ * {@link Config.Builder#screenNameMapping(Function)} if it returns one, then from the
+ * {@link RumScreenName} annotation, and otherwise is the simple class name. Resolving it reflects on
+ * the class (and {@link Class#getSimpleName()} allocates a new string on every call on older
+ * runtimes), which is too much to do on every lifecycle callback.
+ * <p>
+ * The cached names are interned, so the same screen always has the very same string; the
+ * {@link VisibleScreenTracker} relies on that when it compares them.
+ */
+final class ScreenNames {
+    private static final ScreenNames SIMPLE_CLASS_NAMES = new ScreenNames(null);
+
+    private final ConcurrentMap<Class<?>, String> names = new ConcurrentHashMap<>();
+    @Nullable
+    private final Function<Class<?>, String> mapping;
+
+    ScreenNames(@Nullable Function<Class<?>, String> mapping) {
+        this.mapping = mapping;
+    }
+
+    /**
+     * Annotated or simple class names, without a custom mapping.
+     */
+    static ScreenNames simpleClassNames() {
+        return SIMPLE_CLASS_NAMES;
+    }
+
+    String get(Object screen) {
+        return get(screen.getClass());
+    }
+
+    String get(Class<?> screenClass) {
+        String name = names.get(screenClass);
+        if (name == null) {
+            name = resolve(screenClass).intern();
+            String existing = names.putIfAbsent(screenClass, name);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return name;
+    }
+
+    private String resolve(Class<?> screenClass) {
+        if (mapping != null) {
+            String mapped = mapping.apply(screenClass);
+            if (mapped != null) {
+                return mapped;
+            }
+        }
+        RumScreenName annotation = screenClass.getAnnotation(RumScreenName.class);
+        if (annotation != null) {
+            return annotation.value();
+        }
+        return screenClass.getSimpleName();
+    }
+}
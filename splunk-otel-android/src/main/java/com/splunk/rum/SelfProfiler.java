@@ -0,0 +1,156 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Measures how much time the library itself spends in the activity and fragment lifecycle
+ * callbacks and in its span processors, when self-profiling is enabled (see
+ * {@link Config.Builder#selfProfilingEnabled(boolean)}).
+ * <p>
+ * When the lifecycle callbacks take more than the configured budget within one frame, the span
+ * events of the callbacks that don't start or end a span are dropped for the rest of that frame.
+ */
+public final class SelfProfiler {
+    //a frame at 60Hz.
+    static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+
+    private final boolean enabled;
+    private final long frameBudgetNanos;
+    private final Clock clock;
+    //callbacks and processors usually take microseconds, but a slow one can block a frame or more.
+    private final LatencyHistogram activityCallbackTime = newHistogram();
+    private final LatencyHistogram fragmentCallbackTime = newHistogram();
+    private final LatencyHistogram spanProcessorTime = newHistogram();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    //the lifecycle callbacks all run on the main thread, so these don't need to be synchronized.
+    private int callbackDepth;
+    private long frameStartNanos;
+    private long spentInFrameNanos;
+
+    SelfProfiler(boolean enabled, Duration frameBudget) {
+        this(enabled, frameBudget, Clock.getDefault());
+    }
+
+    //visible for testing
+    SelfProfiler(boolean enabled, Duration frameBudget, Clock clock) {
+        this.enabled = enabled;
+        this.frameBudgetNanos = frameBudget.toNanos();
+        this.clock = clock;
+        //make sure the first callback starts a new frame.
+        this.frameStartNanos = clock.nanoTime() - FRAME_NANOS;
+    }
+
+    static SelfProfiler disabled() {
+        return new SelfProfiler(false, Duration.ZERO);
+    }
+
+    private static LatencyHistogram newHistogram() {
+        return new LatencyHistogram(
+                MICROSECONDS.toNanos(10), MICROSECONDS.toNanos(50), MICROSECONDS.toNanos(100),
+                MICROSECONDS.toNanos(250), MICROSECONDS.toNanos(500), MILLISECONDS.toNanos(1),
+                MILLISECONDS.toNanos(2), MILLISECONDS.toNanos(5), MILLISECONDS.toNanos(16));
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The time spent in each activity lifecycle callback, including any fragment callbacks and span
+     * processors that ran as part of it.
+     */
+    public LatencyHistogram getActivityCallbackTime() {
+        return activityCallbackTime;
+    }
+
+    /**
+     * The time spent in each fragment lifecycle callback, including any span processors that ran as
+     * part of it.
+     */
+    public LatencyHistogram getFragmentCallbackTime() {
+        return fragmentCallbackTime;
+    }
+
+    /**
+     * The time spent in each span processor call, when a span is started or ended.
+     */
+    public LatencyHistogram getSpanProcessorTime() {
+        return spanProcessorTime;
+    }
+
+    /**
+     * The number of lifecycle span events that were dropped because the lifecycle callbacks went
+     * over their budget for the frame.
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    long now() {
+        return clock.nanoTime();
+    }
+
+    /**
+     * Must be called on the main thread, before a lifecycle callback runs.
+     */
+    long callbackStarted() {
+        callbackDepth++;
+        return clock.nanoTime();
+    }
+
+    /**
+     * Must be called on the main thread, after a lifecycle callback ran.
+     */
+    void callbackEnded(LatencyHistogram histogram, long startNanos) {
+        long elapsedNanos = clock.nanoTime() - startNanos;
+        histogram.record(elapsedNanos);
+        //nested callbacks (fragments that are created by an activity) are part of the outer one.
+        if (--callbackDepth > 0) {
+            return;
+        }
+        if (startNanos - frameStartNanos >= FRAME_NANOS) {
+            frameStartNanos = startNanos;
+            spentInFrameNanos = 0;
+        }
+        spentInFrameNanos += elapsedNanos;
+    }
+
+    /**
+     * Whether a lifecycle span event should be dropped, because the callbacks went over their
+     * budget in the current frame. Must be called on the main thread.
+     */
+    boolean shouldDropEvent() {
+        if (!enabled || spentInFrameNanos <= frameBudgetNanos) {
+            return false;
+        }
+        if (clock.nanoTime() - frameStartNanos >= FRAME_NANOS) {
+            return false;
+        }
+        droppedEvents.incrementAndGet();
+        return true;
+    }
+}
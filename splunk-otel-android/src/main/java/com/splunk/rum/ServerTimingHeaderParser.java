@@ -16,34 +16,251 @@
 
 package com.splunk.rum;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import static com.splunk.rum.RumResponseAttributesExtractor.LINK_SPAN_ID_KEY;
+import static com.splunk.rum.RumResponseAttributesExtractor.LINK_TRACE_ID_KEY;
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
 
+import androidx.annotation.Nullable;
+
+import io.opentelemetry.api.common.AttributesBuilder;
+import okhttp3.Headers;
+
+/**
+ * A single-pass scanner for the Server-Timing response header, which is a comma separated list of
+ * metrics, each with optional ";"-separated parameters, for example:
+ * <pre>
+ *     db;dur=53, traceparent;desc="00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01"
+ * </pre>
+ * The header is scanned in place; the only allocations are the trace and span id strings that end up
+ * in the span attributes (and, when enabled, the keys and values of the recorded metrics).
+ */
 class ServerTimingHeaderParser {
+    static final String METRIC_KEY_PREFIX = "http.server_timing.";
+    static final int MAX_METRICS = 10;
+    static final int MAX_METRIC_NAME_LENGTH = 32;
 
-    private static final String[] UNPARSEABLE_RESULT = new String[0];
+    private static final String SERVER_TIMING = "Server-Timing";
+    private static final String TRACEPARENT = "traceparent";
+    private static final String DESC = "desc";
+    private static final String DUR = "dur";
+    //00-<32 hex trace id>-<16 hex span id>-01
+    private static final int TRACEPARENT_LENGTH = 55;
+    private static final int TRACE_ID_OFFSET = 3;
+    private static final int SPAN_ID_OFFSET = 36;
 
-    private static final Pattern headerPattern = Pattern.compile("traceparent;desc=['\"]00-([0-9a-f]{32})-([0-9a-f]{16})-01['\"]");
+    private final boolean metricsEnabled;
+
+    ServerTimingHeaderParser() {
+        this(false);
+    }
 
     /**
-     * The first element is the trace id, the 2nd is the span id.
-     *
-     * @param header of the form: traceparent;desc="00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01"
-     * @return A two-element array of TraceId/SpanId. An empty array if the header can't be parsed.
+     * @param metricsEnabled whether the metric durations should be recorded as well as the traceparent.
+     */
+    ServerTimingHeaderParser(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Parses every Server-Timing header in the response. The metric limits apply to all of them together.
+     */
+    void parse(Headers headers, AttributesBuilder attributes) {
+        int metrics = 0;
+        for (int i = 0; i < headers.size(); i++) {
+            if (SERVER_TIMING.equalsIgnoreCase(headers.name(i))) {
+                metrics = parse(headers.value(i), attributes, metrics);
+            }
+        }
+    }
+
+    /**
+     * Finds the traceparent entry in the header and adds its trace id and span id to the attributes
+     * as {@link RumResponseAttributesExtractor#LINK_TRACE_ID_KEY} and
+     * {@link RumResponseAttributesExtractor#LINK_SPAN_ID_KEY}. If metrics are enabled, the durations
+     * of the other entries are added as {@code http.server_timing.<name>} attributes.
      *
      * This will also consider single-quotes valid for delimiting the "desc" section, even though it's not to spec.
      */
-    String[] parse(String header) {
+    void parse(@Nullable String header, AttributesBuilder attributes) {
+        parse(header, attributes, 0);
+    }
+
+    //returns the number of metrics recorded so far.
+    private int parse(@Nullable String header, AttributesBuilder attributes, int metrics) {
         if (header == null) {
-            return UNPARSEABLE_RESULT;
+            return metrics;
+        }
+        int length = header.length();
+        int pos = 0;
+        while (pos < length) {
+            pos = skipWhitespace(header, pos);
+            int nameStart = pos;
+            pos = skipToken(header, pos);
+            int nameEnd = pos;
+            boolean traceparent = regionEquals(header, nameStart, nameEnd, TRACEPARENT);
+            int durStart = -1;
+            int durEnd = -1;
+
+            while (true) {
+                pos = skipWhitespace(header, pos);
+                if (pos >= length || header.charAt(pos) != ';') {
+                    break;
+                }
+                pos = skipWhitespace(header, pos + 1);
+                int paramNameStart = pos;
+                pos = skipToken(header, pos);
+                int paramNameEnd = pos;
+                pos = skipWhitespace(header, pos);
+                if (pos >= length || header.charAt(pos) != '=') {
+                    continue;
+                }
+                pos = skipWhitespace(header, pos + 1);
+                int valueStart;
+                int valueEnd;
+                if (pos < length && isQuote(header.charAt(pos))) {
+                    valueStart = pos + 1;
+                    valueEnd = skipQuotedString(header, valueStart, header.charAt(pos));
+                    if (valueEnd >= length) {
+                        //unterminated quoted string; nothing after this can be trusted.
+                        return metrics;
+                    }
+                    pos = valueEnd + 1;
+                } else {
+                    valueStart = pos;
+                    pos = skipToken(header, pos);
+                    valueEnd = pos;
+                }
+                if (traceparent
+                        && regionEquals(header, paramNameStart, paramNameEnd, DESC)
+                        && isTraceparent(header, valueStart, valueEnd)) {
+                    attributes.put(LINK_TRACE_ID_KEY, header.substring(valueStart + TRACE_ID_OFFSET, valueStart + TRACE_ID_OFFSET + 32));
+                    attributes.put(LINK_SPAN_ID_KEY, header.substring(valueStart + SPAN_ID_OFFSET, valueStart + SPAN_ID_OFFSET + 16));
+                    if (!metricsEnabled) {
+                        return metrics;
+                    }
+                } else if (regionEquals(header, paramNameStart, paramNameEnd, DUR)) {
+                    durStart = valueStart;
+                    durEnd = valueEnd;
+                }
+            }
+            if (metricsEnabled && !traceparent && durStart >= 0 && metrics < MAX_METRICS
+                    && recordMetric(header, nameStart, nameEnd, durStart, durEnd, attributes)) {
+                metrics++;
+            }
+            pos = skipToNextEntry(header, pos);
+        }
+        return metrics;
+    }
+
+    private static boolean recordMetric(String header, int nameStart, int nameEnd, int durStart, int durEnd, AttributesBuilder attributes) {
+        int nameLength = nameEnd - nameStart;
+        if (nameLength == 0 || nameLength > MAX_METRIC_NAME_LENGTH || durStart == durEnd) {
+            return false;
+        }
+        double duration;
+        try {
+            duration = Double.parseDouble(header.substring(durStart, durEnd));
+        } catch (NumberFormatException e) {
+            return false;
         }
-        Matcher matcher = headerPattern.matcher(header);
-        if (!matcher.matches()) {
-            return UNPARSEABLE_RESULT;
+        if (!(duration >= 0) || Double.isInfinite(duration)) {
+            return false;
         }
-        String traceId = matcher.group(1);
-        String spanId = matcher.group(2);
-        return new String[]{traceId, spanId};
+        attributes.put(doubleKey(METRIC_KEY_PREFIX + header.substring(nameStart, nameEnd)), duration);
+        return true;
     }
 
+    private static boolean isTraceparent(String header, int start, int end) {
+        return end - start == TRACEPARENT_LENGTH
+                && header.startsWith("00-", start)
+                && isLowerHex(header, start + TRACE_ID_OFFSET, start + TRACE_ID_OFFSET + 32)
+                && header.charAt(start + SPAN_ID_OFFSET - 1) == '-'
+                && isLowerHex(header, start + SPAN_ID_OFFSET, start + SPAN_ID_OFFSET + 16)
+                && header.startsWith("-01", start + SPAN_ID_OFFSET + 16);
+    }
+
+    private static boolean isLowerHex(String header, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = header.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(String header, int start, int end, String expected) {
+        return end - start == expected.length() && header.regionMatches(start, expected, 0, end - start);
+    }
+
+    private static int skipWhitespace(String header, int pos) {
+        while (pos < header.length() && (header.charAt(pos) == ' ' || header.charAt(pos) == '\t')) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipToken(String header, int pos) {
+        while (pos < header.length() && isTokenChar(header.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    //returns the index of the closing quote, or the header length if there isn't one.
+    private static int skipQuotedString(String header, int pos, char quote) {
+        while (pos < header.length()) {
+            char c = header.charAt(pos);
+            if (c == quote) {
+                return pos;
+            }
+            pos += c == '\\' ? 2 : 1;
+        }
+        return header.length();
+    }
+
+    //skips whatever is left of a malformed entry, plus the comma separating it from the next one.
+    private static int skipToNextEntry(String header, int pos) {
+        while (pos < header.length()) {
+            char c = header.charAt(pos);
+            if (c == ',') {
+                return pos + 1;
+            }
+            if (c == '"') {
+                pos = skipQuotedString(header, pos + 1, c);
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
+    //RFC 7230 tchar, minus the single quote which we accept as a string delimiter.
+    private static boolean isTokenChar(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+            return true;
+        }
+        switch (c) {
+            case '!':
+            case '#':
+            case '$':
+            case '%':
+            case '&':
+            case '*':
+            case '+':
+            case '-':
+            case '.':
+            case '^':
+            case '_':
+            case '`':
+            case '|':
+            case '~':
+                return true;
+            default:
+                return false;
+        }
+    }
 }
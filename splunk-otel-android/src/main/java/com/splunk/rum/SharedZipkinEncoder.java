@@ -0,0 +1,90 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import zipkin2.codec.BytesEncoder;
+import zipkin2.codec.Encoding;
+
+/**
+ * Shared by the exporters of several destinations that use the same format: a span that another
+ * destination recently encoded (an equal span, for {@link io.opentelemetry.sdk.trace.data.SpanData}
+ * the same one) reuses those bytes instead of being encoded again. Spans that a destination's filter
+ * modified don't match, and are encoded separately.
+ * <p>
+ * Measuring a span encodes and keeps it too, so the size estimate that the {@link BufferingExporter}
+ * uses to split a backlog into requests doesn't cost a second encoding when the span is sent.
+ */
+final class SharedZipkinEncoder<S> implements BytesEncoder<S> {
+    private final BytesEncoder<S> delegate;
+    private final Map<S, byte[]> recentlyEncoded;
+    private final Object encodeLock = new Object();
+
+    SharedZipkinEncoder(BytesEncoder<S> delegate, int maxCachedSpans) {
+        this.delegate = delegate;
+        this.recentlyEncoded = new LinkedHashMap<S, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<S, byte[]> eldest) {
+                return size() > maxCachedSpans;
+            }
+        };
+    }
+
+    @Override
+    public Encoding encoding() {
+        return delegate.encoding();
+    }
+
+    @Override
+    public int sizeInBytes(S span) {
+        return encode(span).length;
+    }
+
+    @Override
+    public byte[] encode(S span) {
+        byte[] encoded = cached(span);
+        if (encoded != null) {
+            return encoded;
+        }
+        //not under the cache lock, so cache hits aren't held up by an encoding. A destination that
+        //waited for another one's encoding looks again, in case it was the same span.
+        synchronized (encodeLock) {
+            encoded = cached(span);
+            if (encoded == null) {
+                encoded = delegate.encode(span);
+                synchronized (recentlyEncoded) {
+                    recentlyEncoded.put(span, encoded);
+                }
+            }
+            return encoded;
+        }
+    }
+
+    @Override
+    public byte[] encodeList(List<S> spans) {
+        return delegate.encodeList(spans);
+    }
+
+    private byte[] cached(S span) {
+        synchronized (recentlyEncoded) {
+            return recentlyEncoded.get(span);
+        }
+    }
+}
@@ -20,7 +20,9 @@ import static com.splunk.rum.ConnectionUtil.NO_NETWORK;
 import static com.splunk.rum.ConnectionUtil.UNKNOWN_NETWORK;
 
 import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
+import android.os.Build;
 
 class SimpleNetworkDetector implements NetworkDetector {
     private final ConnectivityManager connectivityManager;
@@ -31,17 +33,39 @@ class SimpleNetworkDetector implements NetworkDetector {
 
     @Override
     public CurrentNetwork detectCurrentNetwork() {
+        CurrentNetwork network = detectTransport();
+        if (!network.isOnline()) {
+            return network;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            NetworkCapabilities capabilities = connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
+            if (capabilities != null) {
+                return NetworkDetector.withCapabilities(network, capabilities);
+            }
+        }
+        //before M there's no way to look up the active network's capabilities; the metered flag is all we get.
+        return network.withCapabilities(CurrentNetwork.UNKNOWN_BANDWIDTH, CurrentNetwork.UNKNOWN_BANDWIDTH,
+                connectivityManager.isActiveNetworkMetered(), false);
+    }
+
+    @Override
+    public CurrentNetwork detectCurrentNetwork(NetworkCapabilities capabilities) {
+        //the callback already handed us the capabilities, so don't look them up again.
+        return NetworkDetector.withCapabilities(detectTransport(), capabilities);
+    }
+
+    private CurrentNetwork detectTransport() {
         NetworkInfo activeNetwork = connectivityManager.getActiveNetworkInfo(); // Deprecated in API 29
         if (activeNetwork == null) {
             return NO_NETWORK;
         }
         switch (activeNetwork.getType()) {
             case ConnectivityManager.TYPE_MOBILE:  // Deprecated in API 28
-                return new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, activeNetwork.getSubtypeName());
+                return CurrentNetwork.of(NetworkState.TRANSPORT_CELLULAR, activeNetwork.getSubtypeName());
             case ConnectivityManager.TYPE_WIFI:  // Deprecated in API 28
-                return new CurrentNetwork(NetworkState.TRANSPORT_WIFI, activeNetwork.getSubtypeName());
+                return CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, activeNetwork.getSubtypeName());
             case ConnectivityManager.TYPE_VPN:
-                return new CurrentNetwork(NetworkState.TRANSPORT_VPN, activeNetwork.getSubtypeName());
+                return CurrentNetwork.of(NetworkState.TRANSPORT_VPN, activeNetwork.getSubtypeName());
         }
         //there is an active network, but it doesn't fall into the neat buckets above
         return UNKNOWN_NETWORK;
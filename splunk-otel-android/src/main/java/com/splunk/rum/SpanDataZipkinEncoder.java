@@ -0,0 +1,489 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.semconv.resource.attributes.ResourceAttributes.SERVICE_NAME;
+
+import android.util.Log;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import zipkin2.Endpoint;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.codec.Encoding;
+
+/**
+ * Writes a {@link SpanData} as Zipkin v2 JSON in a single pass, with the same result as converting
+ * it to a zipkin {@link zipkin2.Span} (like the otel ZipkinSpanExporter does) and encoding that as
+ * JSON, but without the intermediate span, tag map and strings.
+ * <p>
+ * The JSON is written into a scratch buffer that is reused for every span; only the final byte array
+ * is allocated. The span name is taken from the {@link RumAttributeAppender#SPLUNK_OPERATION_KEY}
+ * attribute, so it keeps its case.
+ */
+final class SpanDataZipkinEncoder implements BytesEncoder<SpanData> {
+    private static final String HIGH_TRACE_ID_ZEROS = "0000000000000000";
+    private static final AttributeKey<String> STATUS_ERROR = AttributeKey.stringKey("error");
+
+    private final PipelineMetrics metrics;
+    //walking the network interfaces is slow, and encoders are created on the main thread, so this
+    //is only called when the first span is encoded.
+    private final Supplier<InetAddress> localAddressLookup;
+
+    // guarded by this: the scratch buffer and tags, and the endpoint of the last resource.
+    private byte[] buffer = new byte[1024];
+    private int position;
+    private final List<String> tagKeys = new ArrayList<>();
+    private final List<Object> tagValues = new ArrayList<>();
+    private Resource endpointResource;
+    private byte[] endpointJson;
+
+    SpanDataZipkinEncoder() {
+        this(new PipelineMetrics());
+    }
+
+    SpanDataZipkinEncoder(PipelineMetrics metrics) {
+        this(metrics, SpanDataZipkinEncoder::findLocalAddress);
+    }
+
+    //visible for testing
+    SpanDataZipkinEncoder(PipelineMetrics metrics, Supplier<InetAddress> localAddressLookup) {
+        this.metrics = metrics;
+        this.localAddressLookup = localAddressLookup;
+    }
+
+    //like ZipkinSpanExporter: the first site-local address of any network interface.
+    private static InetAddress findLocalAddress() {
+        try {
+            Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+            while (interfaces != null && interfaces.hasMoreElements()) {
+                Enumeration<InetAddress> addresses = interfaces.nextElement().getInetAddresses();
+                while (addresses.hasMoreElements()) {
+                    InetAddress address = addresses.nextElement();
+                    if (address.isSiteLocalAddress()) {
+                        return address;
+                    }
+                }
+            }
+        } catch (SocketException e) {
+            Log.d(SplunkRum.LOG_TAG, "Failed to read the network interfaces", e);
+        }
+        return null;
+    }
+
+    @Override
+    public Encoding encoding() {
+        return Encoding.JSON;
+    }
+
+    @Override
+    public synchronized int sizeInBytes(SpanData span) {
+        write(span);
+        return position;
+    }
+
+    @Override
+    public synchronized byte[] encode(SpanData span) {
+        long startNanos = System.nanoTime();
+        write(span);
+        byte[] result = Arrays.copyOf(buffer, position);
+        metrics.getEncodeTime().record(System.nanoTime() - startNanos);
+        return result;
+    }
+
+    @Override
+    public byte[] encodeList(List<SpanData> spans) {
+        List<byte[]> encoded = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            encoded.add(encode(span));
+        }
+        byte[] result = new byte[Encoding.JSON.listSizeInBytes(encoded)];
+        int offset = 0;
+        result[offset++] = '[';
+        for (int i = 0; i < encoded.size(); i++) {
+            if (i > 0) {
+                result[offset++] = ',';
+            }
+            byte[] span = encoded.get(i);
+            System.arraycopy(span, 0, result, offset, span.length);
+            offset += span.length;
+        }
+        result[offset] = ']';
+        return result;
+    }
+
+    private void write(SpanData span) {
+        position = 0;
+        writeAscii("{\"traceId\":\"");
+        writeTraceId(span.getTraceId());
+        if (span.getParentSpanContext().isValid()) {
+            writeAscii("\",\"parentId\":\"");
+            writeAscii(span.getParentSpanId());
+        }
+        writeAscii("\",\"id\":\"");
+        writeAscii(span.getSpanId());
+        writeByte('"');
+        String kind = kind(span);
+        if (kind != null) {
+            writeAscii(",\"kind\":\"");
+            writeAscii(kind);
+            writeByte('"');
+        }
+        String name = name(span);
+        if (name != null) {
+            writeAscii(",\"name\":\"");
+            writeEscaped(name);
+            writeByte('"');
+        }
+        long startMicros = TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos());
+        long endMicros = TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos());
+        if (startMicros != 0) {
+            writeAscii(",\"timestamp\":");
+            writeLong(startMicros);
+        }
+        writeAscii(",\"duration\":");
+        writeLong(Math.max(1, endMicros - startMicros));
+        writeAscii(",\"localEndpoint\":");
+        writeBytes(endpointJson(span.getResource()));
+        writeAnnotations(span.getEvents());
+        writeTags(span);
+        writeByte('}');
+    }
+
+    private static String kind(SpanData span) {
+        switch (span.getKind()) {
+            case SERVER:
+                return "SERVER";
+            case CLIENT:
+                return "CLIENT";
+            case PRODUCER:
+                return "PRODUCER";
+            case CONSUMER:
+                return "CONSUMER";
+            default:
+                return null;
+        }
+    }
+
+    private static String name(SpanData span) {
+        String properName = span.getAttributes().get(RumAttributeAppender.SPLUNK_OPERATION_KEY);
+        if (properName != null) {
+            return properName;
+        }
+        //zipkin's default
+        String name = span.getName();
+        return name == null || name.isEmpty() ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    private byte[] endpointJson(Resource resource) {
+        //all spans from the library share a resource, so this is computed once.
+        if (resource != endpointResource) {
+            String serviceName = resource.getAttribute(SERVICE_NAME);
+            if (serviceName == null) {
+                serviceName = Resource.getDefault().getAttribute(SERVICE_NAME);
+            }
+            Endpoint endpoint = Endpoint.newBuilder().ip(localAddressLookup.get()).serviceName(serviceName).build();
+            int start = position;
+            writeEndpoint(endpoint);
+            endpointJson = Arrays.copyOfRange(buffer, start, position);
+            position = start;
+            endpointResource = resource;
+        }
+        return endpointJson;
+    }
+
+    private void writeEndpoint(Endpoint endpoint) {
+        writeByte('{');
+        boolean first = true;
+        if (endpoint.serviceName() != null) {
+            first = writeField(first, "serviceName");
+            writeEscaped(endpoint.serviceName());
+            writeByte('"');
+        }
+        if (endpoint.ipv4() != null) {
+            first = writeField(first, "ipv4");
+            writeAscii(endpoint.ipv4());
+            writeByte('"');
+        }
+        if (endpoint.ipv6() != null) {
+            first = writeField(first, "ipv6");
+            writeAscii(endpoint.ipv6());
+            writeByte('"');
+        }
+        writeByte('}');
+    }
+
+    private boolean writeField(boolean first, String name) {
+        if (!first) {
+            writeByte(',');
+        }
+        writeByte('"');
+        writeAscii(name);
+        writeAscii("\":\"");
+        return false;
+    }
+
+    private void writeAnnotations(List<EventData> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!sortedByTime(events)) {
+            //zipkin sorts annotations; this only happens for events added with an explicit timestamp.
+            events = new ArrayList<>(events);
+            Collections.sort(events, (a, b) -> Long.compare(
+                    TimeUnit.NANOSECONDS.toMicros(a.getEpochNanos()), TimeUnit.NANOSECONDS.toMicros(b.getEpochNanos())));
+        }
+        writeAscii(",\"annotations\":[");
+        for (int i = 0; i < events.size(); i++) {
+            EventData event = events.get(i);
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeAscii("{\"timestamp\":");
+            writeLong(TimeUnit.NANOSECONDS.toMicros(event.getEpochNanos()));
+            writeAscii(",\"value\":\"");
+            writeEscaped(event.getName());
+            writeAscii("\"}");
+        }
+        writeByte(']');
+    }
+
+    private static boolean sortedByTime(List<EventData> events) {
+        for (int i = 1; i < events.size(); i++) {
+            if (events.get(i - 1).getEpochNanos() > events.get(i).getEpochNanos()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //the same tags as ZipkinSpanExporter.generateSpan(), sorted by key like zipkin's tag map.
+    private void writeTags(SpanData span) {
+        tagKeys.clear();
+        tagValues.clear();
+        Attributes attributes = span.getAttributes();
+        attributes.forEach((key, value) -> putTag(key.getKey(), value));
+        if (span.getTotalAttributeCount() > attributes.size()) {
+            putTag("otel.dropped_attributes_count", span.getTotalAttributeCount() - attributes.size());
+        }
+        StatusData status = span.getStatus();
+        if (status.getStatusCode() != StatusCode.UNSET) {
+            putTag("otel.status_code", status.getStatusCode().toString());
+            if (status.getStatusCode() == StatusCode.ERROR && attributes.get(STATUS_ERROR) == null) {
+                String description = status.getDescription();
+                putTag(STATUS_ERROR.getKey(), description == null ? "" : description);
+            }
+        }
+        InstrumentationLibraryInfo libraryInfo = span.getInstrumentationLibraryInfo();
+        if (!libraryInfo.getName().isEmpty()) {
+            putTag("otel.library.name", libraryInfo.getName());
+        }
+        if (libraryInfo.getVersion() != null) {
+            putTag("otel.library.version", libraryInfo.getVersion());
+        }
+        if (span.getTotalRecordedEvents() > span.getEvents().size()) {
+            putTag("otel.dropped_events_count", span.getTotalRecordedEvents() - span.getEvents().size());
+        }
+        if (tagKeys.isEmpty()) {
+            return;
+        }
+
+        writeAscii(",\"tags\":{");
+        for (int i = 0; i < tagKeys.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeByte('"');
+            writeEscaped(tagKeys.get(i));
+            writeAscii("\":\"");
+            writeTagValue(tagValues.get(i));
+            writeByte('"');
+        }
+        writeByte('}');
+    }
+
+    //keeps the keys sorted; a key that is already there gets the new value.
+    private void putTag(String key, Object value) {
+        int index = tagKeys.size();
+        while (index > 0) {
+            int comparison = tagKeys.get(index - 1).compareTo(key);
+            if (comparison == 0) {
+                tagValues.set(index - 1, value);
+                return;
+            }
+            if (comparison < 0) {
+                break;
+            }
+            index--;
+        }
+        tagKeys.add(index, key);
+        tagValues.add(index, value);
+    }
+
+    private void writeTagValue(Object value) {
+        if (value instanceof String) {
+            writeEscaped((String) value);
+        } else if (value instanceof Long || value instanceof Integer) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof List) {
+            List<?> values = (List<?>) value;
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeTagValue(values.get(i));
+            }
+        } else {
+            writeEscaped(String.valueOf(value));
+        }
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            writeByte('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    //zipkin drops the high half of a 128-bit trace id when it's all zeros.
+    private void writeTraceId(String traceId) {
+        writeAscii(traceId, traceId.startsWith(HIGH_TRACE_ID_ZEROS) ? HIGH_TRACE_ID_ZEROS.length() : 0);
+    }
+
+    private void writeAscii(String value) {
+        writeAscii(value, 0);
+    }
+
+    private void writeAscii(String value, int start) {
+        int length = value.length();
+        ensureCapacity(length - start);
+        for (int i = start; i < length; i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    //UTF-8, with the same escapes as zipkin's JSON writer.
+    private void writeEscaped(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                ensureCapacity(1);
+                buffer[position++] = (byte) c;
+            } else if (c < 0x80) {
+                writeAscii(escape(c));
+            } else if (c == '\u2028') {
+                writeAscii("\\u2028");
+            } else if (c == '\u2029') {
+                writeAscii("\\u2029");
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[position++] = (byte) (0xc0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (!Character.isSurrogate(c)) {
+                writeThreeBytes(c);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                ensureCapacity(4);
+                buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else {
+                //a lone surrogate isn't valid UTF-8
+                writeByte('?');
+            }
+        }
+    }
+
+    private void writeThreeBytes(char c) {
+        ensureCapacity(3);
+        buffer[position++] = (byte) (0xe0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\t':
+                return "\\t";
+            case '\b':
+                return "\\b";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\f':
+                return "\\f";
+            default:
+                return String.format(Locale.ROOT, "\\u%04x", (int) c);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (position + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import zipkin2.Callback;
+import zipkin2.codec.BytesEncoder;
+import zipkin2.reporter.Sender;
+
+/**
+ * Sends spans to a Zipkin endpoint like the otel ZipkinSpanExporter, but encodes them straight from
+ * the {@link SpanData} (see {@link SpanDataZipkinEncoder}) instead of converting them to zipkin spans
+ * first.
+ */
+final class SpanDataZipkinExporter implements SpanExporter {
+    private final BytesEncoder<SpanData> encoder;
+    private final Sender sender;
+
+    SpanDataZipkinExporter(BytesEncoder<SpanData> encoder, Sender sender) {
+        this.encoder = encoder;
+        this.sender = sender;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        List<byte[]> encodedSpans = new ArrayList<>(spans.size());
+        for (SpanData span : spans) {
+            encodedSpans.add(encoder.encode(span));
+        }
+        CompletableResultCode result = new CompletableResultCode();
+        sender.sendSpans(encodedSpans).enqueue(new Callback<Void>() {
+            @Override
+            public void onSuccess(Void value) {
+                result.succeed();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                //the BufferingExporter keeps the spans for a retry, and logs that.
+                Log.d(SplunkRum.LOG_TAG, "Failed to send spans", t);
+                result.fail();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        try {
+            sender.close();
+        } catch (IOException e) {
+            Log.d(SplunkRum.LOG_TAG, "Failed to close the span sender", e);
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+}
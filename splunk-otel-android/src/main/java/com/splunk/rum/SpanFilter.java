@@ -32,18 +32,25 @@ import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 final class SpanFilter implements SpanExporter {
     private final SpanExporter delegate;
+    private final PipelineMetrics metrics;
     private final Predicate<String> rejectSpanNamesPredicate;
     private final Map<AttributeKey<?>, Predicate<?>> rejectSpanAttributesPredicates;
     private final Map<AttributeKey<?>, Function<?, ?>> spanAttributeReplacements;
+    //traces with the random part of their id at or above this are rejected, like otel's TraceIdRatioBasedSampler.
+    private final long traceIdUpperBound;
 
     SpanFilter(SpanExporter delegate,
+               PipelineMetrics metrics,
                Predicate<String> rejectSpanNamesPredicate,
                Map<AttributeKey<?>, Predicate<?>> rejectSpanAttributesPredicates,
-               Map<AttributeKey<?>, Function<?, ?>> spanAttributeReplacements) {
+               Map<AttributeKey<?>, Function<?, ?>> spanAttributeReplacements,
+               double traceSampleRatio) {
         this.delegate = delegate;
+        this.metrics = metrics;
         this.rejectSpanNamesPredicate = rejectSpanNamesPredicate;
         this.rejectSpanAttributesPredicates = rejectSpanAttributesPredicates;
         this.spanAttributeReplacements = spanAttributeReplacements;
+        this.traceIdUpperBound = traceSampleRatio >= 1.0 ? Long.MAX_VALUE : (long) (traceSampleRatio * Long.MAX_VALUE);
     }
 
     @Override
@@ -55,6 +62,10 @@ final class SpanFilter implements SpanExporter {
             }
             filtered.add(modify(span));
         }
+        int rejected = spans.size() - filtered.size();
+        if (rejected > 0) {
+            metrics.recordFiltered(rejected);
+        }
         return delegate.export(filtered);
     }
 
@@ -62,6 +73,9 @@ final class SpanFilter implements SpanExporter {
         if (rejectSpanNamesPredicate.test(span.getName())) {
             return true;
         }
+        if (traceIdUpperBound < Long.MAX_VALUE && traceIdRandomPart(span) >= traceIdUpperBound) {
+            return true;
+        }
         Attributes attributes = span.getAttributes();
         for (Map.Entry<AttributeKey<?>, Predicate<?>> e : rejectSpanAttributesPredicates.entrySet()) {
             AttributeKey<?> key = e.getKey();
@@ -74,6 +88,11 @@ final class SpanFilter implements SpanExporter {
         return false;
     }
 
+    private static long traceIdRandomPart(SpanData span) {
+        //the last 16 hex characters of the trace id, as a non-negative long.
+        return Long.parseUnsignedLong(span.getTraceId().substring(16), 16) >>> 1;
+    }
+
     private SpanData modify(SpanData span) {
         if (spanAttributeReplacements.isEmpty()) {
             return span;
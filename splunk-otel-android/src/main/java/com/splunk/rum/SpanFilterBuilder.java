@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -33,6 +34,7 @@ public final class SpanFilterBuilder {
     private Predicate<String> rejectSpanNamesPredicate = spanName -> false;
     private final Map<AttributeKey<?>, Predicate<?>> rejectSpanAttributesPredicates = new HashMap<>();
     private final Map<AttributeKey<?>, Function<?, ?>> spanAttributeReplacements = new HashMap<>();
+    private double traceSampleRatio = 1.0;
 
     SpanFilterBuilder() {
     }
@@ -127,12 +129,28 @@ public final class SpanFilterBuilder {
         return this;
     }
 
-    Function<SpanExporter, SpanExporter> build() {
+    /**
+     * Export only a fraction of the traces. Whether a trace is exported is decided by its trace id,
+     * so all the spans of a trace are either exported or rejected together.
+     *
+     * @param ratio The fraction of the traces to export, between 0 and 1.
+     * @return {@code this}.
+     */
+    public SpanFilterBuilder sampleTraces(double ratio) {
+        if (ratio < 0.0 || ratio > 1.0) {
+            throw new IllegalArgumentException("ratio must be in range [0.0, 1.0]");
+        }
+        traceSampleRatio = ratio;
+        return this;
+    }
+
+    BiFunction<SpanExporter, PipelineMetrics, SpanExporter> build() {
         // make a copy so that the references from the builder are not included in the returned function
         Predicate<String> rejectSpanNamesPredicate = this.rejectSpanNamesPredicate;
         Map<AttributeKey<?>, Predicate<?>> rejectSpanAttributesPredicates = new HashMap<>(this.rejectSpanAttributesPredicates);
         Map<AttributeKey<?>, Function<?, ?>> spanAttributeReplacements = new HashMap<>(this.spanAttributeReplacements);
+        double traceSampleRatio = this.traceSampleRatio;
 
-        return exporter -> new SpanFilter(exporter, rejectSpanNamesPredicate, rejectSpanAttributesPredicates, spanAttributeReplacements);
+        return (exporter, metrics) -> new SpanFilter(exporter, metrics, rejectSpanNamesPredicate, rejectSpanAttributesPredicates, spanAttributeReplacements, traceSampleRatio);
     }
 }
@@ -49,7 +49,8 @@ import okhttp3.OkHttpClient;
  */
 public class SplunkRum {
     //initialize this here, statically, to make sure we capture the earliest possible timestamp for startup.
-    private static final AppStartupTimer startupTimer = new AppStartupTimer();
+    //also used by the StartupTracingProvider, which runs before SplunkRum is initialized.
+    static final AppStartupTimer startupTimer = new AppStartupTimer();
 
     static final AttributeKey<String> COMPONENT_KEY = AttributeKey.stringKey("component");
     static final AttributeKey<String> SCREEN_NAME_KEY = AttributeKey.stringKey("screen.name");
@@ -71,11 +72,28 @@ public class SplunkRum {
     private final SessionId sessionId;
     private final OpenTelemetrySdk openTelemetrySdk;
     private final Config config;
+    private final PipelineMetrics pipelineMetrics;
+    private final SelfProfiler selfProfiler;
+    private final ScreenDrawTimer drawTimer;
+    private final WorkflowRegistry workflows;
+    private final RumEventCoalescer eventCoalescer;
+    private final BreadcrumbBuffer breadcrumbs;
 
     SplunkRum(OpenTelemetrySdk openTelemetrySdk, SessionId sessionId, Config config) {
+        this(openTelemetrySdk, sessionId, config, new PipelineMetrics(), SelfProfiler.disabled(), ScreenDrawTimer.disabled(),
+                new WorkflowRegistry(Config.DEFAULT_WORKFLOW_TIMEOUT), RumEventCoalescer.disabled(), new BreadcrumbBuffer(Config.DEFAULT_BREADCRUMB_CAPACITY, Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH));
+    }
+
+    SplunkRum(OpenTelemetrySdk openTelemetrySdk, SessionId sessionId, Config config, PipelineMetrics pipelineMetrics, SelfProfiler selfProfiler, ScreenDrawTimer drawTimer, WorkflowRegistry workflows, RumEventCoalescer eventCoalescer, BreadcrumbBuffer breadcrumbs) {
         this.openTelemetrySdk = openTelemetrySdk;
         this.sessionId = sessionId;
         this.config = config;
+        this.pipelineMetrics = pipelineMetrics;
+        this.selfProfiler = selfProfiler;
+        this.drawTimer = drawTimer;
+        this.workflows = workflows;
+        this.eventCoalescer = eventCoalescer;
+        this.breadcrumbs = breadcrumbs;
     }
 
     /**
@@ -154,13 +172,17 @@ public class SplunkRum {
      * @return A {@link okhttp3.Call.Factory} implementation.
      */
     public Call.Factory createRumOkHttpCallFactory(OkHttpClient client) {
-        return createOkHttpTracing().newCallFactory(client);
+        //record the http phase timings, while keeping any EventListener that the client already has.
+        OkHttpClient timedClient = client.newBuilder()
+                .eventListenerFactory(new HttpPhaseTimingListener.Factory(client.eventListenerFactory()))
+                .build();
+        return createOkHttpTracing().newCallFactory(timedClient);
     }
 
     private OkHttpTracing createOkHttpTracing() {
         return OkHttpTracing
                 .newBuilder(openTelemetrySdk)
-                .addAttributesExtractor(new RumResponseAttributesExtractor(new ServerTimingHeaderParser()))
+                .addAttributesExtractor(new RumResponseAttributesExtractor(new ServerTimingHeaderParser(config.isServerTimingMetricsEnabled())))
                 .build();
     }
 
@@ -181,17 +203,37 @@ public class SplunkRum {
         return sessionId.getSessionId();
     }
 
+    /**
+     * Get the counters and timings of the RUM span pipeline: how many spans were created, and what
+     * happened to them on their way to the RUM ingest. Useful for diagnosing missing data.
+     */
+    public PipelineMetrics getPipelineMetrics() {
+        return pipelineMetrics;
+    }
+
+    /**
+     * Get the time the library spent in lifecycle callbacks and span processors. The histograms are
+     * only filled in when self-profiling is enabled (see {@link Config.Builder#selfProfilingEnabled(boolean)}).
+     */
+    public SelfProfiler getSelfProfiler() {
+        return selfProfiler;
+    }
+
     /**
      * Add a custom event to RUM monitoring. This can be useful to capture business events, or
      * simply add instrumentation to your application.
      * <p>
      * This event will be turned into a Span and sent to the RUM ingest along with other, auto-generated
-     * spans.
+     * spans. Events whose name is coalesced (see {@link Config.Builder#coalesceRumEvents}) are merged
+     * with the other events of the same name and attributes in their time window.
      *
      * @param name       The name of the event.
      * @param attributes Any {@link Attributes} to associate with the event.
      */
     public void addRumEvent(String name, Attributes attributes) {
+        if (eventCoalescer.add(name, attributes)) {
+            return;
+        }
         getTracer()
                 .spanBuilder(name)
                 .setAllAttributes(attributes)
@@ -199,17 +241,69 @@ public class SplunkRum {
                 .end();
     }
 
+    /**
+     * Add a breadcrumb: a lightweight record of something that happened in the app, like a tap or a
+     * screen change, that helps to understand an error or a crash.
+     * <p>
+     * Unlike events, breadcrumbs aren't sent as spans. The most recent ones (see
+     * {@link Config.Builder#breadcrumbCapacity(int)}) are kept in memory, and sent along with the
+     * next error, crash or ANR, or periodically in a single batch (see
+     * {@link Config.Builder#breadcrumbBatchInterval(java.time.Duration)}).
+     *
+     * @param name The name of the breadcrumb.
+     */
+    public void addBreadcrumb(String name) {
+        addBreadcrumb(name, Attributes.empty());
+    }
+
+    /**
+     * Add a breadcrumb with a few attributes. See {@link #addBreadcrumb(String)}.
+     *
+     * @param name       The name of the breadcrumb.
+     * @param attributes A small set of {@link Attributes} to keep with the breadcrumb.
+     */
+    public void addBreadcrumb(String name, Attributes attributes) {
+        breadcrumbs.add(name, attributes);
+    }
+
+    /**
+     * Report that the current screen is fully drawn, ie. that the content the user came for (not
+     * just a placeholder or a progress indicator) is displayed. This will be turned into a
+     * {@code FullyDrawn} Span that starts when the most recent activity was created, so it covers
+     * any asynchronous loading done after the first frame.
+     * <p>
+     * Only the first call after each activity creation is recorded. Call this alongside
+     * {@link android.app.Activity#reportFullyDrawn()} if your app already uses it.
+     */
+    public void reportFullyDrawn() {
+        drawTimer.reportFullyDrawn(getTracer());
+    }
+
     /**
      * Start a Span to time a named workflow.
+     * <p>
+     * The workflow is tracked until the returned span is ended. If it's still open after the
+     * workflow timeout (see {@link Config.Builder#workflowTimeout(java.time.Duration)}), or if too
+     * many workflows are open at once, it's ended with an error status and counted as abandoned
+     * (see {@link #getAbandonedWorkflowCount()}).
      *
      * @param workflowName The name of the workflow to start.
      * @return A {@link Span} that has been started.
      */
     public Span startWorkflow(String workflowName) {
-        return getTracer()
+        Span span = getTracer()
                 .spanBuilder(workflowName)
                 .setAttribute(WORKFLOW_NAME_KEY, workflowName)
                 .startSpan();
+        return workflows.register(span);
+    }
+
+    /**
+     * Get the number of workflows that were ended by the library instead of the app, because they
+     * timed out or because too many workflows were open at once.
+     */
+    public long getAbandonedWorkflowCount() {
+        return workflows.getAbandonedWorkflowCount();
     }
 
     /**
@@ -242,6 +336,7 @@ public class SplunkRum {
                 .setAttribute(COMPONENT_KEY, COMPONENT_ERROR)
                 .startSpan();
         addExceptionAttributes(span, throwable);
+        breadcrumbs.attachTo(span);
         span.end();
     }
 
@@ -264,21 +359,14 @@ public class SplunkRum {
     }
 
     void recordAnr(StackTraceElement[] stackTrace) {
-        getTracer()
+        Span span = getTracer()
                 .spanBuilder("ANR")
-                .setAttribute(SemanticAttributes.EXCEPTION_STACKTRACE, formatStackTrace(stackTrace))
+                .setAttribute(SemanticAttributes.EXCEPTION_STACKTRACE, config.newStackTraceTruncator().format(stackTrace))
                 .setAttribute(COMPONENT_KEY, COMPONENT_ERROR)
                 .startSpan()
-                .setStatus(StatusCode.ERROR)
-                .end();
-    }
-
-    private String formatStackTrace(StackTraceElement[] stackTrace) {
-        StringBuilder stringBuilder = new StringBuilder();
-        for (StackTraceElement stackTraceElement : stackTrace) {
-            stringBuilder.append(stackTraceElement).append("\n");
-        }
-        return stringBuilder.toString();
+                .setStatus(StatusCode.ERROR);
+        breadcrumbs.attachTo(span);
+        span.end();
     }
 
     /**
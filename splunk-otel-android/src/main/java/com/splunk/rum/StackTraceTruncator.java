@@ -0,0 +1,169 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Formats stack traces so that they fit in a span attribute without losing the frames that matter.
+ * <p>
+ * Long runs of frames are cut in the middle: the top frames (where the error happened) and the bottom
+ * frames (what started the work, or the start of a recursion) are kept, with a marker saying how many
+ * were left out. This is done for each cause separately.
+ * <p>
+ * When the result is longer than the attribute value length limit, fewer frames of every cause are
+ * kept, down to just the top one, so that the "Caused by:" lines at the end (the root cause) aren't
+ * the part that gets cut off. Only if it still doesn't fit, it's cut at the end of the last whole
+ * line that fits, rather than in the middle of a frame like the sdk would do.
+ */
+final class StackTraceTruncator {
+    private final int topFrames;
+    private final int bottomFrames;
+    // 0 means no limit.
+    private final int maxLength;
+
+    StackTraceTruncator(int topFrames, int bottomFrames, int maxLength) {
+        this.topFrames = Math.max(topFrames, 0);
+        this.bottomFrames = Math.max(bottomFrames, 0);
+        this.maxLength = Math.max(maxLength, 0);
+    }
+
+    String format(Throwable throwable) {
+        StringWriter writer = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(writer));
+        return truncate(writer.toString());
+    }
+
+    String format(StackTraceElement[] stackTrace) {
+        int top = topFrames;
+        int bottom = bottomFrames;
+        StringBuilder formatted = elideFrames(stackTrace, top, bottom);
+        while (!fits(formatted) && top + bottom > 1) {
+            bottom = Math.max(bottom - 1, 0);
+            top = Math.max(top - 1, 1);
+            formatted = elideFrames(stackTrace, top, bottom);
+        }
+        return limitLength(formatted);
+    }
+
+    //visible for testing
+    String truncate(String stackTrace) {
+        int top = topFrames;
+        int bottom = bottomFrames;
+        StringBuilder truncated = elideFrames(stackTrace, top, bottom);
+        //each pass keeps one frame less at either end of every cause.
+        while (!fits(truncated) && top + bottom > 1) {
+            bottom = Math.max(bottom - 1, 0);
+            top = Math.max(top - 1, 1);
+            truncated = elideFrames(stackTrace, top, bottom);
+        }
+        return limitLength(truncated);
+    }
+
+    private StringBuilder elideFrames(StackTraceElement[] stackTrace, int top, int bottom) {
+        StringBuilder formatted = new StringBuilder();
+        int elided = elidedCount(stackTrace.length, top, bottom);
+        for (int i = 0; i < stackTrace.length; i++) {
+            if (elided > 0 && i == top) {
+                formatted.append("... ").append(elided).append(" frames elided\n");
+                i += elided - 1;
+                continue;
+            }
+            formatted.append(stackTrace[i]).append('\n');
+        }
+        return formatted;
+    }
+
+    private StringBuilder elideFrames(String stackTrace, int top, int bottom) {
+        StringBuilder truncated = new StringBuilder(Math.min(stackTrace.length(), maxLength == 0 ? stackTrace.length() : maxLength + 64));
+        int lineStart = 0;
+        //the start of the current run of "at ..." lines, or -1.
+        int framesStart = -1;
+        int frameCount = 0;
+        while (lineStart < stackTrace.length()) {
+            int lineEnd = stackTrace.indexOf('\n', lineStart);
+            lineEnd = lineEnd < 0 ? stackTrace.length() : lineEnd + 1;
+            if (isFrame(stackTrace, lineStart)) {
+                if (framesStart < 0) {
+                    framesStart = lineStart;
+                    frameCount = 0;
+                }
+                frameCount++;
+            } else {
+                if (framesStart >= 0) {
+                    appendFrames(truncated, stackTrace, framesStart, lineStart, frameCount, top, bottom);
+                    framesStart = -1;
+                }
+                truncated.append(stackTrace, lineStart, lineEnd);
+            }
+            lineStart = lineEnd;
+        }
+        if (framesStart >= 0) {
+            appendFrames(truncated, stackTrace, framesStart, stackTrace.length(), frameCount, top, bottom);
+        }
+        return truncated;
+    }
+
+    private static void appendFrames(StringBuilder truncated, String stackTrace, int start, int end, int frameCount, int top, int bottom) {
+        int elided = elidedCount(frameCount, top, bottom);
+        if (elided == 0) {
+            truncated.append(stackTrace, start, end);
+            return;
+        }
+        int lineStart = start;
+        for (int frame = 0; frame < frameCount; frame++) {
+            int lineEnd = stackTrace.indexOf('\n', lineStart);
+            lineEnd = lineEnd < 0 ? end : lineEnd + 1;
+            if (frame == top) {
+                //keep the indentation of the frames, suppressed exceptions are nested.
+                truncated.append(stackTrace, lineStart, stackTrace.indexOf('a', lineStart))
+                        .append("... ").append(elided).append(" frames elided\n");
+            }
+            if (frame < top || frame >= top + elided) {
+                truncated.append(stackTrace, lineStart, lineEnd);
+            }
+            lineStart = lineEnd;
+        }
+    }
+
+    private static int elidedCount(int frameCount, int top, int bottom) {
+        int kept = top + bottom;
+        //always elide more than one frame, a marker isn't shorter than the frame it replaces.
+        return kept == 0 || frameCount <= kept + 1 ? 0 : frameCount - kept;
+    }
+
+    private static boolean isFrame(String stackTrace, int lineStart) {
+        int i = lineStart;
+        while (i < stackTrace.length() && (stackTrace.charAt(i) == '\t' || stackTrace.charAt(i) == ' ')) {
+            i++;
+        }
+        return i > lineStart && stackTrace.startsWith("at ", i);
+    }
+
+    private boolean fits(StringBuilder formatted) {
+        return maxLength == 0 || formatted.length() <= maxLength;
+    }
+
+    private String limitLength(StringBuilder formatted) {
+        if (fits(formatted)) {
+            return formatted.toString();
+        }
+        int lastLineEnd = formatted.lastIndexOf("\n", maxLength - 1);
+        return formatted.substring(0, lastLineEnd < 0 ? maxLength : lastLineEnd + 1);
+    }
+}
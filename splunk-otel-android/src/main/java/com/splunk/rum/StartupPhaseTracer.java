@@ -0,0 +1,119 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+
+/**
+ * Splits a cold start into consecutive phases, recorded as child spans of the {@code AppStart} span.
+ * Only enabled when the {@link StartupTracingProvider} is installed, since the first phase ends when
+ * it is created.
+ * <p>
+ * Each phase starts where the previous one ended; the first one starts with the {@code AppStart} span.
+ * Phases that end before SplunkRum is initialized are kept until the {@code AppStart} span has been
+ * started. The {@code AppStart} span is kept open until the first frame has been drawn, even when the
+ * activity spans don't wait for it, so that the last phase doesn't outlast its parent.
+ */
+class StartupPhaseTracer {
+    //process start, Application class loading and attachBaseContext, until the provider is created.
+    static final String APPLICATION_ATTACH = "ApplicationAttach";
+    //the content providers, until SplunkRum is initialized.
+    static final String CONTENT_PROVIDER_INIT = "ContentProviderInit";
+    //the rest of Application.onCreate.
+    static final String APPLICATION_ON_CREATE = "ApplicationOnCreate";
+    //launching the first activity, until it is resumed.
+    static final String ACTIVITY_CREATE = "ActivityCreate";
+    //measuring, laying out and drawing the first frame.
+    static final String FIRST_FRAME = "FirstFrame";
+
+    private final RumInitializer.AnchoredClock clock;
+    private final List<String> phaseNames = new ArrayList<>();
+    private final List<Long> phaseEnds = new ArrayList<>();
+    private boolean enabled;
+    private Tracer tracer;
+    private Span appStart;
+    private long appStartTimestamp;
+    private int recordedPhases;
+    private Runnable endAppStart;
+
+    StartupPhaseTracer(RumInitializer.AnchoredClock clock) {
+        this.clock = clock;
+    }
+
+    synchronized void enable() {
+        enabled = true;
+    }
+
+    synchronized void phaseEnded(String phaseName) {
+        if (!enabled || phaseNames.contains(phaseName)) {
+            return;
+        }
+        phaseNames.add(phaseName);
+        phaseEnds.add(clock.now());
+        recordPhases();
+        if (phaseName.equals(FIRST_FRAME) && endAppStart != null) {
+            Runnable end = endAppStart;
+            endAppStart = null;
+            end.run();
+        }
+    }
+
+    /**
+     * Holds off the end of the {@code AppStart} span until the first frame phase has ended.
+     *
+     * @return whether the span is kept open, and {@code endAppStart} will be run after that phase.
+     */
+    synchronized boolean endAfterFirstFrame(Runnable endAppStart) {
+        if (!enabled || phaseNames.contains(FIRST_FRAME)) {
+            return false;
+        }
+        this.endAppStart = endAppStart;
+        return true;
+    }
+
+    synchronized void appStartStarted(Tracer tracer, Span appStart, long appStartTimestamp) {
+        if (!enabled) {
+            return;
+        }
+        this.tracer = tracer;
+        this.appStart = appStart;
+        this.appStartTimestamp = appStartTimestamp;
+        recordPhases();
+    }
+
+    private void recordPhases() {
+        if (appStart == null) {
+            return;
+        }
+        Context parent = Context.root().with(appStart);
+        for (; recordedPhases < phaseNames.size(); recordedPhases++) {
+            long start = recordedPhases == 0 ? appStartTimestamp : phaseEnds.get(recordedPhases - 1);
+            tracer.spanBuilder(phaseNames.get(recordedPhases))
+                    .setParent(parent)
+                    .setStartTimestamp(start, TimeUnit.NANOSECONDS)
+                    .setAttribute(SplunkRum.COMPONENT_KEY, SplunkRum.COMPONENT_APPSTART)
+                    .startSpan()
+                    .end(phaseEnds.get(recordedPhases), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Enables tracing the phases of the application startup (see {@link StartupPhaseTracer}). Content
+ * providers are created after the Application is attached and before {@code Application.onCreate()},
+ * which makes this the earliest hook a library has into the startup.
+ * <p>
+ * It is not registered by default. To use it, add it to your application's manifest:
+ * <pre>{@code
+ * <provider
+ *     android:name="com.splunk.rum.StartupTracingProvider"
+ *     android:authorities="${applicationId}.splunkrumstartup"
+ *     android:exported="false"
+ *     android:initOrder="1000" />
+ * }</pre>
+ * SplunkRum itself still has to be initialized in {@code Application.onCreate()}.
+ */
+public final class StartupTracingProvider extends ContentProvider {
+
+    @Override
+    public boolean onCreate() {
+        Context context = getContext();
+        if (context == null || !(context.getApplicationContext() instanceof Application)) {
+            return false;
+        }
+        StartupPhaseTracer phaseTracer = SplunkRum.startupTimer.phaseTracer;
+        phaseTracer.enable();
+        phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ATTACH);
+
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        //the first activity is launched by a message that is already queued, so this one runs right after Application.onCreate().
+        mainHandler.postAtFrontOfQueue(() -> phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ON_CREATE));
+        Application application = (Application) context.getApplicationContext();
+        application.registerActivityLifecycleCallbacks(new FirstActivityCallbacks(application, mainHandler, phaseTracer));
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(@NonNull Uri uri, @Nullable String[] projection, @Nullable String selection, @Nullable String[] selectionArgs, @Nullable String sortOrder) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
+        return null;
+    }
+
+    @Override
+    public int delete(@NonNull Uri uri, @Nullable String selection, @Nullable String[] selectionArgs) {
+        return 0;
+    }
+
+    @Override
+    public int update(@NonNull Uri uri, @Nullable ContentValues values, @Nullable String selection, @Nullable String[] selectionArgs) {
+        return 0;
+    }
+
+    /**
+     * Ends the activity creation phase when the first activity is resumed, and the first frame
+     * phase once it has been drawn. Unregisters itself after that.
+     */
+    private static class FirstActivityCallbacks implements Application.ActivityLifecycleCallbacks {
+        private final Application application;
+        private final Handler mainHandler;
+        private final StartupPhaseTracer phaseTracer;
+        private boolean resumed;
+
+        FirstActivityCallbacks(Application application, Handler mainHandler, StartupPhaseTracer phaseTracer) {
+            this.application = application;
+            this.mainHandler = mainHandler;
+            this.phaseTracer = phaseTracer;
+        }
+
+        @Override
+        public void onActivityResumed(@NonNull Activity activity) {
+            if (resumed) {
+                return;
+            }
+            resumed = true;
+            phaseTracer.phaseEnded(StartupPhaseTracer.ACTIVITY_CREATE);
+            new FirstDrawCallback(mainHandler, () -> {
+                phaseTracer.phaseEnded(StartupPhaseTracer.FIRST_FRAME);
+                application.unregisterActivityLifecycleCallbacks(this);
+            }).schedule();
+        }
+
+        @Override
+        public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(@NonNull Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {
+        }
+
+        @Override
+        public void onActivityDestroyed(@NonNull Activity activity) {
+        }
+    }
+}
@@ -38,8 +38,10 @@ class ThrottlingExporter implements SpanExporter {
     private final Function<SpanData, String> categoryFunction;
     private final long windowSizeInNanos;
     private final int maxSpansInWindow;
-    // note: no need to make this thread-safe since it will only ever be called from the BatchSpanProcessor worker thread.
+    private final PipelineMetrics metrics;
     // the implementation here needs to support null keys, or we'd need to use a default component value.
+    // guarded by itself: export() can be called from the BatchSpanProcessor worker thread and from
+    // flushes on other threads. Only the (short) bookkeeping is locked, not the delegate's export.
     private final Map<String, Window> categoryToWindow = new HashMap<>();
 
     private ThrottlingExporter(Builder builder) {
@@ -47,6 +49,7 @@ class ThrottlingExporter implements SpanExporter {
         this.categoryFunction = builder.categoryFunction;
         this.windowSizeInNanos = builder.windowSize.toNanos();
         this.maxSpansInWindow = builder.maxSpansInWindow;
+        this.metrics = builder.metrics;
     }
 
     static Builder newBuilder(SpanExporter delegate) {
@@ -56,15 +59,18 @@ class ThrottlingExporter implements SpanExporter {
     @Override
     public CompletableResultCode export(Collection<SpanData> spans) {
         List<SpanData> spansBelowLimit = new ArrayList<>();
-        for (SpanData span : spans) {
-            String category = categoryFunction.apply(span);
-            Window window = categoryToWindow.computeIfAbsent(category, k -> new Window());
-            if (!window.aboveLimit(span)) {
-                spansBelowLimit.add(span);
+        synchronized (categoryToWindow) {
+            for (SpanData span : spans) {
+                String category = categoryFunction.apply(span);
+                Window window = categoryToWindow.computeIfAbsent(category, k -> new Window());
+                if (!window.aboveLimit(span)) {
+                    spansBelowLimit.add(span);
+                }
             }
         }
         int dropped = spans.size() - spansBelowLimit.size();
         if (dropped > 0) {
+            metrics.recordThrottled(dropped);
             Log.d(SplunkRum.LOG_TAG, "Dropped " + dropped + " spans because of throttling");
         }
         return delegate.export(spansBelowLimit);
@@ -91,7 +97,7 @@ class ThrottlingExporter implements SpanExporter {
             // remove oldest entries until the window shrinks to the configured size
             while (true) {
                 Long first = timestamps.peekFirst();
-                //this shouldn't happen, due to the single-threaded nature of things here, but
+                //this shouldn't happen, since windows are only used while holding the lock, but
                 //just to be on the safe side, don't blow up if something has cleared out the window.
                 if (first == null) {
                     break;
@@ -116,6 +122,7 @@ class ThrottlingExporter implements SpanExporter {
         Function<SpanData, String> categoryFunction = span -> "default";
         Duration windowSize = Duration.ofSeconds(30);
         int maxSpansInWindow = 100;
+        PipelineMetrics metrics = new PipelineMetrics();
 
         private Builder(SpanExporter delegate) {
             this.delegate = delegate;
@@ -136,6 +143,11 @@ class ThrottlingExporter implements SpanExporter {
             return this;
         }
 
+        Builder metrics(PipelineMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         ThrottlingExporter build() {
             return new ThrottlingExporter(this);
         }
@@ -36,11 +36,20 @@ import java.util.concurrent.atomic.AtomicReference;
  * the launching screen never leaves visibility.
  */
 class VisibleScreenTracker {
+    private final ScreenNames screenNames;
     private final AtomicReference<String> lastResumedActivity = new AtomicReference<>();
     private final AtomicReference<String> previouslyLastResumedActivity = new AtomicReference<>();
     private final AtomicReference<String> lastResumedFragment = new AtomicReference<>();
     private final AtomicReference<String> previouslyLastResumedFragment = new AtomicReference<>();
 
+    VisibleScreenTracker() {
+        this(ScreenNames.simpleClassNames());
+    }
+
+    VisibleScreenTracker(ScreenNames screenNames) {
+        this.screenNames = screenNames;
+    }
+
     String getPreviouslyVisibleScreen() {
         String previouslyLastFragment = previouslyLastResumedFragment.get();
         if (previouslyLastFragment != null) {
@@ -62,12 +71,13 @@ class VisibleScreenTracker {
     }
 
     void activityResumed(Activity activity) {
-        lastResumedActivity.set(activity.getClass().getSimpleName());
+        lastResumedActivity.set(screenNames.get(activity));
     }
 
     void activityPaused(Activity activity) {
-        previouslyLastResumedActivity.set(activity.getClass().getSimpleName());
-        lastResumedActivity.compareAndSet(activity.getClass().getSimpleName(), null);
+        String screenName = screenNames.get(activity);
+        previouslyLastResumedActivity.set(screenName);
+        lastResumedActivity.compareAndSet(screenName, null);
     }
 
     void fragmentResumed(Fragment fragment) {
@@ -79,7 +89,7 @@ class VisibleScreenTracker {
         if (fragment instanceof DialogFragment) {
             previouslyLastResumedFragment.set(lastResumedFragment.get());
         }
-        lastResumedFragment.set(fragment.getClass().getSimpleName());
+        lastResumedFragment.set(screenNames.get(fragment));
     }
 
     void fragmentPaused(Fragment fragment) {
@@ -87,11 +97,12 @@ class VisibleScreenTracker {
         if (fragment instanceof NavHostFragment) {
             return;
         }
+        String screenName = screenNames.get(fragment);
         if (fragment instanceof DialogFragment) {
             lastResumedFragment.set(previouslyLastResumedFragment.get());
         } else {
-            lastResumedFragment.compareAndSet(fragment.getClass().getSimpleName(), null);
+            lastResumedFragment.compareAndSet(screenName, null);
         }
-        previouslyLastResumedFragment.set(fragment.getClass().getSimpleName());
+        previouslyLastResumedFragment.set(screenName);
     }
 }
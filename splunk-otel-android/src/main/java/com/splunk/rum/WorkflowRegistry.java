@@ -0,0 +1,176 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.sdk.common.Clock;
+
+/**
+ * Keeps track of the workflows started with {@link SplunkRum#startWorkflow(String)} that haven't been
+ * ended yet, so that a workflow the app never ends is still ended (and exported) after the workflow
+ * timeout (see {@link Config.Builder#workflowTimeout(Duration)}), instead of being held in memory
+ * forever.
+ * <p>
+ * Workflows that time out, or that are pushed out because too many are open at once, are ended with
+ * an error status and counted as abandoned. Since all workflows have the same timeout, the open ones
+ * are kept in the order they were started, which makes starting, ending and timing out a workflow
+ * constant-time operations. For the same reason, a single sweep is scheduled for when the oldest open
+ * workflow times out, and only while there are open workflows, so the scheduler stays idle in apps
+ * that don't use them.
+ */
+final class WorkflowRegistry {
+    static final int MAX_OPEN_WORKFLOWS = 100;
+    static final AttributeKey<Boolean> ABANDONED_KEY = booleanKey("workflow.abandoned");
+    static final String TIMED_OUT = "Workflow timed out";
+    static final String TOO_MANY_OPEN = "Too many open workflows";
+
+    private final long timeoutNanos;
+    private final int maxOpenWorkflows;
+    private final ScheduledExecutorService sweepScheduler;
+    private final Clock clock;
+    // guarded by this, in the order the workflows were started (and so in the order they time out).
+    private final Set<ManagedWorkflowSpan> openWorkflows = new LinkedHashSet<>();
+    // guarded by this.
+    private boolean sweepScheduled;
+    private final AtomicLong abandonedWorkflows = new AtomicLong();
+
+    //without a scheduler, timed out workflows are only ended when another one is registered.
+    WorkflowRegistry(Duration timeout) {
+        this(timeout, null);
+    }
+
+    WorkflowRegistry(Duration timeout, ScheduledExecutorService sweepScheduler) {
+        this(timeout, MAX_OPEN_WORKFLOWS, sweepScheduler, Clock.getDefault());
+    }
+
+    //visible for testing
+    WorkflowRegistry(Duration timeout, int maxOpenWorkflows, ScheduledExecutorService sweepScheduler, Clock clock) {
+        this.timeoutNanos = timeout.toNanos();
+        this.maxOpenWorkflows = maxOpenWorkflows;
+        this.sweepScheduler = sweepScheduler;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts tracking a workflow span.
+     *
+     * @return the span to hand to the app, which stops the tracking when it's ended.
+     */
+    Span register(Span span) {
+        if (!span.isRecording()) {
+            return span;
+        }
+        long now = clock.now();
+        ManagedWorkflowSpan workflow = new ManagedWorkflowSpan(span, this, now + timeoutNanos);
+        ManagedWorkflowSpan evicted = null;
+        synchronized (this) {
+            if (openWorkflows.size() >= maxOpenWorkflows) {
+                Iterator<ManagedWorkflowSpan> oldest = openWorkflows.iterator();
+                evicted = oldest.next();
+                oldest.remove();
+            }
+            openWorkflows.add(workflow);
+            if (!sweepScheduled) {
+                scheduleSweep(workflow.deadlineNanos - now);
+            }
+        }
+        if (evicted != null) {
+            abandon(evicted, TOO_MANY_OPEN, now);
+        }
+        endTimedOutWorkflows();
+        return workflow;
+    }
+
+    synchronized void remove(ManagedWorkflowSpan workflow) {
+        openWorkflows.remove(workflow);
+    }
+
+    /**
+     * Ends the workflows that have been open for longer than the timeout, at the time they timed out.
+     */
+    void endTimedOutWorkflows() {
+        long now = clock.now();
+        List<ManagedWorkflowSpan> timedOut = null;
+        synchronized (this) {
+            Iterator<ManagedWorkflowSpan> iterator = openWorkflows.iterator();
+            while (iterator.hasNext()) {
+                ManagedWorkflowSpan workflow = iterator.next();
+                if (workflow.deadlineNanos > now) {
+                    //the rest were started later, so they haven't timed out either.
+                    break;
+                }
+                iterator.remove();
+                if (timedOut == null) {
+                    timedOut = new ArrayList<>();
+                }
+                timedOut.add(workflow);
+            }
+        }
+        if (timedOut != null) {
+            for (ManagedWorkflowSpan workflow : timedOut) {
+                abandon(workflow, TIMED_OUT, workflow.deadlineNanos);
+            }
+        }
+    }
+
+    private void sweep() {
+        endTimedOutWorkflows();
+        synchronized (this) {
+            sweepScheduled = false;
+            if (!openWorkflows.isEmpty()) {
+                scheduleSweep(openWorkflows.iterator().next().deadlineNanos - clock.now());
+            }
+        }
+    }
+
+    // guarded by this.
+    private void scheduleSweep(long delayNanos) {
+        if (sweepScheduler == null) {
+            return;
+        }
+        sweepScheduler.schedule(this::sweep, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        sweepScheduled = true;
+    }
+
+    private void abandon(ManagedWorkflowSpan workflow, String reason, long endNanos) {
+        //the app may have ended it in the meantime.
+        if (workflow.abandon(reason, endNanos)) {
+            abandonedWorkflows.incrementAndGet();
+        }
+    }
+
+    synchronized int getOpenWorkflowCount() {
+        return openWorkflows.size();
+    }
+
+    long getAbandonedWorkflowCount() {
+        return abandonedWorkflows.get();
+    }
+}
@@ -16,16 +16,15 @@
 
 package com.splunk.rum;
 
-import static org.mockito.Mockito.mock;
-
 import android.app.Activity;
+import android.app.Application;
 import android.os.Bundle;
 
 class ActivityCallbackTestHarness {
 
-    private final ActivityCallbacks callbacks;
+    private final Application.ActivityLifecycleCallbacks callbacks;
 
-    ActivityCallbackTestHarness(ActivityCallbacks callbacks) {
+    ActivityCallbackTestHarness(Application.ActivityLifecycleCallbacks callbacks) {
         this.callbacks = callbacks;
     }
 
@@ -35,7 +34,8 @@ class ActivityCallbackTestHarness {
     }
 
     void runActivityCreationLifecycle(Activity activity) {
-        Bundle bundle = mock(Bundle.class);
+        //a newly created activity has no saved instance state.
+        Bundle bundle = null;
 
         callbacks.onActivityPreCreated(activity, bundle);
         callbacks.onActivityCreated(activity, bundle);
@@ -32,10 +32,13 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
 import io.opentelemetry.sdk.trace.data.EventData;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -135,11 +138,13 @@ public class ActivityCallbacksTest {
         verify(appStateListener).appForegrounded();
     }
 
-    private void startupAppAndClearSpans(ActivityCallbackTestHarness testHarness) {
+    private Activity startupAppAndClearSpans(ActivityCallbackTestHarness testHarness) {
         //make sure that the initial state has been set up & the application is started.
-        testHarness.runAppStartupLifecycle(mock(Activity.class));
+        Activity activity = mock(Activity.class);
+        testHarness.runAppStartupLifecycle(activity);
         otelTesting.clearSpans();
         verify(appStateListener).appForegrounded();
+        return activity;
     }
 
     @Test
@@ -147,9 +152,8 @@ public class ActivityCallbacksTest {
         ActivityCallbacks activityCallbacks = new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, singletonList(appStateListener));
         ActivityCallbackTestHarness testHarness = new ActivityCallbackTestHarness(activityCallbacks);
 
-        startupAppAndClearSpans(testHarness);
-
-        Activity activity = mock(Activity.class);
+        //the same activity instance that was started comes back.
+        Activity activity = startupAppAndClearSpans(testHarness);
         testHarness.runActivityRestartedLifecycle(activity);
 
         List<SpanData> spans = otelTesting.getSpans();
@@ -333,6 +337,86 @@ public class ActivityCallbacksTest {
         verify(appStateListener).appBackgrounded();
     }
 
+    @Test
+    public void lifecycleEventsDroppedOverFrameBudget() {
+        startupTimer.start(tracer);
+        //every clock reading is 10 microseconds after the previous one, so the first callback uses up the whole budget.
+        AtomicLong nanoTime = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.nanoTime()).thenAnswer(invocation -> nanoTime.addAndGet(10_000));
+        SelfProfiler selfProfiler = new SelfProfiler(true, Duration.ZERO, clock);
+        ActivityCallbacks activityCallbacks = new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, singletonList(appStateListener),
+                selfProfiler, LifecycleEventRecorder::direct, ScreenDrawTimer.disabled(), FragmentLifecycleAggregator.disabled(), ScreenNames.simpleClassNames());
+        ActivityCallbackTestHarness testHarness = new ActivityCallbackTestHarness(new ProfilingActivityCallbacks(activityCallbacks, selfProfiler));
+
+        Activity activity = mock(Activity.class);
+        testHarness.runAppStartupLifecycle(activity);
+        startupTimer.end();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+
+        //only the events of the callbacks that start or end the span are left.
+        List<EventData> events = spans.get(1).getEvents();
+        assertEquals(4, events.size());
+        checkEventExists(events, "activityPreCreated");
+        checkEventExists(events, "activityPreStarted");
+        checkEventExists(events, "activityPreResumed");
+        checkEventExists(events, "activityPostResumed");
+
+        assertEquals(5, selfProfiler.getDroppedEvents());
+        assertEquals(9, selfProfiler.getActivityCallbackTime().getCount());
+        verify(appStateListener).appForegrounded();
+    }
+
+    @Test
+    public void compactLifecycleEvents() {
+        startupTimer.start(tracer);
+        ActivityCallbacks activityCallbacks = new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, singletonList(appStateListener),
+                SelfProfiler.disabled(), () -> LifecycleEventRecorder.compact(null), ScreenDrawTimer.disabled(), FragmentLifecycleAggregator.disabled(), ScreenNames.simpleClassNames());
+        ActivityCallbackTestHarness testHarness = new ActivityCallbackTestHarness(activityCallbacks);
+
+        Activity activity = mock(Activity.class);
+        testHarness.runAppStartupLifecycle(activity);
+        startupTimer.end();
+
+        SpanData creationSpan = otelTesting.getSpans().get(1);
+        assertTrue(creationSpan.getEvents().isEmpty());
+
+        String events = creationSpan.getAttributes().get(LifecycleEventRecorder.LIFECYCLE_EVENTS_KEY);
+        assertTrue(events.matches("activityPreCreated:0,activityCreated:\\d+,activityPostCreated:\\d+,"
+                + "activityPreStarted:\\d+,activityStarted:\\d+,activityPostStarted:\\d+,"
+                + "activityPreResumed:\\d+,activityResumed:\\d+,activityPostResumed:\\d+"));
+    }
+
+    @Test
+    public void instancesOfTheSameClassAreTrackedSeparately() {
+        ActivityCallbacks activityCallbacks = new ActivityCallbacks(tracer, visibleScreenTracker, startupTimer, singletonList(appStateListener));
+        ActivityCallbackTestHarness testHarness = new ActivityCallbackTestHarness(activityCallbacks);
+
+        Activity first = startupAppAndClearSpans(testHarness);
+        Activity second = mock(Activity.class);
+
+        activityCallbacks.onActivityPrePaused(first);
+        testHarness.runActivityCreationLifecycle(second);
+        activityCallbacks.onActivityPaused(first);
+        activityCallbacks.onActivityPostPaused(first);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+
+        //another instance of the initial activity class is a warm start.
+        assertEquals("AppStart", spans.get(0).getName());
+        assertEquals("warm", spans.get(0).getAttributes().get(SplunkRum.START_TYPE_KEY));
+        assertEquals(9, spans.get(0).getEvents().size());
+        assertEquals("Paused", spans.get(1).getName());
+        List<EventData> events = spans.get(1).getEvents();
+        assertEquals(3, events.size());
+        checkEventExists(events, "activityPrePaused");
+        checkEventExists(events, "activityPaused");
+        checkEventExists(events, "activityPostPaused");
+    }
+
     private void checkEventExists(List<EventData> events, String eventName) {
         Optional<EventData> event = events.stream().filter(e -> e.getName().equals(eventName)).findAny();
         assertTrue("Event with name " + eventName + " not found", event.isPresent());
@@ -17,11 +17,15 @@
 package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.app.Activity;
+import android.os.Handler;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -30,6 +34,7 @@ import org.junit.Test;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -40,6 +45,23 @@ public class ActivityTracerTest {
     private Tracer tracer;
     private final VisibleScreenTracker visibleScreenTracker = mock(VisibleScreenTracker.class);
     private final AppStartupTimer appStartupTimer = new AppStartupTimer();
+    private final Handler handler = mock(Handler.class);
+    private FirstDrawCallback firstDrawCallback;
+    private final ScreenDrawTimer drawTimer = new ScreenDrawTimer(true, null) {
+        @Override
+        FirstDrawCallback newFirstDrawCallback(Runnable onFirstDraw) {
+            firstDrawCallback = new FirstDrawCallback(handler, onFirstDraw) {
+                @Override
+                void postFrameCallback() {
+                }
+
+                @Override
+                void removeFrameCallback() {
+                }
+            };
+            return firstDrawCallback;
+        }
+    };
 
     @Before
     public void setup() {
@@ -80,7 +102,7 @@ public class ActivityTracerTest {
     @Test
     public void create_nonInitialActivity() {
         ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>("FirstActivity"), tracer, visibleScreenTracker, appStartupTimer);
-        trackableTracer.startActivityCreation();
+        trackableTracer.startActivityCreation(false);
         trackableTracer.endActiveSpan();
         SpanData span = getSingleSpan();
         assertEquals("Created", span.getName());
@@ -90,7 +112,7 @@ public class ActivityTracerTest {
     @Test
     public void create_initialActivity() {
         ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>("Activity"), tracer, visibleScreenTracker, appStartupTimer);
-        trackableTracer.startActivityCreation();
+        trackableTracer.startActivityCreation(false);
         trackableTracer.endActiveSpan();
         SpanData span = getSingleSpan();
         assertEquals("AppStart", span.getName());
@@ -102,7 +124,7 @@ public class ActivityTracerTest {
     public void create_initialActivity_firstTime() {
         appStartupTimer.start(tracer);
         ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>(), tracer, visibleScreenTracker, appStartupTimer);
-        trackableTracer.startActivityCreation();
+        trackableTracer.startActivityCreation(false);
         trackableTracer.endActiveSpan();
         appStartupTimer.end();
 
@@ -117,6 +139,36 @@ public class ActivityTracerTest {
         assertEquals("Created", innerSpan.getName());
     }
 
+    @Test
+    public void create_initialActivity_restoredState() {
+        appStartupTimer.start(tracer);
+        ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>(), tracer, visibleScreenTracker, appStartupTimer);
+        trackableTracer.startActivityCreation(true);
+        trackableTracer.endActiveSpan();
+        appStartupTimer.end();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("AppStart", spans.get(0).getName());
+        assertEquals("warm", spans.get(0).getAttributes().get(SplunkRum.START_TYPE_KEY));
+        assertEquals("Created", spans.get(1).getName());
+    }
+
+    @Test
+    public void create_initialActivity_launchedInBackground() {
+        appStartupTimer.setLaunchedInBackground();
+        appStartupTimer.start(tracer);
+        ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>(), tracer, visibleScreenTracker, appStartupTimer);
+        trackableTracer.startActivityCreation(false);
+        trackableTracer.endActiveSpan();
+        appStartupTimer.end();
+
+        SpanData span = getSingleSpan();
+        assertEquals("AppStart", span.getName());
+        assertEquals("warm", span.getAttributes().get(SplunkRum.START_TYPE_KEY));
+        assertFalse(span.getParentSpanContext().isValid());
+    }
+
     @Test
     public void addPreviousScreen_noPrevious() {
         VisibleScreenTracker visibleScreenTracker = mock(VisibleScreenTracker.class);
@@ -160,6 +212,44 @@ public class ActivityTracerTest {
         assertEquals("previousScreen", span.getAttributes().get(SplunkRum.LAST_SCREEN_NAME_KEY));
     }
 
+    @Test
+    public void resumedSpanEndsAfterFirstDraw() {
+        AtomicReference<String> initialAppActivity = new AtomicReference<>();
+        ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), initialAppActivity, tracer, visibleScreenTracker, appStartupTimer);
+
+        trackableTracer.startSpanIfNoneInProgress("Resumed");
+        trackableTracer.endSpanForActivityResumedAfterFirstDraw(drawTimer);
+        assertTrue(otelTesting.getSpans().isEmpty());
+        assertFalse(Span.current().getSpanContext().isValid());
+
+        firstDrawCallback.doFrame(0);
+        verify(handler).postAtFrontOfQueue(firstDrawCallback);
+        assertTrue(otelTesting.getSpans().isEmpty());
+
+        firstDrawCallback.run();
+        assertEquals("Resumed", getSingleSpan().getName());
+        assertEquals("Activity", initialAppActivity.get());
+    }
+
+    @Test
+    public void resumedSpanEndsWhenPausedBeforeFirstDraw() {
+        ActivityTracer trackableTracer = new ActivityTracer(mock(Activity.class), new AtomicReference<>(), tracer, visibleScreenTracker, appStartupTimer);
+
+        trackableTracer.startSpanIfNoneInProgress("Resumed");
+        trackableTracer.endSpanForActivityResumedAfterFirstDraw(drawTimer);
+        trackableTracer.startSpanIfNoneInProgress("Paused");
+        verify(handler).removeCallbacks(firstDrawCallback);
+        trackableTracer.endActiveSpan();
+
+        //a late frame doesn't end anything else.
+        firstDrawCallback.run();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("Resumed", spans.get(0).getName());
+        assertEquals("Paused", spans.get(1).getName());
+    }
+
     private SpanData getSingleSpan() {
         List<SpanData> generatedSpans = otelTesting.getSpans();
         assertEquals(1, generatedSpans.size());
@@ -17,8 +17,11 @@
 package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -76,4 +79,28 @@ public class AppStartupTimerTest {
         appStartupTimer.end();
         assertEquals(1, otelTesting.getSpans().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void restoredActivity_warmStart() {
+        AppStartupTimer appStartupTimer = new AppStartupTimer();
+        appStartupTimer.start(tracer);
+        appStartupTimer.activityRestored();
+        appStartupTimer.end();
+
+        SpanData spanData = otelTesting.getSpans().get(0);
+        assertEquals("warm", spanData.getAttributes().get(SplunkRum.START_TYPE_KEY));
+    }
+
+    @Test
+    public void launchedInBackground_notReported() {
+        AppStartupTimer appStartupTimer = new AppStartupTimer();
+        appStartupTimer.setLaunchedInBackground();
+        Span startSpan = appStartupTimer.start(tracer);
+        assertFalse(startSpan.getSpanContext().isValid());
+        assertNull(appStartupTimer.getStartupSpan());
+        appStartupTimer.end();
+
+        assertTrue(appStartupTimer.isLaunchedInBackground());
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+}
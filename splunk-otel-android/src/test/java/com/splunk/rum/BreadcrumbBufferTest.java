@@ -0,0 +1,140 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class BreadcrumbBufferTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final Clock clock = mock(Clock.class);
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+    }
+
+    @Test
+    public void attachToSpan() {
+        BreadcrumbBuffer breadcrumbs = new BreadcrumbBuffer(3, 0, clock);
+        at(1000);
+        breadcrumbs.add("tap", Attributes.of(stringKey("view"), "list"));
+        at(1500);
+        breadcrumbs.add("scroll", Attributes.of(longKey("offset"), 20L));
+
+        Span span = tracer.spanBuilder("error").startSpan();
+        breadcrumbs.attachTo(span);
+        span.end();
+
+        Attributes attributes = otelTesting.getSpans().get(0).getAttributes();
+        assertEquals("1000 tap view=list\n1500 scroll offset=20", attributes.get(BreadcrumbBuffer.BREADCRUMBS_KEY));
+        assertEquals(2, (long) attributes.get(BreadcrumbBuffer.BREADCRUMB_COUNT_KEY));
+
+        //the breadcrumbs are only sent once.
+        Span next = tracer.spanBuilder("error").startSpan();
+        breadcrumbs.attachTo(next);
+        next.end();
+        assertNull(otelTesting.getSpans().get(1).getAttributes().get(BreadcrumbBuffer.BREADCRUMBS_KEY));
+    }
+
+    @Test
+    public void overwritesOldest() {
+        BreadcrumbBuffer breadcrumbs = new BreadcrumbBuffer(2, 0, clock);
+        for (int i = 1; i <= 5; i++) {
+            at(i);
+            breadcrumbs.add("crumb" + i, null);
+        }
+
+        breadcrumbs.report(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        assertEquals(BreadcrumbBuffer.BATCH_SPAN_NAME, spans.get(0).getName());
+        assertEquals("4 crumb4\n5 crumb5", spans.get(0).getAttributes().get(BreadcrumbBuffer.BREADCRUMBS_KEY));
+        assertEquals(2, (long) spans.get(0).getAttributes().get(BreadcrumbBuffer.BREADCRUMB_COUNT_KEY));
+    }
+
+    @Test
+    public void fullBufferAtDefaultLimits() {
+        BreadcrumbBuffer breadcrumbs = new BreadcrumbBuffer(Config.DEFAULT_BREADCRUMB_CAPACITY, Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH, clock);
+        for (int i = 1; i <= Config.DEFAULT_BREADCRUMB_CAPACITY; i++) {
+            at(1634567890000L + i);
+            breadcrumbs.add("tap", Attributes.of(stringKey("view"), "checkout_button_" + i, stringKey("screen"), "CheckoutActivity"));
+        }
+
+        breadcrumbs.report(tracer);
+
+        Attributes attributes = otelTesting.getSpans().get(0).getAttributes();
+        String sent = attributes.get(BreadcrumbBuffer.BREADCRUMBS_KEY);
+        assertTrue(sent.length() <= Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH);
+        String[] lines = sent.split("\n");
+        //not all of them fit, and the oldest ones were left out.
+        assertTrue(lines.length < Config.DEFAULT_BREADCRUMB_CAPACITY);
+        assertEquals(lines.length, (long) attributes.get(BreadcrumbBuffer.BREADCRUMB_COUNT_KEY));
+        assertEquals(line(Config.DEFAULT_BREADCRUMB_CAPACITY), lines[lines.length - 1]);
+        int first = Config.DEFAULT_BREADCRUMB_CAPACITY - lines.length + 1;
+        assertEquals(line(first), lines[0]);
+        //and no more would have fit.
+        assertTrue(sent.length() + 1 + line(first - 1).length() > Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH);
+    }
+
+    @Test
+    public void nothingToReport() {
+        BreadcrumbBuffer breadcrumbs = new BreadcrumbBuffer(2, 0, clock);
+        breadcrumbs.report(tracer);
+
+        breadcrumbs.add("tap", Attributes.empty());
+        breadcrumbs.clear();
+        breadcrumbs.report(tracer);
+
+        BreadcrumbBuffer disabled = new BreadcrumbBuffer(0, 0, clock);
+        disabled.add("tap", Attributes.empty());
+        disabled.report(tracer);
+
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+
+    private static String line(int i) {
+        return (1634567890000L + i) + " tap screen=CheckoutActivity view=checkout_button_" + i;
+    }
+
+    private void at(long millis) {
+        when(clock.now()).thenReturn(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
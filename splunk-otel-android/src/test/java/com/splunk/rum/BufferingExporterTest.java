@@ -19,21 +19,37 @@ package com.splunk.rum;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
 import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -45,7 +61,7 @@ public class BufferingExporterTest {
 
     @Before
     public void setUp() {
-        when(connectionUtil.refreshNetworkStatus())
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
                 .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, null));
     }
 
@@ -63,12 +79,13 @@ public class BufferingExporterTest {
 
     @Test
     public void offlinePath() {
-        when(connectionUtil.refreshNetworkStatus())
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
                 .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
                 .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_UNKNOWN, null));
 
         SpanExporter delegate = mock(SpanExporter.class);
-        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate);
+        PipelineMetrics metrics = new PipelineMetrics();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics);
 
         Collection<SpanData> spans = Arrays.asList(mock(SpanData.class), mock(SpanData.class));
 
@@ -86,12 +103,17 @@ public class BufferingExporterTest {
 
         assertTrue(result.isSuccess());
         verify(delegate).export(secondBatch);
+        assertEquals(2, metrics.getSpansBuffered());
+        assertEquals(3, metrics.getSpansExported());
     }
 
     @Test
     public void retryPath() {
         SpanExporter delegate = mock(SpanExporter.class);
-        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate);
+        Clock clock = mock(Clock.class);
+        when(clock.nanoTime()).thenReturn(0L, 5_000_000L, 10_000_000L, 30_000_000L);
+        PipelineMetrics metrics = new PipelineMetrics();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics, span -> 0, clock);
 
         SpanData one = mock(SpanData.class);
         SpanData two = mock(SpanData.class);
@@ -107,6 +129,11 @@ public class BufferingExporterTest {
 
         CompletableResultCode secondResult = bufferingExporter.export(Collections.singletonList(three));
         assertTrue(secondResult.isSuccess());
+
+        assertEquals(2, metrics.getSpansFailed());
+        assertEquals(3, metrics.getSpansExported());
+        assertEquals(2, metrics.getExportTime().getCount());
+        assertEquals(25_000_000L, metrics.getExportTime().getTotalNanos());
     }
 
     @Test
@@ -144,7 +171,8 @@ public class BufferingExporterTest {
     @Test
     public void maxBacklog() {
         SpanExporter delegate = mock(SpanExporter.class);
-        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate);
+        PipelineMetrics metrics = new PipelineMetrics();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics);
 
         List<SpanData> firstSet = new ArrayList<>();
         for (int i = 0; i < 110; i++) {
@@ -170,6 +198,243 @@ public class BufferingExporterTest {
         List<SpanData> value = argumentCaptor.getValue();
         //we keep only 100 of the first 110 that failed.
         assertEquals(120, value.size());
+        assertEquals(10, metrics.getSpansEvicted());
+    }
+
+    @Test
+    public void drainBacklogInChunks() {
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null));
+
+        SpanExporter delegate = mock(SpanExporter.class);
+        PipelineMetrics metrics = new PipelineMetrics();
+        //3 spans fit in a chunk
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics, span -> BufferingExporter.MAX_CHUNK_BYTES / 3);
+        when(delegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+
+        List<SpanData> spans = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            spans.add(mock(SpanData.class));
+        }
+        bufferingExporter.export(spans.subList(0, 7));
+        CompletableResultCode result = bufferingExporter.export(spans.subList(7, 8));
+
+        assertTrue(result.isSuccess());
+        InOrder inOrder = inOrder(delegate);
+        inOrder.verify(delegate).export(spans.subList(0, 3));
+        inOrder.verify(delegate).export(spans.subList(3, 6));
+        inOrder.verify(delegate).export(spans.subList(6, 8));
+        assertEquals(8, metrics.getSpansExported());
+        assertEquals(3, metrics.getExportTime().getCount());
+    }
+
+    @Test
+    public void failedChunkKeepsEarlierChunksSent() {
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null));
+        SpanExporter delegate = mock(SpanExporter.class);
+        PipelineMetrics metrics = new PipelineMetrics();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics, span -> BufferingExporter.MAX_CHUNK_BYTES / 2);
+
+        List<SpanData> spans = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            spans.add(mock(SpanData.class));
+        }
+        bufferingExporter.export(spans);
+
+        when(delegate.export(spans.subList(0, 2))).thenReturn(CompletableResultCode.ofSuccess());
+        when(delegate.export(spans.subList(2, 4))).thenReturn(CompletableResultCode.ofFailure());
+        CompletableResultCode firstResult = bufferingExporter.flush();
+        assertFalse(firstResult.isSuccess());
+        verify(delegate, never()).export(spans.subList(4, 6));
+        assertEquals(2, metrics.getSpansExported());
+        assertEquals(2, metrics.getSpansFailed());
+
+        //the failed chunk and the one after it are retried with the next batch.
+        SpanData another = mock(SpanData.class);
+        when(delegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        CompletableResultCode secondResult = bufferingExporter.export(Collections.singletonList(another));
+
+        assertTrue(secondResult.isSuccess());
+        verify(delegate, times(2)).export(spans.subList(2, 4));
+        verify(delegate).export(Arrays.asList(spans.get(4), spans.get(5)));
+        verify(delegate).export(Collections.singletonList(another));
+        assertEquals(7, metrics.getSpansExported());
+    }
+
+    @Test
+    public void regularBatchIsNotMeasured() {
+        SpanExporter delegate = mock(SpanExporter.class);
+        when(delegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        AtomicInteger measured = new AtomicInteger();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, new PipelineMetrics(), span -> {
+            measured.incrementAndGet();
+            return BufferingExporter.MAX_CHUNK_BYTES;
+        });
+
+        List<SpanData> spans = Arrays.asList(mock(SpanData.class), mock(SpanData.class));
+        assertTrue(bufferingExporter.export(spans).isSuccess());
+
+        verify(delegate).export(spans);
+        assertEquals(0, measured.get());
+    }
+
+    @Test
+    public void deferBacklogOnMeteredNetwork() {
+        CurrentNetwork metered = new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE", 10_000, 5_000, true, true);
+        CurrentNetwork unmetered = new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null, 50_000, 10_000, false, true);
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
+                .thenReturn(metered)
+                .thenReturn(unmetered);
+
+        SpanExporter delegate = mock(SpanExporter.class);
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, true, new PipelineMetrics());
+
+        List<SpanData> offlineSpans = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            offlineSpans.add(mock(SpanData.class));
+        }
+        bufferingExporter.export(offlineSpans);
+        verify(delegate, never()).export(any());
+
+        List<SpanData> meteredSpans = Collections.singletonList(mock(SpanData.class));
+        when(delegate.export(meteredSpans)).thenReturn(CompletableResultCode.ofSuccess());
+        assertTrue(bufferingExporter.export(meteredSpans).isSuccess());
+        //only the new span is sent while on the metered network
+        verify(delegate).export(meteredSpans);
+
+        List<SpanData> unmeteredSpans = Collections.singletonList(mock(SpanData.class));
+        List<SpanData> expected = new ArrayList<>(offlineSpans);
+        expected.addAll(unmeteredSpans);
+        when(delegate.export(expected)).thenReturn(CompletableResultCode.ofSuccess());
+        assertTrue(bufferingExporter.export(unmeteredSpans).isSuccess());
+        verify(delegate).export(expected);
+    }
+
+    @Test
+    public void deferredBacklogIsSentAfterMaxDeferral() {
+        CurrentNetwork metered = new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE", 10_000, 5_000, true, true);
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
+                .thenReturn(metered);
+        AtomicLong now = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.nanoTime()).thenAnswer(invocation -> now.get());
+
+        SpanExporter delegate = mock(SpanExporter.class);
+        when(delegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, true, new PipelineMetrics(), span -> 0, clock);
+
+        List<SpanData> offlineSpans = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            offlineSpans.add(mock(SpanData.class));
+        }
+        bufferingExporter.export(offlineSpans);
+
+        List<SpanData> firstSpans = Collections.singletonList(mock(SpanData.class));
+        assertTrue(bufferingExporter.export(firstSpans).isSuccess());
+        verify(delegate).export(firstSpans);
+
+        now.addAndGet(BufferingExporter.MAX_BACKLOG_DEFERRAL_NANOS - 1);
+        List<SpanData> secondSpans = Collections.singletonList(mock(SpanData.class));
+        assertTrue(bufferingExporter.export(secondSpans).isSuccess());
+        verify(delegate).export(secondSpans);
+
+        //still metered, but the backlog has waited long enough.
+        now.addAndGet(1);
+        List<SpanData> thirdSpans = Collections.singletonList(mock(SpanData.class));
+        List<SpanData> expected = new ArrayList<>(offlineSpans);
+        expected.addAll(thirdSpans);
+        assertTrue(bufferingExporter.export(thirdSpans).isSuccess());
+        verify(delegate).export(expected);
+    }
+
+    @Test
+    public void noDeferralWhenDisabled() {
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null))
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE", 10_000, 100, true, true));
+
+        SpanExporter delegate = mock(SpanExporter.class);
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate);
+
+        List<SpanData> offlineSpans = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            offlineSpans.add(mock(SpanData.class));
+        }
+        bufferingExporter.export(offlineSpans);
+
+        SpanData another = mock(SpanData.class);
+        List<SpanData> expected = new ArrayList<>(offlineSpans);
+        expected.add(another);
+        when(delegate.export(expected)).thenReturn(CompletableResultCode.ofSuccess());
+        assertTrue(bufferingExporter.export(Collections.singletonList(another)).isSuccess());
+        verify(delegate).export(expected);
+    }
+
+    @Test
+    public void concurrentExportsFlushesAndCompletions() throws Exception {
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored())
+                .thenAnswer(invocation -> ThreadLocalRandom.current().nextInt(4) == 0
+                        ? new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null)
+                        : new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null));
+        AsyncExporter delegate = new AsyncExporter();
+        PipelineMetrics metrics = new PipelineMetrics();
+        BufferingExporter bufferingExporter = new BufferingExporter(connectionUtil, delegate, false, metrics, span -> BufferingExporter.MAX_CHUNK_BYTES / 4);
+
+        int threads = 8;
+        int batchesPerThread = 500;
+        int spansPerBatch = 5;
+        List<SpanData> spans = new ArrayList<>();
+        for (int i = 0; i < threads * batchesPerThread * spansPerBatch; i++) {
+            spans.add(TestSpanData.builder()
+                    .setName("span" + i)
+                    .setKind(SpanKind.INTERNAL)
+                    .setStatus(StatusData.unset())
+                    .setHasEnded(true)
+                    .setStartEpochNanos(0)
+                    .setEndEpochNanos(1)
+                    .build());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<SpanData> threadSpans = spans.subList(t * batchesPerThread * spansPerBatch, (t + 1) * batchesPerThread * spansPerBatch);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int b = 0; b < batchesPerThread; b++) {
+                    bufferingExporter.export(threadSpans.subList(b * spansPerBatch, (b + 1) * spansPerBatch));
+                    if (b % 5 == 0) {
+                        bufferingExporter.flush();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //back online with a working endpoint: everything that is left gets sent.
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored()).thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null));
+        delegate.failures = false;
+        assertTrue(delegate.awaitIdle());
+        //each flush sends the whole backlog, so a few are enough; lost spans would never show up.
+        for (int i = 0; i < 100 && delegate.exported.size() + metrics.getSpansEvicted() < spans.size(); i++) {
+            assertTrue(bufferingExporter.flush().join(5, TimeUnit.SECONDS).isSuccess());
+            assertTrue(delegate.awaitIdle());
+        }
+
+        assertEquals(spans.size(), delegate.exported.size() + metrics.getSpansEvicted());
+        assertEquals(delegate.exported.size(), metrics.getSpansExported());
+        assertEquals(0, delegate.duplicates.get());
+        delegate.shutdown();
     }
 
     @Test
@@ -180,4 +445,55 @@ public class BufferingExporterTest {
         bufferingExporter.shutdown();
         verify(delegate).shutdown();
     }
-}
\ No newline at end of file
+
+    //completes exports on other threads, like the zipkin sender, failing some of them at first.
+    private static class AsyncExporter implements SpanExporter {
+        private final ExecutorService completions = Executors.newFixedThreadPool(4);
+        private final AtomicInteger pending = new AtomicInteger();
+        final Set<SpanData> exported = ConcurrentHashMap.newKeySet();
+        final AtomicInteger duplicates = new AtomicInteger();
+        volatile boolean failures = true;
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> spans) {
+            CompletableResultCode result = new CompletableResultCode();
+            pending.incrementAndGet();
+            completions.execute(() -> {
+                if (failures && ThreadLocalRandom.current().nextInt(3) == 0) {
+                    result.fail();
+                } else {
+                    for (SpanData span : spans) {
+                        if (!exported.add(span)) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                    result.succeed();
+                }
+                pending.decrementAndGet();
+            });
+            return result;
+        }
+
+        boolean awaitIdle() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pending.get() > 0) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+            return true;
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            completions.shutdown();
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -19,12 +19,18 @@ package com.splunk.rum;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static java.util.Collections.singletonMap;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
 
+import android.util.Log;
+
 import org.junit.Test;
 
+import java.time.Duration;
+
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
 
@@ -51,6 +57,28 @@ public class ConfigTest {
                 .crashReportingEnabled(false)
                 .networkMonitorEnabled(false)
                 .anrDetectionEnabled(false)
+                .backlogDeferralEnabled(true)
+                .serverTimingMetricsEnabled(true)
+                .pipelineMetricsReportingEnabled(true)
+                .selfProfilingEnabled(true)
+                .selfProfilingFrameBudget(Duration.ofMillis(5))
+                .compactLifecycleEventsEnabled(true)
+                .compactLifecycleEventThreshold(Duration.ofMillis(1))
+                .firstDrawTimingEnabled(true)
+                .fragmentLifecycleAggregationEnabled(true)
+                .fragmentLifecycleOutlierThreshold(Duration.ofMillis(100))
+                .workflowTimeout(Duration.ofMinutes(5))
+                .debugLogLevel("ui", Log.DEBUG)
+                .coalesceRumEvents("scroll", Duration.ofSeconds(1))
+                .breadcrumbCapacity(10)
+                .breadcrumbBatchInterval(Duration.ofMinutes(1))
+                .maxSpanAttributes(10)
+                .maxAttributeValueLength(100)
+                .maxSpanEvents(20)
+                .maxSpanLinks(0)
+                .stackTraceFrames(3, 2)
+                .screenNameMapping(screenClass -> "screen")
+                .additionalEndpoint("http://other-beacon", filter -> filter.sampleTraces(0.5))
                 .globalAttributes(globalAttributes)
                 .deploymentEnvironment("production")
                 .build();
@@ -62,6 +90,30 @@ public class ConfigTest {
         assertFalse(config.isCrashReportingEnabled());
         assertFalse(config.isNetworkMonitorEnabled());
         assertFalse(config.isAnrDetectionEnabled());
+        assertTrue(config.isBacklogDeferralEnabled());
+        assertTrue(config.isServerTimingMetricsEnabled());
+        assertTrue(config.isPipelineMetricsReportingEnabled());
+        assertTrue(config.isSelfProfilingEnabled());
+        assertEquals(Duration.ofMillis(5), config.getSelfProfilingFrameBudget());
+        assertTrue(config.isCompactLifecycleEventsEnabled());
+        assertEquals(Duration.ofMillis(1), config.getCompactLifecycleEventThreshold());
+        assertTrue(config.isFirstDrawTimingEnabled());
+        assertTrue(config.isFragmentLifecycleAggregationEnabled());
+        assertEquals(Duration.ofMillis(100), config.getFragmentLifecycleOutlierThreshold());
+        assertEquals(Duration.ofMinutes(5), config.getWorkflowTimeout());
+        assertEquals(singletonMap("ui", Log.DEBUG), config.getDebugLogLevels());
+        assertEquals(singletonMap("scroll", Duration.ofSeconds(1)), config.getCoalescedRumEvents());
+        assertEquals(10, config.getBreadcrumbCapacity());
+        assertEquals(Duration.ofMinutes(1), config.getBreadcrumbBatchInterval());
+        assertEquals(10, config.getMaxSpanAttributes());
+        assertEquals(100, config.getMaxAttributeValueLength());
+        assertEquals(20, config.getMaxSpanEvents());
+        assertEquals(0, config.getMaxSpanLinks());
+        assertEquals(3, config.getStackTraceTopFrames());
+        assertEquals(2, config.getStackTraceBottomFrames());
+        assertEquals("screen", config.getScreenNameMapping().apply(Object.class));
+        assertEquals(1, config.getAdditionalEndpoints().size());
+        assertEquals("http://other-beacon", config.getAdditionalEndpoints().get(0).endpoint);
         assertEquals(expectedFinalAttributes, config.getGlobalAttributes());
     }
 
@@ -79,6 +131,29 @@ public class ConfigTest {
         assertTrue(config.isCrashReportingEnabled());
         assertTrue(config.isNetworkMonitorEnabled());
         assertTrue(config.isAnrDetectionEnabled());
+        assertFalse(config.isBacklogDeferralEnabled());
+        assertFalse(config.isServerTimingMetricsEnabled());
+        assertFalse(config.isPipelineMetricsReportingEnabled());
+        assertFalse(config.isSelfProfilingEnabled());
+        assertEquals(Duration.ofMillis(2), config.getSelfProfilingFrameBudget());
+        assertFalse(config.isCompactLifecycleEventsEnabled());
+        assertNull(config.getCompactLifecycleEventThreshold());
+        assertFalse(config.isFirstDrawTimingEnabled());
+        assertFalse(config.isFragmentLifecycleAggregationEnabled());
+        assertEquals(Duration.ofMillis(250), config.getFragmentLifecycleOutlierThreshold());
+        assertEquals(Duration.ofMinutes(30), config.getWorkflowTimeout());
+        assertTrue(config.getDebugLogLevels().isEmpty());
+        assertTrue(config.getCoalescedRumEvents().isEmpty());
+        assertEquals(50, config.getBreadcrumbCapacity());
+        assertNull(config.getBreadcrumbBatchInterval());
+        assertEquals(128, config.getMaxSpanAttributes());
+        assertEquals(2048, config.getMaxAttributeValueLength());
+        assertEquals(128, config.getMaxSpanEvents());
+        assertEquals(128, config.getMaxSpanLinks());
+        assertEquals(15, config.getStackTraceTopFrames());
+        assertEquals(5, config.getStackTraceBottomFrames());
+        assertNull(config.getScreenNameMapping());
+        assertTrue(config.getAdditionalEndpoints().isEmpty());
         assertEquals(Attributes.empty(), config.getGlobalAttributes());
     }
 
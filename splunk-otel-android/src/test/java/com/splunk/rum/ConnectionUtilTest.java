@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -26,12 +27,14 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.net.ConnectivityManager;
 import android.net.ConnectivityManager.NetworkCallback;
 import android.net.Network;
+import android.net.NetworkCapabilities;
 import android.net.NetworkRequest;
 import android.os.Build;
 
@@ -56,7 +59,8 @@ public class ConnectionUtilTest {
 
         when(networkDetector.detectCurrentNetwork())
                 .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null)) //called on init
-                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"));
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"))
+                .thenReturn(new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null));
 
         ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
         connectionUtil.startMonitoring(() -> networkRequest, connectivityManager);
@@ -124,6 +128,39 @@ public class ConnectionUtilTest {
         assertEquals(2, notified.get());
     }
 
+    @Test
+    @Config(maxSdk = Build.VERSION_CODES.LOLLIPOP)
+    public void lollipop_lostNetworkWhileAnotherIsUp() {
+        NetworkRequest networkRequest = mock(NetworkRequest.class);
+        NetworkDetector networkDetector = mock(NetworkDetector.class);
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+
+        when(networkDetector.detectCurrentNetwork())
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null)) //called on init
+                .thenReturn(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"));
+
+        ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
+        connectionUtil.startMonitoring(() -> networkRequest, connectivityManager);
+
+        ArgumentCaptor<NetworkCallback> monitorCaptor = ArgumentCaptor.forClass(NetworkCallback.class);
+        verify(connectivityManager).registerNetworkCallback(eq(networkRequest), monitorCaptor.capture());
+
+        AtomicInteger notified = new AtomicInteger(0);
+        connectionUtil.setInternetStateListener((deviceIsOnline, currentNetwork) -> {
+            notified.incrementAndGet();
+            assertTrue(deviceIsOnline);
+            assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"), currentNetwork);
+        });
+        //the wifi network is lost, but cellular is still up.
+        monitorCaptor.getValue().onLost(null);
+        assertEquals(1, notified.get());
+        assertTrue(connectionUtil.isOnline());
+
+        //without a default network callback, the exporter still polls.
+        assertTrue(connectionUtil.refreshNetworkStatusIfUnmonitored().isOnline());
+        verify(networkDetector, times(3)).detectCurrentNetwork();
+    }
+
     @Test
     public void networkDetectorException() {
         NetworkDetector networkDetector = mock(NetworkDetector.class);
@@ -199,4 +236,80 @@ public class ConnectionUtilTest {
         ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
         connectionUtil.startMonitoring(() -> networkRequest, connectivityManager);
     }
-}
\ No newline at end of file
+
+    @Test
+    @Config(maxSdk = Build.VERSION_CODES.S, minSdk = Build.VERSION_CODES.O)
+    public void capabilitiesChanged() {
+        NetworkDetector networkDetector = mock(NetworkDetector.class);
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+        NetworkCapabilities capabilities = mock(NetworkCapabilities.class);
+
+        when(networkDetector.detectCurrentNetwork()).thenReturn(CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null));
+        when(networkDetector.detectCurrentNetwork(capabilities))
+                .thenReturn(CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null))
+                .thenReturn(CurrentNetwork.of(NetworkState.TRANSPORT_CELLULAR, "LTE"));
+
+        ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
+        connectionUtil.startMonitoring(() -> mock(NetworkRequest.class), connectivityManager);
+
+        ArgumentCaptor<NetworkCallback> monitorCaptor = ArgumentCaptor.forClass(NetworkCallback.class);
+        verify(connectivityManager).registerDefaultNetworkCallback(monitorCaptor.capture());
+
+        AtomicInteger notified = new AtomicInteger(0);
+        connectionUtil.setInternetStateListener((deviceIsOnline, currentNetwork) -> {
+            notified.incrementAndGet();
+            assertTrue(deviceIsOnline);
+            assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"), currentNetwork);
+        });
+
+        //unchanged network, so no notification
+        monitorCaptor.getValue().onCapabilitiesChanged(mock(Network.class), capabilities);
+        assertEquals(0, notified.get());
+
+        monitorCaptor.getValue().onCapabilitiesChanged(mock(Network.class), capabilities);
+        assertEquals(1, notified.get());
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"), connectionUtil.getActiveNetwork());
+    }
+
+    @Test
+    @Config(maxSdk = Build.VERSION_CODES.S, minSdk = Build.VERSION_CODES.O)
+    public void refreshIfUnmonitored_usesCallbackState() {
+        NetworkDetector networkDetector = mock(NetworkDetector.class);
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+
+        when(networkDetector.detectCurrentNetwork()).thenReturn(CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null));
+
+        ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
+        connectionUtil.startMonitoring(() -> mock(NetworkRequest.class), connectivityManager);
+
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null), connectionUtil.refreshNetworkStatusIfUnmonitored());
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null), connectionUtil.refreshNetworkStatusIfUnmonitored());
+        //only the initial detection on startup
+        verify(networkDetector, times(1)).detectCurrentNetwork();
+    }
+
+    @Test
+    @Config(maxSdk = Build.VERSION_CODES.S, minSdk = Build.VERSION_CODES.O)
+    public void refreshIfUnmonitored_pollsWhenCallbackRegistrationFails() {
+        NetworkDetector networkDetector = mock(NetworkDetector.class);
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+
+        when(networkDetector.detectCurrentNetwork())
+                .thenReturn(CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null))
+                .thenReturn(CurrentNetwork.of(NetworkState.NO_NETWORK_AVAILABLE, null));
+        doThrow(new SecurityException("bug"))
+                .when(connectivityManager).registerDefaultNetworkCallback(isA(NetworkCallback.class));
+
+        ConnectionUtil connectionUtil = new ConnectionUtil(networkDetector);
+        connectionUtil.startMonitoring(() -> mock(NetworkRequest.class), connectivityManager);
+
+        assertFalse(connectionUtil.refreshNetworkStatusIfUnmonitored().isOnline());
+        verify(networkDetector, times(2)).detectCurrentNetwork();
+    }
+
+    @Test
+    public void currentNetworkInstancesAreCached() {
+        assertSame(CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null), CurrentNetwork.of(NetworkState.TRANSPORT_WIFI, null));
+        assertSame(CurrentNetwork.of(NetworkState.TRANSPORT_CELLULAR, "LTE"), CurrentNetwork.of(NetworkState.TRANSPORT_CELLULAR, new String("LTE")));
+    }
+}
@@ -52,7 +52,7 @@ public class CrashReporterTest {
     public void crashReportingSpan() {
         TestDelegateHandler existingHandler = new TestDelegateHandler();
         SdkTracerProvider sdkTracerProvider = mock(SdkTracerProvider.class);
-        CrashReporter.CrashReportingExceptionHandler crashReporter = new CrashReporter.CrashReportingExceptionHandler(tracer, sdkTracerProvider, existingHandler);
+        CrashReporter.CrashReportingExceptionHandler crashReporter = new CrashReporter.CrashReportingExceptionHandler(tracer, sdkTracerProvider, existingHandler, new BreadcrumbBuffer(0, 0), new StackTraceTruncator(0, 0, 0));
 
         NullPointerException oopsie = new NullPointerException("oopsie");
         Thread crashThread = new Thread("badThread");
@@ -31,10 +31,22 @@ import zipkin2.internal.WriteBuffer;
  * <p>
  * We do this by having the {@link RumAttributeAppender} add an additional attribute ({@link RumAttributeAppender#SPLUNK_OPERATION_KEY})
  * with the span name properly cased, then correcting the span name here at encoding time.
+ * <p>
+ * No longer used by the library, which encodes with the {@link SpanDataZipkinEncoder}; kept as the
+ * reference that its output is compared against.
  */
 class CustomZipkinEncoder implements BytesEncoder<Span> {
 
     private final WriteBuffer.Writer<Span> writer = new V2SpanWriter();
+    private final PipelineMetrics metrics;
+
+    CustomZipkinEncoder() {
+        this(new PipelineMetrics());
+    }
+
+    CustomZipkinEncoder(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
 
     @Override
     public Encoding encoding() {
@@ -48,6 +60,13 @@ class CustomZipkinEncoder implements BytesEncoder<Span> {
 
     @Override
     public byte[] encode(Span span) {
+        long startNanos = System.nanoTime();
+        byte[] result = encodeWithProperName(span);
+        metrics.getEncodeTime().record(System.nanoTime() - startNanos);
+        return result;
+    }
+
+    private byte[] encodeWithProperName(Span span) {
         String properSpanName = span.tags().get(RumAttributeAppender.SPLUNK_OPERATION_KEY.getKey());
 
         //note: this can be optimized, if necessary. Let's keep it simple for now.
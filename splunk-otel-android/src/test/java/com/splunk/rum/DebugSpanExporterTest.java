@@ -0,0 +1,99 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static java.util.Arrays.asList;
+
+import android.util.Log;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+
+public class DebugSpanExporterTest {
+    private final List<Integer> priorities = new ArrayList<>();
+    private final List<String> messages = new ArrayList<>();
+
+    @Test
+    public void logsAtComponentPriority() {
+        Map<String, Integer> logLevels = new HashMap<>();
+        logLevels.put("http", Log.WARN);
+        DebugSpanExporter exporter = new TestExporter(logLevels, Log.INFO);
+
+        assertTrue(exporter.export(asList(span("click", "ui"), span("GET", "http"), span("custom", null))).isSuccess());
+
+        assertEquals(asList(Log.INFO, Log.WARN, Log.INFO), priorities);
+        assertTrue(messages.get(1).startsWith("'GET' : "));
+    }
+
+    @Test
+    public void skipsPrioritiesThatAreNotLoggable() {
+        Map<String, Integer> logLevels = new HashMap<>();
+        logLevels.put("ui", Log.DEBUG);
+        DebugSpanExporter exporter = new TestExporter(logLevels, Log.INFO);
+
+        exporter.export(asList(span("click", "ui"), span("GET", "http")));
+
+        assertEquals(1, messages.size());
+        assertTrue(messages.get(0).startsWith("'GET' : "));
+    }
+
+    private class TestExporter extends DebugSpanExporter {
+        private final int minimumPriority;
+
+        TestExporter(Map<String, Integer> logLevels, int minimumPriority) {
+            super(logLevels);
+            this.minimumPriority = minimumPriority;
+        }
+
+        @Override
+        boolean isLoggable(int priority) {
+            return priority >= minimumPriority;
+        }
+
+        @Override
+        void log(int priority, String message) {
+            priorities.add(priority);
+            messages.add(message);
+        }
+    }
+
+    private static SpanData span(String name, String component) {
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(0)
+                .setEndEpochNanos(123)
+                .setInstrumentationLibraryInfo(InstrumentationLibraryInfo.create("SplunkRum", null))
+                .setAttributes(component == null ? Attributes.empty() : Attributes.of(SplunkRum.COMPONENT_KEY, component))
+                .build();
+    }
+}
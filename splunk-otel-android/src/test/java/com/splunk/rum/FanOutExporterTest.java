@@ -0,0 +1,88 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+public class FanOutExporterTest {
+    private final SpanExporter fast = mock(SpanExporter.class);
+    private final SpanExporter slow = mock(SpanExporter.class);
+    private final PipelineMetrics slowMetrics = new PipelineMetrics();
+    private final CountDownLatch slowExportReleased = new CountDownLatch(1);
+
+    @Test
+    public void slowDestinationDoesNotHoldUpOthers() throws Exception {
+        List<SpanData> spans = asList(mock(SpanData.class), mock(SpanData.class));
+        FanOutExporter exporter = createExporter(2);
+
+        assertTrue(exporter.export(spans).isSuccess());
+        verify(fast, timeout(1000)).export(spans);
+
+        slowExportReleased.countDown();
+        verify(slow, timeout(1000)).export(spans);
+        assertTrue(exporter.shutdown().join(1, TimeUnit.SECONDS).isSuccess());
+    }
+
+    @Test
+    public void fullQueueDropsBatches() throws Exception {
+        FanOutExporter exporter = createExporter(1);
+
+        //the first batch is being exported, the second one is queued, the third one doesn't fit.
+        exporter.export(singletonList(mock(SpanData.class)));
+        verify(slow, timeout(1000)).export(any());
+        exporter.export(singletonList(mock(SpanData.class)));
+        exporter.export(asList(mock(SpanData.class), mock(SpanData.class)));
+
+        assertEquals(2, slowMetrics.getSpansEvicted());
+        slowExportReleased.countDown();
+        assertTrue(exporter.flush().join(1, TimeUnit.SECONDS).isSuccess());
+        verify(fast, timeout(1000).times(3)).export(any());
+    }
+
+    private FanOutExporter createExporter(int slowMaxQueuedBatches) {
+        when(fast.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+        when(slow.export(any())).thenAnswer(invocation -> {
+            slowExportReleased.await(5, TimeUnit.SECONDS);
+            return CompletableResultCode.ofSuccess();
+        });
+        when(fast.flush()).thenReturn(CompletableResultCode.ofSuccess());
+        when(slow.flush()).thenReturn(CompletableResultCode.ofSuccess());
+        when(fast.shutdown()).thenReturn(CompletableResultCode.ofSuccess());
+        when(slow.shutdown()).thenReturn(CompletableResultCode.ofSuccess());
+        return new FanOutExporter(asList(
+                new FanOutExporter.Destination("fast", fast, new PipelineMetrics(), 10),
+                new FanOutExporter.Destination("slow", slow, slowMetrics, slowMaxQueuedBatches)));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static java.util.Arrays.asList;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class FragmentLifecycleAggregatorTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+    private Tracer tracer;
+
+    private final FragmentLifecycleAggregator aggregator = new FragmentLifecycleAggregator(true, Duration.ofMillis(100));
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+    }
+
+    @Test
+    public void histogramPerScreenAndTransition() {
+        assertFalse(aggregator.record("ListFragment", "Created", millis(3)));
+        assertFalse(aggregator.record("ListFragment", "Created", millis(30)));
+        assertTrue(aggregator.record("ListFragment", "Created", millis(2000)));
+        assertFalse(aggregator.record("ListFragment", "Paused", millis(1)));
+        assertFalse(aggregator.record("DetailFragment", "Created", millis(100)));
+
+        aggregator.report(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        SpanData list = summary(spans, "ListFragment");
+        assertEquals(FragmentLifecycleAggregator.SUMMARY_SPAN_NAME, list.getName());
+        assertEquals(SplunkRum.COMPONENT_UI, list.getAttributes().get(SplunkRum.COMPONENT_KEY));
+        assertEquals(asList(1L, 5L, 10L, 25L, 50L, 100L, 250L, 500L, 1000L), list.getAttributes().get(FragmentLifecycleAggregator.BUCKET_BOUNDS_KEY));
+        assertTrue(list.getEvents().isEmpty());
+
+        Attributes listAttributes = list.getAttributes();
+        assertEquals(3, (long) listAttributes.get(FragmentLifecycleAggregator.countKey("Created")));
+        assertEquals(2033, (long) listAttributes.get(FragmentLifecycleAggregator.totalDurationKey("Created")));
+        assertEquals(2000, (long) listAttributes.get(FragmentLifecycleAggregator.maxDurationKey("Created")));
+        assertEquals(asList(0L, 1L, 0L, 0L, 1L, 0L, 0L, 0L, 0L, 1L), listAttributes.get(FragmentLifecycleAggregator.bucketCountsKey("Created")));
+        assertEquals(asList(1L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L), listAttributes.get(FragmentLifecycleAggregator.bucketCountsKey("Paused")));
+        assertNull(listAttributes.get(FragmentLifecycleAggregator.countKey("Resumed")));
+
+        Attributes detailAttributes = summary(spans, "DetailFragment").getAttributes();
+        assertEquals(asList(0L, 0L, 0L, 0L, 0L, 1L, 0L, 0L, 0L, 0L), detailAttributes.get(FragmentLifecycleAggregator.bucketCountsKey("Created")));
+        assertNull(detailAttributes.get(FragmentLifecycleAggregator.countKey("Paused")));
+    }
+
+    @Test
+    public void histogramsSurviveZipkinEncoding() {
+        aggregator.record("ListFragment", "Created", millis(3));
+        aggregator.record("ListFragment", "Created", millis(30));
+        aggregator.record("ListFragment", "ViewDestroyed", millis(7));
+
+        aggregator.report(tracer);
+
+        String json = new String(new SpanDataZipkinEncoder(new PipelineMetrics()).encode(otelTesting.getSpans().get(0)), StandardCharsets.UTF_8);
+        assertTrue(json, json.contains("\"screen.name\":\"ListFragment\""));
+        assertTrue(json, json.contains("\"fragment.created.count\":\"2\""));
+        assertTrue(json, json.contains("\"fragment.created.total_ms\":\"33\""));
+        assertTrue(json, json.contains("\"fragment.created.max_ms\":\"30\""));
+        assertTrue(json, json.contains("\"fragment.created.buckets\":\"0,1,0,0,1,0,0,0,0,0\""));
+        assertTrue(json, json.contains("\"fragment.view_destroyed.buckets\":\"0,0,1,0,0,0,0,0,0,0\""));
+        assertTrue(json, json.contains("\"fragment.transition.bucket_bounds_ms\":\"1,5,10,25,50,100,250,500,1000\""));
+    }
+
+    @Test
+    public void startsOverAfterReport() {
+        aggregator.record("ListFragment", "Resumed", millis(1));
+        aggregator.report(tracer);
+        //nothing new to report.
+        aggregator.report(tracer);
+        aggregator.record("ListFragment", "Resumed", millis(1));
+        aggregator.report(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals(1, (long) spans.get(1).getAttributes().get(FragmentLifecycleAggregator.countKey("Resumed")));
+    }
+
+    @Test
+    public void unknownTransitionsAreOutliers() {
+        assertTrue(aggregator.record("ListFragment", "Unknown", millis(1)));
+
+        aggregator.report(tracer);
+
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+
+    private static SpanData summary(List<SpanData> spans, String screenName) {
+        for (SpanData span : spans) {
+            if (screenName.equals(span.getAttributes().get(SplunkRum.SCREEN_NAME_KEY))) {
+                return span;
+            }
+        }
+        throw new AssertionError("No summary for " + screenName);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -17,10 +17,15 @@
 package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.os.Handler;
+
 import androidx.fragment.app.Fragment;
 
 import org.junit.Before;
@@ -29,6 +34,7 @@ import org.junit.Test;
 
 import java.util.List;
 
+import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -38,6 +44,23 @@ public class FragmentTracerTest {
     public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
     private Tracer tracer;
     private final VisibleScreenTracker visibleScreenTracker = mock(VisibleScreenTracker.class);
+    private final Handler handler = mock(Handler.class);
+    private FirstDrawCallback firstDrawCallback;
+    private final ScreenDrawTimer drawTimer = new ScreenDrawTimer(true, null) {
+        @Override
+        FirstDrawCallback newFirstDrawCallback(Runnable onFirstDraw) {
+            firstDrawCallback = new FirstDrawCallback(handler, onFirstDraw) {
+                @Override
+                void postFrameCallback() {
+                }
+
+                @Override
+                void removeFrameCallback() {
+                }
+            };
+            return firstDrawCallback;
+        }
+    };
 
     @Before
     public void setup() {
@@ -96,6 +119,42 @@ public class FragmentTracerTest {
         assertEquals("previousScreen", span.getAttributes().get(SplunkRum.LAST_SCREEN_NAME_KEY));
     }
 
+    @Test
+    public void resumedSpanEndsAfterFirstDraw() {
+        FragmentTracer fragmentTracer = new FragmentTracer(mock(Fragment.class), tracer, visibleScreenTracker);
+
+        fragmentTracer.startSpanIfNoneInProgress("Resumed");
+        fragmentTracer.endSpanForFragmentResumedAfterFirstDraw(drawTimer);
+        assertTrue(otelTesting.getSpans().isEmpty());
+        assertFalse(Span.current().getSpanContext().isValid());
+
+        firstDrawCallback.doFrame(0);
+        verify(handler).postAtFrontOfQueue(firstDrawCallback);
+        assertTrue(otelTesting.getSpans().isEmpty());
+
+        firstDrawCallback.run();
+        assertEquals("Resumed", getSingleSpan().getName());
+    }
+
+    @Test
+    public void resumedSpanEndsWhenPausedBeforeFirstDraw() {
+        FragmentTracer fragmentTracer = new FragmentTracer(mock(Fragment.class), tracer, visibleScreenTracker);
+
+        fragmentTracer.startSpanIfNoneInProgress("Resumed");
+        fragmentTracer.endSpanForFragmentResumedAfterFirstDraw(drawTimer);
+        fragmentTracer.startSpanIfNoneInProgress("Paused");
+        verify(handler).removeCallbacks(firstDrawCallback);
+        fragmentTracer.endActiveSpan();
+
+        //a late frame doesn't end anything else.
+        firstDrawCallback.run();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("Resumed", spans.get(0).getName());
+        assertEquals("Paused", spans.get(1).getName());
+    }
+
     private SpanData getSingleSpan() {
         List<SpanData> generatedSpans = otelTesting.getSpans();
         assertEquals(1, generatedSpans.size());
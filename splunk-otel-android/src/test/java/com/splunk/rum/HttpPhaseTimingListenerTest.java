@@ -0,0 +1,155 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class HttpPhaseTimingListenerTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final Call call = mock(Call.class);
+    private final Clock clock = mock(Clock.class);
+    private final EventListener delegate = mock(EventListener.class);
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+    }
+
+    @Test
+    public void newConnection() {
+        InetSocketAddress address = InetSocketAddress.createUnresolved("localhost", 443);
+        Response response = mock(Response.class);
+        EventListener listener = new HttpPhaseTimingListener.Factory(c -> delegate, clock).create(call);
+
+        Span span = tracer.spanBuilder("http").startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            at(1);
+            listener.callStart(call);
+            listener.dnsStart(call, "localhost");
+            at(11);
+            listener.dnsEnd(call, "localhost", Collections.emptyList());
+            listener.connectStart(call, address, Proxy.NO_PROXY);
+            at(21);
+            listener.secureConnectStart(call);
+            at(51);
+            listener.secureConnectEnd(call, null);
+            listener.connectEnd(call, address, Proxy.NO_PROXY, Protocol.HTTP_2);
+            listener.connectionAcquired(call, mock(Connection.class));
+            at(52);
+            listener.requestHeadersStart(call);
+            at(54);
+            listener.requestHeadersEnd(call, mock(Request.class));
+            at(154);
+            listener.responseHeadersStart(call);
+            at(155);
+            listener.responseHeadersEnd(call, response);
+        } finally {
+            span.end();
+        }
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        Attributes attributes = spans.get(0).getAttributes();
+        assertEquals(10, (long) attributes.get(HttpPhaseTimingListener.DNS_DURATION_KEY));
+        assertEquals(40, (long) attributes.get(HttpPhaseTimingListener.CONNECT_DURATION_KEY));
+        assertEquals(30, (long) attributes.get(HttpPhaseTimingListener.TLS_DURATION_KEY));
+        assertEquals(2, (long) attributes.get(HttpPhaseTimingListener.REQUEST_DURATION_KEY));
+        assertEquals(100, (long) attributes.get(HttpPhaseTimingListener.SERVER_DURATION_KEY));
+        assertEquals(1, (long) attributes.get(HttpPhaseTimingListener.RESPONSE_HEADERS_DURATION_KEY));
+        assertFalse(attributes.get(HttpPhaseTimingListener.CONNECTION_REUSED_KEY));
+
+        verify(delegate).dnsStart(call, "localhost");
+        verify(delegate).responseHeadersEnd(call, response);
+    }
+
+    @Test
+    public void reusedConnection() {
+        EventListener listener = new HttpPhaseTimingListener.Factory(c -> delegate, clock).create(call);
+
+        Span span = tracer.spanBuilder("http").startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            at(1);
+            listener.connectionAcquired(call, mock(Connection.class));
+            listener.requestHeadersStart(call);
+            at(2);
+            listener.requestHeadersEnd(call, mock(Request.class));
+            listener.requestBodyStart(call);
+            at(5);
+            listener.requestBodyEnd(call, 1000);
+            at(25);
+            listener.responseHeadersStart(call);
+            listener.responseHeadersEnd(call, mock(Response.class));
+        } finally {
+            span.end();
+        }
+
+        Attributes attributes = otelTesting.getSpans().get(0).getAttributes();
+        assertNull(attributes.get(HttpPhaseTimingListener.DNS_DURATION_KEY));
+        assertNull(attributes.get(HttpPhaseTimingListener.CONNECT_DURATION_KEY));
+        assertNull(attributes.get(HttpPhaseTimingListener.TLS_DURATION_KEY));
+        assertEquals(4, (long) attributes.get(HttpPhaseTimingListener.REQUEST_DURATION_KEY));
+        assertEquals(20, (long) attributes.get(HttpPhaseTimingListener.SERVER_DURATION_KEY));
+        assertTrue(attributes.get(HttpPhaseTimingListener.CONNECTION_REUSED_KEY));
+    }
+
+    @Test
+    public void noSpan() {
+        EventListener listener = new HttpPhaseTimingListener.Factory(c -> delegate, clock).create(call);
+        at(1);
+        listener.requestHeadersStart(call);
+        listener.responseHeadersEnd(call, mock(Response.class));
+
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+
+    private void at(long millis) {
+        when(clock.nanoTime()).thenReturn(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
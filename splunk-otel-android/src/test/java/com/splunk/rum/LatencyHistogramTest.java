@@ -0,0 +1,50 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void recordsIntoBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram(10, 100);
+
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(11);
+        histogram.record(1_000);
+
+        assertEquals(4, histogram.getCount());
+        assertEquals(1_026, histogram.getTotalNanos());
+        assertArrayEquals(new long[]{2, 1, 1}, histogram.getBucketCounts());
+    }
+
+    @Test
+    public void boundsAreCopied() {
+        LatencyHistogram histogram = new LatencyHistogram(10, 100);
+
+        histogram.getBucketUpperBoundsNanos()[0] = 1_000;
+        histogram.record(50);
+
+        assertArrayEquals(new long[]{10, 100}, histogram.getBucketUpperBoundsNanos());
+        assertArrayEquals(new long[]{0, 1, 0}, histogram.getBucketCounts());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class LifecycleEventRecorderTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final Clock clock = mock(Clock.class);
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+    }
+
+    @Test
+    public void direct() {
+        LifecycleEventRecorder recorder = LifecycleEventRecorder.direct();
+
+        Span span = tracer.spanBuilder("span").startSpan();
+        recorder.record(span, "one");
+        recorder.record(span, "two");
+        recorder.flush(span);
+        span.end();
+
+        SpanData spanData = otelTesting.getSpans().get(0);
+        assertEquals(2, spanData.getEvents().size());
+        assertEquals(0, spanData.getAttributes().size());
+    }
+
+    @Test
+    public void encodedAttribute() {
+        LifecycleEventRecorder recorder = LifecycleEventRecorder.compact(null, clock);
+
+        Span span = tracer.spanBuilder("span").startSpan();
+        recordAt(recorder, span, "one", 1_000_000);
+        recordAt(recorder, span, "two", 1_250_000);
+        recordAt(recorder, span, "three", 3_000_000);
+        recorder.flush(span);
+        span.end();
+
+        SpanData spanData = otelTesting.getSpans().get(0);
+        assertTrue(spanData.getEvents().isEmpty());
+        assertEquals("one:0,two:250,three:2000", spanData.getAttributes().get(LifecycleEventRecorder.LIFECYCLE_EVENTS_KEY));
+    }
+
+    @Test
+    public void reusedForTheNextSpan() {
+        LifecycleEventRecorder recorder = LifecycleEventRecorder.compact(null, clock);
+
+        Span first = tracer.spanBuilder("first").startSpan();
+        for (int i = 0; i < 20; i++) {
+            recordAt(recorder, first, "event", i * 1000);
+        }
+        recorder.flush(first);
+        first.end();
+
+        Span second = tracer.spanBuilder("second").startSpan();
+        recordAt(recorder, second, "other", 50_000);
+        recorder.flush(second);
+        second.end();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(20, spans.get(0).getAttributes().get(LifecycleEventRecorder.LIFECYCLE_EVENTS_KEY).split(",").length);
+        assertEquals("other:0", spans.get(1).getAttributes().get(LifecycleEventRecorder.LIFECYCLE_EVENTS_KEY));
+    }
+
+    @Test
+    public void onlyEventsAboveThreshold() {
+        LifecycleEventRecorder recorder = LifecycleEventRecorder.compact(Duration.ofMillis(1), clock);
+
+        Span span = tracer.spanBuilder("span").startSpan();
+        recordAt(recorder, span, "one", 1_000_000);
+        recordAt(recorder, span, "fast", 1_100_000);
+        recordAt(recorder, span, "slow", 5_000_000);
+        when(clock.now()).thenReturn(TimeUnit.SECONDS.toNanos(100));
+        when(clock.nanoTime()).thenReturn(6_000_000L);
+        recorder.flush(span);
+        span.end();
+
+        SpanData spanData = otelTesting.getSpans().get(0);
+        assertEquals(0, spanData.getAttributes().size());
+        List<EventData> events = spanData.getEvents();
+        assertEquals(1, events.size());
+        assertEquals("slow", events.get(0).getName());
+        assertEquals(TimeUnit.SECONDS.toNanos(100) - 1_000_000, events.get(0).getEpochNanos());
+    }
+
+    private void recordAt(LifecycleEventRecorder recorder, Span span, String eventName, long nanoTime) {
+        when(clock.nanoTime()).thenReturn(nanoTime);
+        recorder.record(span, eventName);
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.splunk.rum;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
@@ -34,6 +35,7 @@ public class NoOpSplunkRumTest {
     public void doesNotThrow() {
         NoOpSplunkRum instance = NoOpSplunkRum.INSTANCE;
         instance.addRumEvent("foo", Attributes.empty());
+        instance.addBreadcrumb("foo");
         instance.addRumException(new RuntimeException(), Attributes.empty());
 
         assertNotNull(instance.createOkHttpRumInterceptor());
@@ -41,6 +43,7 @@ public class NoOpSplunkRumTest {
         assertNotNull(instance.getRumSessionId());
         assertNotNull(instance.getTracer());
         assertNotNull(instance.startWorkflow("foo"));
+        assertEquals(0, instance.getAbandonedWorkflowCount());
         OkHttpClient okHttpClient = mock(OkHttpClient.class);
         assertSame(okHttpClient, instance.createRumOkHttpCallFactory(okHttpClient));
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+
+public class PipelineMetricsReporterTest {
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private Tracer tracer;
+    private PipelineMetricsReporter reporter;
+
+    @Before
+    public void setUp() {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(metrics.spanCounter())
+                .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+                .build();
+        tracer = tracerProvider.get("test");
+        reporter = new PipelineMetricsReporter(metrics, tracer);
+    }
+
+    @Test
+    public void reportsChangesSinceLastReport() {
+        createSpans(3);
+        metrics.recordThrottled(1);
+        metrics.recordExported(2);
+        metrics.getExportTime().record(20_000_000);
+
+        reporter.run();
+
+        createSpans(2);
+        metrics.recordExported(3);
+        metrics.getEncodeTime().record(30_000);
+
+        reporter.run();
+
+        List<SpanData> reports = reports();
+        assertEquals(2, reports.size());
+
+        Attributes first = reports.get(0).getAttributes();
+        assertEquals(3, (long) first.get(PipelineMetricsReporter.SPANS_CREATED_KEY));
+        assertEquals(1, (long) first.get(PipelineMetricsReporter.SPANS_THROTTLED_KEY));
+        assertEquals(2, (long) first.get(PipelineMetricsReporter.SPANS_EXPORTED_KEY));
+        assertEquals(0, (long) first.get(PipelineMetricsReporter.SPANS_FAILED_KEY));
+        assertEquals(1, (long) first.get(PipelineMetricsReporter.EXPORT_COUNT_KEY));
+        assertEquals(20, (long) first.get(PipelineMetricsReporter.EXPORT_TIME_KEY));
+
+        Attributes second = reports.get(1).getAttributes();
+        //the first report span isn't counted.
+        assertEquals(2, (long) second.get(PipelineMetricsReporter.SPANS_CREATED_KEY));
+        assertEquals(0, (long) second.get(PipelineMetricsReporter.SPANS_THROTTLED_KEY));
+        assertEquals(3, (long) second.get(PipelineMetricsReporter.SPANS_EXPORTED_KEY));
+        assertEquals(1, (long) second.get(PipelineMetricsReporter.ENCODE_COUNT_KEY));
+        assertEquals(30, (long) second.get(PipelineMetricsReporter.ENCODE_TIME_KEY));
+        assertEquals(0, (long) second.get(PipelineMetricsReporter.EXPORT_COUNT_KEY));
+    }
+
+    @Test
+    public void noReportWithoutNewSpans() {
+        reporter.run();
+        assertTrue(reports().isEmpty());
+
+        createSpans(1);
+        reporter.run();
+        reporter.run();
+
+        assertEquals(1, reports().size());
+    }
+
+    private void createSpans(int count) {
+        for (int i = 0; i < count; i++) {
+            tracer.spanBuilder("span").startSpan().end();
+        }
+    }
+
+    private List<SpanData> reports() {
+        return spanExporter.getFinishedSpanItems().stream()
+                .filter(span -> span.getName().equals(PipelineMetricsReporter.SPAN_NAME))
+                .collect(Collectors.toList());
+    }
+}
@@ -17,7 +17,11 @@
 package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.Context;
@@ -66,7 +70,7 @@ public class PostApi29NetworkDetectorTest {
 
         PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
         CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
-        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null), currentNetwork);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null, 0, 0, true, false), currentNetwork);
     }
 
     @Test
@@ -85,7 +89,7 @@ public class PostApi29NetworkDetectorTest {
 
         PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
         CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
-        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"), currentNetwork);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE", 0, 0, true, false), currentNetwork);
     }
 
     @Test
@@ -109,7 +113,7 @@ public class PostApi29NetworkDetectorTest {
             }
         };
         CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
-        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, null), currentNetwork);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, null, 0, 0, true, false), currentNetwork);
     }
 
     @Test
@@ -125,7 +129,7 @@ public class PostApi29NetworkDetectorTest {
 
         PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
         CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
-        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_UNKNOWN, null), currentNetwork);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_UNKNOWN, null, 0, 0, true, false), currentNetwork);
     }
 
     @Test
@@ -143,6 +147,43 @@ public class PostApi29NetworkDetectorTest {
 
         PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
         CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
-        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_VPN, null), currentNetwork);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_VPN, null, 0, 0, true, false), currentNetwork);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fromPushedCapabilities() {
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+        TelephonyManager telephonyManager = mock(TelephonyManager.class);
+        Context context = mock(Context.class);
+
+        NetworkCapabilities networkCapabilities = mock(NetworkCapabilities.class);
+        when(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)).thenReturn(true);
+
+        PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
+        CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork(networkCapabilities);
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null, 0, 0, true, false), currentNetwork);
+        verify(connectivityManager, never()).getActiveNetwork();
+    }
+
+    @Test
+    public void capabilities() {
+        ConnectivityManager connectivityManager = mock(ConnectivityManager.class);
+        TelephonyManager telephonyManager = mock(TelephonyManager.class);
+        Context context = mock(Context.class);
+
+        NetworkCapabilities networkCapabilities = mock(NetworkCapabilities.class);
+        when(networkCapabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)).thenReturn(true);
+        when(networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED)).thenReturn(true);
+        when(networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_VALIDATED)).thenReturn(true);
+        when(networkCapabilities.getLinkDownstreamBandwidthKbps()).thenReturn(50_000);
+        when(networkCapabilities.getLinkUpstreamBandwidthKbps()).thenReturn(10_000);
+
+        PostApi29NetworkDetector networkDetector = new PostApi29NetworkDetector(connectivityManager, telephonyManager, context);
+        CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork(networkCapabilities);
+        assertEquals(NetworkState.TRANSPORT_WIFI, currentNetwork.getState());
+        assertEquals(50_000, currentNetwork.getDownstreamBandwidthKbps());
+        assertEquals(10_000, currentNetwork.getUpstreamBandwidthKbps());
+        assertFalse(currentNetwork.isMetered());
+        assertTrue(currentNetwork.isValidated());
+    }
+}
@@ -19,8 +19,6 @@ package com.splunk.rum;
 import android.app.Activity;
 import android.os.Bundle;
 
-import static org.mockito.Mockito.mock;
-
 class Pre29ActivityCallbackTestHarness {
 
     private final Pre29ActivityCallbacks callbacks;
@@ -35,7 +33,8 @@ class Pre29ActivityCallbackTestHarness {
     }
 
     void runActivityCreationLifecycle(Activity activity) {
-        Bundle bundle = mock(Bundle.class);
+        //a newly created activity has no saved instance state.
+        Bundle bundle = null;
 
         callbacks.onActivityCreated(activity, bundle);
 
@@ -118,11 +118,13 @@ public class Pre29ActivityLifecycleCallbacksTest {
         verifyNoMoreInteractions(appStateListener);
     }
 
-    private void startupAppAndClearSpans(Pre29ActivityCallbackTestHarness testHarness) {
+    private Activity startupAppAndClearSpans(Pre29ActivityCallbackTestHarness testHarness) {
         //make sure that the initial state has been set up & the application is started.
-        testHarness.runAppStartupLifecycle(mock(Activity.class));
+        Activity activity = mock(Activity.class);
+        testHarness.runAppStartupLifecycle(activity);
         otelTesting.clearSpans();
         verify(appStateListener).appForegrounded();
+        return activity;
     }
 
     @Test
@@ -130,9 +132,8 @@ public class Pre29ActivityLifecycleCallbacksTest {
         Pre29ActivityCallbacks rumLifecycleCallbacks = new Pre29ActivityCallbacks(tracer, visibleScreenTracker, appStartupTimer, singletonList(appStateListener));
         Pre29ActivityCallbackTestHarness testHarness = new Pre29ActivityCallbackTestHarness(rumLifecycleCallbacks);
 
-        startupAppAndClearSpans(testHarness);
-
-        Activity activity = mock(Activity.class);
+        //the same activity instance that was started comes back.
+        Activity activity = startupAppAndClearSpans(testHarness);
         testHarness.runActivityRestartedLifecycle(activity);
 
         List<SpanData> spans = otelTesting.getSpans();
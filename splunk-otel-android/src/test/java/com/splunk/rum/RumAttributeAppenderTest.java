@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static io.opentelemetry.api.common.AttributeKey.longKey;
 import static io.opentelemetry.api.common.AttributeKey.stringKey;
@@ -30,7 +31,11 @@ import static io.opentelemetry.api.common.AttributeKey.stringKey;
 import org.junit.Before;
 import org.junit.Test;
 
+import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.sdk.trace.ReadWriteSpan;
 import io.opentelemetry.semconv.resource.attributes.ResourceAttributes;
@@ -73,13 +78,13 @@ public class RumAttributeAppenderTest {
 
         RumAttributeAppender rumAttributeAppender = new RumAttributeAppender(config, new SessionId(), "version", visibleScreenTracker, connectionUtil);
 
-        ReadWriteSpan span = mock(ReadWriteSpan.class);
+        ReadWriteSpan span = span(TraceFlags.getSampled());
         rumAttributeAppender.onStart(Context.current(), span);
         verify(span).setAllAttributes(initialAttributes);
 
         config.updateGlobalAttributes(attributesBuilder -> attributesBuilder.put("cheese", "cheddar"));
 
-        span = mock(ReadWriteSpan.class);
+        span = span(TraceFlags.getSampled());
         rumAttributeAppender.onStart(Context.current(), span);
 
         Attributes updatedAttributes = Attributes.of(stringKey("cheese"), "cheddar", longKey("size"), 5L);
@@ -100,7 +105,7 @@ public class RumAttributeAppenderTest {
         when(sessionId.getSessionId()).thenReturn("rumSessionId");
         when(visibleScreenTracker.getCurrentlyVisibleScreen()).thenReturn("ScreenOne");
 
-        ReadWriteSpan span = mock(ReadWriteSpan.class);
+        ReadWriteSpan span = span(TraceFlags.getSampled());
 
         RumAttributeAppender rumAttributeAppender = new RumAttributeAppender(config, sessionId, "rumVersion", visibleScreenTracker, connectionUtil);
 
@@ -130,7 +135,7 @@ public class RumAttributeAppenderTest {
         when(sessionId.getSessionId()).thenReturn("rumSessionId");
         when(visibleScreenTracker.getCurrentlyVisibleScreen()).thenReturn("unknown");
 
-        ReadWriteSpan span = mock(ReadWriteSpan.class);
+        ReadWriteSpan span = span(TraceFlags.getSampled());
 
         RumAttributeAppender rumAttributeAppender = new RumAttributeAppender(config, sessionId, "rumVersion", visibleScreenTracker, connectionUtil);
 
@@ -138,4 +143,23 @@ public class RumAttributeAppenderTest {
         verify(span).setAttribute(SplunkRum.SCREEN_NAME_KEY, "unknown");
         verify(span, never()).setAttribute(eq(SplunkRum.LAST_SCREEN_NAME_KEY), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void skipUnsampledSpans() {
+        Config config = mock(Config.class);
+        SessionId sessionId = mock(SessionId.class);
+        ReadWriteSpan span = span(TraceFlags.getDefault());
+
+        RumAttributeAppender rumAttributeAppender = new RumAttributeAppender(config, sessionId, "rumVersion", visibleScreenTracker, connectionUtil);
+
+        rumAttributeAppender.onStart(Context.current(), span);
+        verify(span, never()).setAttribute(any(AttributeKey.class), any());
+        verifyNoInteractions(config, sessionId, visibleScreenTracker, connectionUtil);
+    }
+
+    private static ReadWriteSpan span(TraceFlags traceFlags) {
+        ReadWriteSpan span = mock(ReadWriteSpan.class);
+        when(span.getSpanContext()).thenReturn(SpanContext.create("00000000000000000000000000000001", "0000000000000001", traceFlags, TraceState.getDefault()));
+        return span;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class RumEventCoalescerTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final Clock clock = mock(Clock.class);
+    private final VisibleScreenTracker visibleScreenTracker = mock(VisibleScreenTracker.class);
+    private Tracer tracer;
+    private RumEventCoalescer coalescer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+        coalescer = new RumEventCoalescer(Collections.singletonMap("scroll", Duration.ofSeconds(5)),
+                tracer, visibleScreenTracker, scheduler, clock);
+    }
+
+    @Test
+    public void sameNameAndAttributesAreMerged() {
+        Attributes list = Attributes.of(stringKey("view"), "list");
+        at(1);
+        assertTrue(coalescer.add("scroll", list));
+        at(2);
+        assertTrue(coalescer.add("scroll", Attributes.of(stringKey("view"), "grid")));
+        at(3);
+        assertTrue(coalescer.add("scroll", Attributes.of(stringKey("view"), "list")));
+        at(4);
+        assertTrue(coalescer.add("scroll", list));
+        assertTrue(otelTesting.getSpans().isEmpty());
+
+        coalescer.flushAll();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        SpanData listScrolls = spans.get(0).getAttributes().get(stringKey("view")).equals("list") ? spans.get(0) : spans.get(1);
+        assertEquals("scroll", listScrolls.getName());
+        assertEquals(3, (long) listScrolls.getAttributes().get(RumEventCoalescer.EVENT_COUNT_KEY));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), listScrolls.getStartEpochNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(4), listScrolls.getEndEpochNanos());
+    }
+
+    @Test
+    public void sentWhenTheWindowHasPassed() {
+        at(1);
+        coalescer.add("scroll", Attributes.empty());
+        coalescer.add("scroll", Attributes.empty());
+
+        //only the first event of a window schedules the span.
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(1)).schedule(flush.capture(), eq(TimeUnit.SECONDS.toNanos(5)), eq(TimeUnit.NANOSECONDS));
+        flush.getValue().run();
+        assertEquals(1, otelTesting.getSpans().size());
+        assertEquals(2, (long) otelTesting.getSpans().get(0).getAttributes().get(RumEventCoalescer.EVENT_COUNT_KEY));
+
+        //the next event starts a new window.
+        coalescer.add("scroll", Attributes.empty());
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(TimeUnit.SECONDS.toNanos(5)), eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void screenAndParentOfTheFirstEvent() {
+        when(visibleScreenTracker.getCurrentlyVisibleScreen()).thenReturn("ListActivity");
+        Span parent = tracer.spanBuilder("parent").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            coalescer.add("scroll", Attributes.empty());
+        }
+        parent.end();
+        when(visibleScreenTracker.getCurrentlyVisibleScreen()).thenReturn("DetailActivity");
+        coalescer.add("scroll", Attributes.empty());
+
+        coalescer.flushAll();
+
+        SpanData scrolls = otelTesting.getSpans().get(1);
+        assertEquals("ListActivity", scrolls.getAttributes().get(SplunkRum.SCREEN_NAME_KEY));
+        assertEquals(parent.getSpanContext().getSpanId(), scrolls.getParentSpanId());
+        assertEquals(parent.getSpanContext().getTraceId(), scrolls.getTraceId());
+    }
+
+    @Test
+    public void scheduledFlushOnlySendsItsOwnWindow() {
+        at(1);
+        coalescer.add("scroll", Attributes.empty());
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), eq(TimeUnit.SECONDS.toNanos(5)), eq(TimeUnit.NANOSECONDS));
+        coalescer.flushAll();
+        at(2);
+        coalescer.add("scroll", Attributes.empty());
+
+        //the first window was already sent, so its flush must not send the second one early.
+        flush.getAllValues().get(0).run();
+        assertEquals(1, otelTesting.getSpans().size());
+
+        coalescer.flushAll();
+        assertEquals(2, otelTesting.getSpans().size());
+        assertEquals(TimeUnit.SECONDS.toNanos(2), otelTesting.getSpans().get(1).getStartEpochNanos());
+    }
+
+    @Test
+    public void otherEventsAreNotCoalesced() {
+        assertFalse(coalescer.add("tap", Attributes.empty()));
+        assertFalse(RumEventCoalescer.disabled().add("scroll", Attributes.empty()));
+
+        coalescer.flushAll();
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+
+    private void at(long seconds) {
+        when(clock.now()).thenReturn(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
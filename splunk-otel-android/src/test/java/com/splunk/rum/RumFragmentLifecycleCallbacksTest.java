@@ -22,6 +22,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static java.util.Arrays.asList;
 
 import androidx.fragment.app.Fragment;
 
@@ -29,10 +30,14 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
 import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
 import io.opentelemetry.sdk.trace.data.EventData;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -278,6 +283,58 @@ public class RumFragmentLifecycleCallbacksTest {
         checkEventExists(events, "fragmentDetached");
     }
 
+    @Test
+    public void aggregatedLifecycle() {
+        //every clock reading is a millisecond after the previous one.
+        AtomicLong nanoTime = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.nanoTime()).thenAnswer(invocation -> nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1)));
+        FragmentLifecycleAggregator aggregator = new FragmentLifecycleAggregator(true, Duration.ofMillis(5), clock);
+        FragmentCallbackTestHarness testHarness = new FragmentCallbackTestHarness(
+                new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker, SelfProfiler.disabled(), aggregator, ScreenDrawTimer.disabled(), ScreenNames.simpleClassNames()));
+
+        Fragment fragment = mock(Fragment.class);
+        testHarness.runFragmentCreationLifecycle(fragment);
+        testHarness.runFragmentDetachedFromActiveLifecycle(fragment);
+        assertTrue(otelTesting.getSpans().isEmpty());
+
+        aggregator.report(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        SpanData summary = spans.get(0);
+        assertEquals(FragmentLifecycleAggregator.SUMMARY_SPAN_NAME, summary.getName());
+        assertEquals(fragment.getClass().getSimpleName(), summary.getAttributes().get(SplunkRum.SCREEN_NAME_KEY));
+        for (String transition : asList("Created", "Paused", "ViewDestroyed", "Destroyed")) {
+            assertEquals(1, (long) summary.getAttributes().get(FragmentLifecycleAggregator.countKey(transition)));
+        }
+        assertNull(summary.getAttributes().get(FragmentLifecycleAggregator.countKey("Resumed")));
+    }
+
+    @Test
+    public void aggregatedLifecycleOutliers() {
+        AtomicLong nanoTime = new AtomicLong();
+        Clock clock = mock(Clock.class);
+        when(clock.nanoTime()).thenAnswer(invocation -> nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(10)));
+        when(clock.now()).thenReturn(TimeUnit.SECONDS.toNanos(1000));
+        FragmentLifecycleAggregator aggregator = new FragmentLifecycleAggregator(true, Duration.ofMillis(5), clock);
+        FragmentCallbackTestHarness testHarness = new FragmentCallbackTestHarness(
+                new RumFragmentLifecycleCallbacks(tracer, visibleScreenTracker, SelfProfiler.disabled(), aggregator, ScreenDrawTimer.disabled(), ScreenNames.simpleClassNames()));
+
+        Fragment fragment = mock(Fragment.class);
+        testHarness.runFragmentPausedLifecycle(fragment);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        SpanData pauseSpan = spans.get(0);
+        assertEquals("Paused", pauseSpan.getName());
+        assertEquals(TimeUnit.SECONDS.toNanos(1000), pauseSpan.getStartEpochNanos());
+        assertEquals(TimeUnit.SECONDS.toNanos(1000) + TimeUnit.MILLISECONDS.toNanos(10), pauseSpan.getEndEpochNanos());
+        assertEquals(fragment.getClass().getSimpleName(), pauseSpan.getAttributes().get(SplunkRum.SCREEN_NAME_KEY));
+        assertEquals(SplunkRum.COMPONENT_UI, pauseSpan.getAttributes().get(SplunkRum.COMPONENT_KEY));
+        assertTrue(pauseSpan.getEvents().isEmpty());
+    }
+
     private void checkEventExists(List<EventData> events, String eventName) {
         Optional<EventData> event = events.stream().filter(e -> e.getName().equals(eventName)).findAny();
         assertTrue("Event with name " + eventName + " not found", event.isPresent());
@@ -44,6 +44,7 @@ import io.opentelemetry.sdk.trace.data.EventData;
 import io.opentelemetry.sdk.trace.data.SpanData;
 import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
+import zipkin2.codec.BytesEncoder;
 
 public class RumInitializerTest {
     @Test
@@ -131,7 +132,7 @@ public class RumInitializerTest {
 
         RumInitializer testInitializer = new RumInitializer(config, application, startupTimer) {
             @Override
-            SpanExporter getCoreSpanExporter(String endpoint) {
+            SpanExporter getCoreSpanExporter(String endpoint, BytesEncoder<SpanData> encoder) {
                 return testExporter;
             }
         };
@@ -140,7 +141,7 @@ public class RumInitializerTest {
 
         CurrentNetwork offline = new CurrentNetwork(NetworkState.NO_NETWORK_AVAILABLE, null);
         CurrentNetwork online = new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null);
-        when(connectionUtil.refreshNetworkStatus()).thenReturn(offline, online);
+        when(connectionUtil.refreshNetworkStatusIfUnmonitored()).thenReturn(offline, online);
 
         long currentTimeNanos = MILLISECONDS.toNanos(System.currentTimeMillis());
 
@@ -21,6 +21,7 @@ import org.junit.Test;
 import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.semconv.trace.attributes.SemanticAttributes;
+import okhttp3.Headers;
 import okhttp3.Protocol;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -28,8 +29,9 @@ import okhttp3.Response;
 import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.HTTP_RESPONSE_CONTENT_LENGTH;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 
@@ -38,7 +40,14 @@ public class RumResponseAttributesExtractorTest {
     @Test
     public void spanDecoration() {
         ServerTimingHeaderParser headerParser = mock(ServerTimingHeaderParser.class);
-        when(headerParser.parse("headerValue")).thenReturn(new String[]{"9499195c502eb217c448a68bfe0f967c", "fe16eca542cd5d86"});
+        doAnswer(invocation -> {
+            Headers headers = invocation.getArgument(0);
+            assertEquals("headerValue", headers.get("Server-Timing"));
+            AttributesBuilder builder = invocation.getArgument(1);
+            builder.put(RumResponseAttributesExtractor.LINK_TRACE_ID_KEY, "9499195c502eb217c448a68bfe0f967c");
+            builder.put(RumResponseAttributesExtractor.LINK_SPAN_ID_KEY, "fe16eca542cd5d86");
+            return null;
+        }).when(headerParser).parse(any(Headers.class), any());
 
         Request fakeRequest = mock(Request.class);
         Response response = new Response.Builder()
@@ -65,7 +74,6 @@ public class RumResponseAttributesExtractorTest {
     @Test
     public void spanDecoration_noLinkingHeader() {
         ServerTimingHeaderParser headerParser = mock(ServerTimingHeaderParser.class);
-        when(headerParser.parse(null)).thenReturn(new String[0]);
 
         Request fakeRequest = mock(Request.class);
         Response response = new Response.Builder()
@@ -86,10 +94,30 @@ public class RumResponseAttributesExtractorTest {
         assertNull(attributes.get(OkHttpRumInterceptor.LINK_SPAN_ID_KEY));
     }
 
+    @Test
+    public void spanDecoration_multipleServerTimingHeaders() {
+        Request fakeRequest = mock(Request.class);
+        Response response = new Response.Builder()
+                .request(fakeRequest)
+                .protocol(Protocol.HTTP_1_1)
+                .message("hello")
+                .code(200)
+                .addHeader("Server-Timing", "db;dur=53")
+                .addHeader("server-timing", "traceparent;desc=\"00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01\"")
+                .build();
+
+        RumResponseAttributesExtractor attributesExtractor = new RumResponseAttributesExtractor(new ServerTimingHeaderParser());
+        AttributesBuilder attributesBuilder = Attributes.builder();
+        attributesExtractor.onEnd(attributesBuilder, fakeRequest, response, null);
+        Attributes attributes = attributesBuilder.build();
+
+        assertEquals("9499195c502eb217c448a68bfe0f967c", attributes.get(RumResponseAttributesExtractor.LINK_TRACE_ID_KEY));
+        assertEquals("fe16eca542cd5d86", attributes.get(RumResponseAttributesExtractor.LINK_SPAN_ID_KEY));
+    }
+
     @Test
     public void spanDecoration_contentLength() {
         ServerTimingHeaderParser headerParser = mock(ServerTimingHeaderParser.class);
-        when(headerParser.parse(null)).thenReturn(new String[0]);
 
         Request fakeRequest = mock(Request.class);
         Response response = new Response.Builder()
@@ -0,0 +1,87 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class ScreenDrawTimerTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final Clock clock = mock(Clock.class);
+    private Tracer tracer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+    }
+
+    @Test
+    public void fullyDrawnSpanStartsAtActivityCreation() {
+        ScreenDrawTimer drawTimer = new ScreenDrawTimer(false, null, clock);
+        when(clock.now()).thenReturn(1_000L);
+        drawTimer.activityCreationStarted("MainActivity");
+        when(clock.now()).thenReturn(5_000L);
+        drawTimer.reportFullyDrawn(tracer);
+        //only the first report is recorded.
+        drawTimer.reportFullyDrawn(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        SpanData span = spans.get(0);
+        assertEquals(ScreenDrawTimer.FULLY_DRAWN_SPAN_NAME, span.getName());
+        assertEquals(1_000L, span.getStartEpochNanos());
+        assertEquals(5_000L, span.getEndEpochNanos());
+        assertEquals("MainActivity", span.getAttributes().get(SplunkRum.SCREEN_NAME_KEY));
+        assertEquals(SplunkRum.COMPONENT_UI, span.getAttributes().get(SplunkRum.COMPONENT_KEY));
+    }
+
+    @Test
+    public void nextActivityCanReportAgain() {
+        ScreenDrawTimer drawTimer = new ScreenDrawTimer(false, null, clock);
+        drawTimer.activityCreationStarted("MainActivity");
+        drawTimer.reportFullyDrawn(tracer);
+        drawTimer.activityCreationStarted("DetailActivity");
+        drawTimer.reportFullyDrawn(tracer);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(2, spans.size());
+        assertEquals("DetailActivity", spans.get(1).getAttributes().get(SplunkRum.SCREEN_NAME_KEY));
+    }
+
+    @Test
+    public void noReportBeforeAnActivityIsCreated() {
+        ScreenDrawTimer drawTimer = new ScreenDrawTimer(false, null, clock);
+        drawTimer.reportFullyDrawn(tracer);
+
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScreenNamesTest {
+
+    @Test
+    public void simpleClassName() {
+        ScreenNames screenNames = ScreenNames.simpleClassNames();
+
+        String name = screenNames.get(new PlainScreen());
+
+        assertEquals("PlainScreen", name);
+        assertSame(name, screenNames.get(new PlainScreen()));
+    }
+
+    @Test
+    public void annotation() {
+        assertEquals("Checkout", ScreenNames.simpleClassNames().get(new AnnotatedScreen()));
+    }
+
+    @Test
+    public void mappingResolvedOncePerClass() {
+        AtomicInteger calls = new AtomicInteger();
+        ScreenNames screenNames = new ScreenNames(screenClass -> {
+            calls.incrementAndGet();
+            return screenClass == PlainScreen.class ? new StringBuilder("Home").toString() : null;
+        });
+
+        String name = screenNames.get(new PlainScreen());
+        assertEquals("Home", name);
+        assertSame(name, screenNames.get(new PlainScreen()));
+        //no mapping, so the annotation is used.
+        assertEquals("Checkout", screenNames.get(AnnotatedScreen.class));
+        assertEquals("Checkout", screenNames.get(AnnotatedScreen.class));
+        assertEquals(2, calls.get());
+    }
+
+    static class PlainScreen {
+    }
+
+    @RumScreenName("Checkout")
+    static class AnnotatedScreen {
+    }
+}
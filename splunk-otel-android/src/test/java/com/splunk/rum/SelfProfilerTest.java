@@ -0,0 +1,99 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.sdk.common.Clock;
+
+public class SelfProfilerTest {
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    public void underBudget() {
+        SelfProfiler profiler = new SelfProfiler(true, Duration.ofMillis(2), clock);
+
+        runCallback(profiler, 0, 1);
+        at(1);
+        assertFalse(profiler.shouldDropEvent());
+
+        assertEquals(1, profiler.getActivityCallbackTime().getCount());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1), profiler.getActivityCallbackTime().getTotalNanos());
+    }
+
+    @Test
+    public void overBudgetUntilNextFrame() {
+        SelfProfiler profiler = new SelfProfiler(true, Duration.ofMillis(2), clock);
+
+        runCallback(profiler, 0, 1);
+        runCallback(profiler, 5, 7);
+        at(8);
+        assertTrue(profiler.shouldDropEvent());
+        assertTrue(profiler.shouldDropEvent());
+
+        //a new frame starts.
+        at(17);
+        assertFalse(profiler.shouldDropEvent());
+        runCallback(profiler, 17, 18);
+        assertFalse(profiler.shouldDropEvent());
+
+        assertEquals(2, profiler.getDroppedEvents());
+    }
+
+    @Test
+    public void nestedCallbacksCountOnce() {
+        SelfProfiler profiler = new SelfProfiler(true, Duration.ofMillis(2), clock);
+
+        at(0);
+        long outerStart = profiler.callbackStarted();
+        runCallback(profiler, 0, 1);
+        at(2);
+        profiler.callbackEnded(profiler.getActivityCallbackTime(), outerStart);
+
+        assertFalse(profiler.shouldDropEvent());
+        assertEquals(2, profiler.getActivityCallbackTime().getCount());
+    }
+
+    @Test
+    public void disabled() {
+        SelfProfiler profiler = new SelfProfiler(false, Duration.ZERO, clock);
+
+        runCallback(profiler, 0, 10);
+        assertFalse(profiler.shouldDropEvent());
+        assertEquals(0, profiler.getDroppedEvents());
+    }
+
+    private void runCallback(SelfProfiler profiler, long startMillis, long endMillis) {
+        at(startMillis);
+        long startNanos = profiler.callbackStarted();
+        at(endMillis);
+        profiler.callbackEnded(profiler.getActivityCallbackTime(), startNanos);
+    }
+
+    private void at(long millis) {
+        when(clock.nanoTime()).thenReturn(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
@@ -16,41 +16,175 @@
 
 package com.splunk.rum;
 
-import static org.junit.Assert.assertArrayEquals;
+import static com.splunk.rum.RumResponseAttributesExtractor.LINK_SPAN_ID_KEY;
+import static com.splunk.rum.RumResponseAttributesExtractor.LINK_TRACE_ID_KEY;
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import okhttp3.Headers;
+
 //the header looks like: traceparent;desc="00-9499195c502eb217c448a68bfe0f967c-fe16eca542cd5d86-01"
 public class ServerTimingHeaderParserTest {
+    private static final String TRACE_ID = "9499195c502eb217c448a68bfe0f967c";
+    private static final String SPAN_ID = "fe16eca542cd5d86";
+    private static final String TRACEPARENT = "traceparent;desc=\"00-" + TRACE_ID + "-" + SPAN_ID + "-01\"";
+
+    //the regex the scanner replaced; headers it accepted (with matching quotes) must still be accepted.
+    private static final Pattern REGEX = Pattern.compile("traceparent;desc=['\"]00-([0-9a-f]{32})-([0-9a-f]{16})-01['\"]");
+
+    private final ServerTimingHeaderParser parser = new ServerTimingHeaderParser();
 
     @Test
     public void badHeader() {
-        ServerTimingHeaderParser parser = new ServerTimingHeaderParser();
-        assertArrayEquals(new String[0], parser.parse(null));
-        assertArrayEquals(new String[0], parser.parse("foo"));
-        assertArrayEquals(new String[0], parser.parse("traceparent;gotcha"));
-        assertArrayEquals(new String[0], parser.parse("traceparent;desc=\"\""));
-        assertArrayEquals(new String[0], parser.parse("traceparent;desc=\"x-\""));
-        assertArrayEquals(new String[0], parser.parse("traceparent;desc=\"-\""));
-        assertArrayEquals(new String[0], parser.parse("traceparent;desc=\"--\""));
-        assertArrayEquals(new String[0], parser.parse("traceparent;desc=\"00-abc-123\""));
+        assertUnparseable(null);
+        assertUnparseable("");
+        assertUnparseable("foo");
+        assertUnparseable("traceparent;gotcha");
+        assertUnparseable("traceparent;desc=\"\"");
+        assertUnparseable("traceparent;desc=\"x-\"");
+        assertUnparseable("traceparent;desc=\"-\"");
+        assertUnparseable("traceparent;desc=\"--\"");
+        assertUnparseable("traceparent;desc=\"00-abc-123\"");
+        assertUnparseable("traceparent;desc=\"00-" + TRACE_ID.toUpperCase() + "-" + SPAN_ID + "-01\"");
+        assertUnparseable("traceparent;desc=\"00-" + TRACE_ID + "-" + SPAN_ID + "-00\"");
+        assertUnparseable("traceparent;desc=\"00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+        assertUnparseable("traceparentx;desc=\"00-" + TRACE_ID + "-" + SPAN_ID + "-01\"");
+        assertUnparseable("traceparent;dur=\"00-" + TRACE_ID + "-" + SPAN_ID + "-01\"");
+        assertUnparseable("db;desc=\"00-" + TRACE_ID + "-" + SPAN_ID + "-01\"");
     }
 
     @Test
     public void parsableHeader() {
-        ServerTimingHeaderParser parser = new ServerTimingHeaderParser();
-        String traceId = "9499195c502eb217c448a68bfe0f967c";
-        String spanId = "fe16eca542cd5d86";
-        assertArrayEquals(new String[]{traceId, spanId},
-                parser.parse("traceparent;desc=\"00-" + traceId + "-" + spanId + "-01\""));
+        assertParsed(TRACEPARENT);
     }
 
     @Test
     public void parsableHeader_singleQuotes() {
-        ServerTimingHeaderParser parser = new ServerTimingHeaderParser();
-        String traceId = "9499195c502eb217c448a68bfe0f967c";
-        String spanId = "fe16eca542cd5d86";
-        assertArrayEquals(new String[]{traceId, spanId},
-                parser.parse("traceparent;desc='00-" + traceId + "-" + spanId + "-01'"));
+        assertParsed("traceparent;desc='00-" + TRACE_ID + "-" + SPAN_ID + "-01'");
+    }
+
+    @Test
+    public void parsableHeader_unquoted() {
+        assertParsed("traceparent;desc=00-" + TRACE_ID + "-" + SPAN_ID + "-01");
+    }
+
+    @Test
+    public void parsableHeader_multipleMetrics() {
+        assertParsed("db;dur=53, " + TRACEPARENT);
+        assertParsed(TRACEPARENT + ", db;dur=53");
+        assertParsed("cache;desc=\"hit, or was it\";dur=0.1,app;dur=47.2 ,  " + TRACEPARENT + ",total;dur=123");
+        assertParsed("traceparent ; dur=1 ; desc = \"00-" + TRACE_ID + "-" + SPAN_ID + "-01\"");
+        assertParsed("missedCache, " + TRACEPARENT);
+        assertParsed("db;desc=\"escaped \\\" quote\"," + TRACEPARENT);
+    }
+
+    @Test
+    public void parsableHeader_malformedEntriesAreSkipped() {
+        assertParsed("db;dur=@@, =;;, " + TRACEPARENT);
+    }
+
+    @Test
+    public void acceptsEverythingTheRegexDid() {
+        String[] headers = {
+                TRACEPARENT,
+                "traceparent;desc='00-" + TRACE_ID + "-" + SPAN_ID + "-01'",
+                "traceparent;desc='00-00000000000000000000000000000000-0000000000000000-01'",
+        };
+        for (String header : headers) {
+            Matcher matcher = REGEX.matcher(header);
+            assertTrue(matcher.matches());
+            AttributesBuilder builder = Attributes.builder();
+            parser.parse(header, builder);
+            Attributes attributes = builder.build();
+            assertEquals(matcher.group(1), attributes.get(LINK_TRACE_ID_KEY));
+            assertEquals(matcher.group(2), attributes.get(LINK_SPAN_ID_KEY));
+        }
+    }
+
+    @Test
+    public void metricsDisabledByDefault() {
+        Attributes attributes = parse(parser, "db;dur=53, app;dur=47.2");
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    public void metrics() {
+        ServerTimingHeaderParser parser = new ServerTimingHeaderParser(true);
+        Attributes attributes = parse(parser, "db;dur=53, cache;desc=hit, app;desc=\"a, b\";dur=\"47.2\", " + TRACEPARENT + ", total;dur=123.5");
+
+        assertEquals(5, attributes.size());
+        assertEquals(53.0, attributes.get(doubleKey("http.server_timing.db")), 0.0);
+        assertEquals(47.2, attributes.get(doubleKey("http.server_timing.app")), 0.0);
+        assertEquals(123.5, attributes.get(doubleKey("http.server_timing.total")), 0.0);
+        assertNull(attributes.get(doubleKey("http.server_timing.cache")));
+        assertEquals(TRACE_ID, attributes.get(LINK_TRACE_ID_KEY));
+        assertEquals(SPAN_ID, attributes.get(LINK_SPAN_ID_KEY));
+    }
+
+    @Test
+    public void metrics_invalidDurationsAreSkipped() {
+        ServerTimingHeaderParser parser = new ServerTimingHeaderParser(true);
+        Attributes attributes = parse(parser, "a;dur=, b;dur=abc, c;dur=-1, d;dur=NaN, e;dur=Infinity, f;dur=1");
+
+        assertEquals(1, attributes.size());
+        assertEquals(1.0, attributes.get(doubleKey("http.server_timing.f")), 0.0);
+    }
+
+    @Test
+    public void metrics_limits() {
+        ServerTimingHeaderParser parser = new ServerTimingHeaderParser(true);
+        String longName = "abcdefghijklmnopqrstuvwxyz1234567";
+        StringBuilder header = new StringBuilder(longName + ";dur=1");
+        for (int i = 0; i < ServerTimingHeaderParser.MAX_METRICS + 5; i++) {
+            header.append(", m").append(i).append(";dur=").append(i);
+        }
+        Attributes attributes = parse(parser, header + ", " + TRACEPARENT);
+
+        assertNull(attributes.get(doubleKey("http.server_timing." + longName)));
+        assertEquals(ServerTimingHeaderParser.MAX_METRICS + 2, attributes.size());
+        assertEquals(9.0, attributes.get(doubleKey("http.server_timing.m9")), 0.0);
+        assertNull(attributes.get(doubleKey("http.server_timing.m10")));
+        assertEquals(TRACE_ID, attributes.get(LINK_TRACE_ID_KEY));
+    }
+
+    @Test
+    public void metrics_limitAppliesAcrossHeaders() {
+        ServerTimingHeaderParser parser = new ServerTimingHeaderParser(true);
+        Headers.Builder headers = new Headers.Builder();
+        for (int i = 0; i < ServerTimingHeaderParser.MAX_METRICS + 1; i++) {
+            headers.add("Server-Timing", "m" + i + ";dur=" + i);
+        }
+        headers.add("Content-Type", "text/plain");
+        AttributesBuilder builder = Attributes.builder();
+        parser.parse(headers.build(), builder);
+        Attributes attributes = builder.build();
+
+        assertEquals(ServerTimingHeaderParser.MAX_METRICS, attributes.size());
+        assertNull(attributes.get(doubleKey("http.server_timing.m10")));
+    }
+
+    private void assertParsed(String header) {
+        Attributes attributes = parse(parser, header);
+        assertEquals(TRACE_ID, attributes.get(LINK_TRACE_ID_KEY));
+        assertEquals(SPAN_ID, attributes.get(LINK_SPAN_ID_KEY));
+    }
+
+    private void assertUnparseable(String header) {
+        assertTrue(header, parse(parser, header).isEmpty());
+    }
+
+    private static Attributes parse(ServerTimingHeaderParser parser, String header) {
+        AttributesBuilder builder = Attributes.builder();
+        parser.parse(header, builder);
+        return builder.build();
     }
-}
\ No newline at end of file
+}
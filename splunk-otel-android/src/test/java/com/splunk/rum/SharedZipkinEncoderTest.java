@@ -0,0 +1,127 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.TraceId;
+import zipkin2.Span;
+import zipkin2.codec.BytesEncoder;
+
+public class SharedZipkinEncoderTest {
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final SharedZipkinEncoder<Span> encoder = new SharedZipkinEncoder<>(new CustomZipkinEncoder(metrics), 2);
+
+    @Test
+    public void equalSpansAreEncodedOnce() {
+        byte[] first = encoder.encode(span("span", "value"));
+        //another destination converts the same span data into its own zipkin span.
+        byte[] second = encoder.encode(span("span", "value"));
+
+        assertSame(first, second);
+        assertEquals(1, metrics.getEncodeTime().getCount());
+        assertEquals(first.length, encoder.sizeInBytes(span("span", "value")));
+    }
+
+    @Test
+    public void measuredSpansAreNotEncodedAgain() {
+        int size = encoder.sizeInBytes(span("span", "value"));
+        byte[] encoded = encoder.encode(span("span", "value"));
+
+        assertEquals(encoded.length, size);
+        assertEquals(1, metrics.getEncodeTime().getCount());
+    }
+
+    @Test
+    public void modifiedSpansAreEncodedSeparately() {
+        byte[] original = encoder.encode(span("span", "value"));
+        byte[] modified = encoder.encode(span("span", "replaced"));
+
+        assertEquals(2, metrics.getEncodeTime().getCount());
+        assertArrayEquals(new CustomZipkinEncoder().encode(span("span", "replaced")), modified);
+        assertEquals(new String(original).replace("value", "replaced"), new String(modified));
+    }
+
+    @Test
+    public void concurrentDestinationsEncodeSpanOnce() throws Exception {
+        AtomicInteger encodeCount = new AtomicInteger();
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BytesEncoder<Span> delegate = new CustomZipkinEncoder() {
+            @Override
+            public byte[] encode(Span span) {
+                if (encodeCount.incrementAndGet() == 1) {
+                    encoding.countDown();
+                    awaitQuietly(release);
+                }
+                return super.encode(span);
+            }
+        };
+        SharedZipkinEncoder<Span> shared = new SharedZipkinEncoder<>(delegate, 2);
+
+        Thread first = new Thread(() -> shared.encode(span("span", "value")));
+        first.start();
+        encoding.await();
+        //the other destination sends the same span while the first one is still encoding it.
+        Thread second = new Thread(() -> shared.encode(span("span", "value")));
+        second.start();
+        while (second.isAlive() && second.getState() != Thread.State.BLOCKED) {
+            Thread.yield();
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, encodeCount.get());
+    }
+
+    @Test
+    public void onlyRecentSpansAreKept() {
+        encoder.encode(span("first", "value"));
+        encoder.encode(span("second", "value"));
+        encoder.encode(span("third", "value"));
+        encoder.encode(span("first", "value"));
+
+        assertEquals(4, metrics.getEncodeTime().getCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Span span(String name, String tagValue) {
+        return Span.newBuilder()
+                .name(name)
+                .traceId(TraceId.fromLongs(1, 2))
+                .id(SpanId.fromLong(1))
+                .putTag(RumAttributeAppender.SPLUNK_OPERATION_KEY.getKey(), name)
+                .putTag("tag", tagValue)
+                .build();
+    }
+}
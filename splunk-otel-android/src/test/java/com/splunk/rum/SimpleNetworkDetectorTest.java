@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 
 import android.content.Context;
 import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
 import android.os.Build;
 
@@ -32,6 +33,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.Shadows;
 import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
 import org.robolectric.shadows.ShadowNetworkInfo;
 
 @RunWith(RobolectricTestRunner.class)
@@ -62,6 +64,7 @@ public class SimpleNetworkDetectorTest {
                 true,
                 NetworkInfo.State.CONNECTED);
         Shadows.shadowOf(connectivityManager).setActiveNetworkInfo(networkInfo);
+        setActiveNetworkCapabilities(connectivityManager, NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
 
         SimpleNetworkDetector networkDetector = new SimpleNetworkDetector(connectivityManager);
 
@@ -82,6 +85,7 @@ public class SimpleNetworkDetectorTest {
                 true,
                 NetworkInfo.State.CONNECTED);
         Shadows.shadowOf(connectivityManager).setActiveNetworkInfo(networkInfo);
+        setActiveNetworkCapabilities(connectivityManager, NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
 
         SimpleNetworkDetector networkDetector = new SimpleNetworkDetector(connectivityManager);
 
@@ -102,6 +106,7 @@ public class SimpleNetworkDetectorTest {
                 true,
                 NetworkInfo.State.CONNECTED);
         Shadows.shadowOf(connectivityManager).setActiveNetworkInfo(networkInfo);
+        setActiveNetworkCapabilities(connectivityManager, NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
 
         SimpleNetworkDetector networkDetector = new SimpleNetworkDetector(connectivityManager);
 
@@ -121,6 +126,7 @@ public class SimpleNetworkDetectorTest {
         when(networkInfo.getSubtypeName()).thenReturn("LTE");
 
         Shadows.shadowOf(connectivityManager).setActiveNetworkInfo(networkInfo);
+        setActiveNetworkCapabilities(connectivityManager, NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
 
         SimpleNetworkDetector networkDetector = new SimpleNetworkDetector(connectivityManager);
 
@@ -128,4 +134,31 @@ public class SimpleNetworkDetectorTest {
 
         assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_CELLULAR, "LTE"), currentNetwork);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void meteredWifi() {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) ApplicationProvider.getApplicationContext().getSystemService(Context.CONNECTIVITY_SERVICE);
+
+        NetworkInfo networkInfo = ShadowNetworkInfo.newInstance(
+                NetworkInfo.DetailedState.CONNECTED,
+                ConnectivityManager.TYPE_WIFI,
+                0,
+                true,
+                NetworkInfo.State.CONNECTED);
+        Shadows.shadowOf(connectivityManager).setActiveNetworkInfo(networkInfo);
+        setActiveNetworkCapabilities(connectivityManager, NetworkCapabilities.NET_CAPABILITY_VALIDATED);
+
+        SimpleNetworkDetector networkDetector = new SimpleNetworkDetector(connectivityManager);
+
+        CurrentNetwork currentNetwork = networkDetector.detectCurrentNetwork();
+
+        assertEquals(new CurrentNetwork(NetworkState.TRANSPORT_WIFI, null, 0, 0, true, true), currentNetwork);
+    }
+
+    private static void setActiveNetworkCapabilities(ConnectivityManager connectivityManager, int capability) {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        Shadows.shadowOf(capabilities).addCapability(capability);
+        Shadows.shadowOf(connectivityManager).setNetworkCapabilities(connectivityManager.getActiveNetwork(), capabilities);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static io.opentelemetry.api.common.AttributeKey.booleanKey;
+import static io.opentelemetry.api.common.AttributeKey.doubleKey;
+import static io.opentelemetry.api.common.AttributeKey.longArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.longKey;
+import static io.opentelemetry.api.common.AttributeKey.stringArrayKey;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceId;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.exporter.zipkin.ZipkinSpanExporter;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.testing.trace.TestSpanData;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import zipkin2.Call;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+public class SpanDataZipkinEncoderTest {
+    private final PipelineMetrics metrics = new PipelineMetrics();
+    private final SpanDataZipkinEncoder encoder = new SpanDataZipkinEncoder(metrics);
+
+    @Test
+    public void sameAsZipkinExporter() {
+        List<SpanData> spans = Arrays.asList(
+                span("Created", SpanKind.INTERNAL, Attributes.of(RumAttributeAppender.SPLUNK_OPERATION_KEY, "Created", SplunkRum.COMPONENT_KEY, "ui"))
+                        .build(),
+                span("HTTP GET", SpanKind.CLIENT, Attributes.builder()
+                        .put(RumAttributeAppender.SPLUNK_OPERATION_KEY, "HTTP GET")
+                        .put(longKey("http.status_code"), 200L)
+                        .put(doubleKey("ratio"), 0.25)
+                        .put(booleanKey("cached"), true)
+                        .put(stringArrayKey("names"), Arrays.asList("a", "b"))
+                        .put(longArrayKey("sizes"), Arrays.asList(1L, 2L))
+                        .build())
+                        .setParentSpanContext(SpanContext.create(TraceId.fromLongs(1, 2), SpanId.fromLong(9), TraceFlags.getSampled(), TraceState.getDefault()))
+                        .setStatus(StatusData.create(StatusCode.ERROR, "timeout"))
+                        .setTotalAttributeCount(10)
+                        .build(),
+                span("Server", SpanKind.SERVER, Attributes.of(RumAttributeAppender.SPLUNK_OPERATION_KEY, "Server", stringKey("escaped"), "\"quotes\" \\ \n\t\u0001"))
+                        .setEvents(Arrays.asList(
+                                EventData.create(3_000_000, "later", Attributes.empty()),
+                                EventData.create(2_000_000, "earlier \"one\"", Attributes.empty())))
+                        .setTotalRecordedEvents(3)
+                        .setStatus(StatusData.ok())
+                        .setInstrumentationLibraryInfo(InstrumentationLibraryInfo.create("io.opentelemetry.okhttp-3.0", "1.6.2"))
+                        .setResource(Resource.getDefault().merge(Resource.create(Attributes.of(stringKey("service.name"), "MyApp"))))
+                        .build(),
+                span("producer", SpanKind.PRODUCER, Attributes.of(RumAttributeAppender.SPLUNK_OPERATION_KEY, "producer", stringKey("error"), "set by the app"))
+                        .setSpanContext(SpanContext.create(TraceId.fromLongs(0, 5), SpanId.fromLong(6), TraceFlags.getSampled(), TraceState.getDefault()))
+                        .setStatus(StatusData.error())
+                        .setStartEpochNanos(0)
+                        .build());
+
+        List<byte[]> expected = encodeWithZipkinExporter(spans);
+        for (int i = 0; i < spans.size(); i++) {
+            assertEquals(new String(expected.get(i)), new String(encoder.encode(spans.get(i))));
+            assertEquals(expected.get(i).length, encoder.sizeInBytes(spans.get(i)));
+        }
+        assertEquals(spans.size(), metrics.getEncodeTime().getCount());
+    }
+
+    @Test
+    public void utf8() {
+        SpanData span = span("Unicode", SpanKind.INTERNAL, Attributes.of(stringKey("text"), "\u00e9 \u2603 \ud83d\ude00 \u2028\u2029 \ud800")).build();
+
+        String json = new String(encoder.encode(span), StandardCharsets.UTF_8);
+
+        assertTrue(json, json.contains("\"tags\":{\"text\":\"\u00e9 \u2603 \ud83d\ude00 \\u2028\\u2029 ?\"}"));
+    }
+
+    @Test
+    public void zipkinNameWithoutOperationAttribute() {
+        SpanData span = span("Some Name", SpanKind.INTERNAL, Attributes.empty()).build();
+
+        String json = new String(encoder.encode(span), StandardCharsets.UTF_8);
+
+        assertTrue(json, json.contains("\"name\":\"some name\""));
+    }
+
+    @Test
+    public void localAddressIsLookedUpOnFirstEncode() throws Exception {
+        InetAddress address = InetAddress.getByAddress(new byte[]{10, 0, 0, 7});
+        AtomicInteger lookups = new AtomicInteger();
+        SpanDataZipkinEncoder lazyEncoder = new SpanDataZipkinEncoder(metrics, () -> {
+            lookups.incrementAndGet();
+            return address;
+        });
+        assertEquals(0, lookups.get());
+
+        SpanData span = span("span", SpanKind.INTERNAL, Attributes.empty()).build();
+        lazyEncoder.encode(span);
+        String json = new String(lazyEncoder.encode(span), StandardCharsets.UTF_8);
+
+        assertEquals(1, lookups.get());
+        assertTrue(json, json.contains("\"ipv4\":\"10.0.0.7\""));
+    }
+
+    @Test
+    public void encodeList() {
+        SpanData first = span("first", SpanKind.INTERNAL, Attributes.empty()).build();
+        SpanData second = span("second", SpanKind.INTERNAL, Attributes.empty()).build();
+
+        String list = new String(encoder.encodeList(Arrays.asList(first, second)));
+
+        assertEquals("[" + new String(encoder.encode(first)) + "," + new String(encoder.encode(second)) + "]", list);
+    }
+
+    private static TestSpanData.Builder span(String name, SpanKind kind, Attributes attributes) {
+        return TestSpanData.builder()
+                .setName(name)
+                .setKind(kind)
+                .setSpanContext(SpanContext.create(TraceId.fromLongs(1, 2), SpanId.fromLong(3), TraceFlags.getSampled(), TraceState.getDefault()))
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(1_634_567_890_123_456_789L)
+                .setEndEpochNanos(1_634_567_890_148_456_789L)
+                .setAttributes(attributes)
+                .setTotalAttributeCount(attributes.size());
+    }
+
+    private static List<byte[]> encodeWithZipkinExporter(List<SpanData> spans) {
+        List<byte[]> encoded = new ArrayList<>();
+        Sender sender = new Sender() {
+            @Override
+            public Encoding encoding() {
+                return Encoding.JSON;
+            }
+
+            @Override
+            public int messageMaxBytes() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public int messageSizeInBytes(List<byte[]> encodedSpans) {
+                return Encoding.JSON.listSizeInBytes(encodedSpans);
+            }
+
+            @Override
+            public Call<Void> sendSpans(List<byte[]> encodedSpans) {
+                encoded.addAll(encodedSpans);
+                return Call.create(null);
+            }
+        };
+        ZipkinSpanExporter.builder()
+                .setEncoder(new CustomZipkinEncoder())
+                .setSender(sender)
+                .build()
+                .export(spans);
+        return encoded;
+    }
+}
@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static java.util.Arrays.asList;
@@ -38,7 +39,11 @@ import java.util.List;
 
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanId;
 import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.testing.trace.TestSpanData;
 import io.opentelemetry.sdk.trace.data.SpanData;
@@ -57,6 +62,8 @@ public class SpanFilterTest {
     @Captor
     ArgumentCaptor<Collection<SpanData>> spansCaptor;
 
+    private final PipelineMetrics metrics = new PipelineMetrics();
+
     @Test
     public void shouldRejectSpansByName() {
         // given
@@ -64,7 +71,7 @@ public class SpanFilterTest {
                 .rejectSpansByName(spanName -> spanName.equals("span2"))
                 .rejectSpansByName(spanName -> spanName.equals("span4"))
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         SpanData span1 = span("span1");
         SpanData span2 = span("span2");
@@ -79,6 +86,7 @@ public class SpanFilterTest {
 
         // then
         assertSame(expectedResult, result);
+        assertEquals(2, metrics.getSpansFiltered());
     }
 
     @Test
@@ -89,7 +97,7 @@ public class SpanFilterTest {
                 .rejectSpansByAttributeValue(ATTRIBUTE, value -> value.equals("rejected!"))
                 .rejectSpansByAttributeValue(LONG_ATTRIBUTE, value -> value > 100)
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         SpanData rejected = span("span", Attributes.of(ATTRIBUTE, "test"));
         SpanData differentKey = span("span", Attributes.of(OTHER_ATTRIBUTE, "test", LONG_ATTRIBUTE, 42L));
@@ -116,7 +124,7 @@ public class SpanFilterTest {
                 // make sure that attribute types are taken into account
                 .removeSpanAttribute(stringKey("long_attribute"))
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         SpanData span1 = span("first", Attributes.of(ATTRIBUTE, "test", LONG_ATTRIBUTE, 42L));
         SpanData span2 = span("second", Attributes.of(ATTRIBUTE, "not test", OTHER_ATTRIBUTE, "test"));
@@ -148,7 +156,7 @@ public class SpanFilterTest {
                 // make sure that attribute types are taken into account
                 .replaceSpanAttribute(stringKey("long_attribute"), value -> "abc")
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         SpanData span1 = span("first", Attributes.of(ATTRIBUTE, "test", LONG_ATTRIBUTE, 42L));
         SpanData span2 = span("second", Attributes.of(OTHER_ATTRIBUTE, "test"));
@@ -176,7 +184,7 @@ public class SpanFilterTest {
         SpanExporter underTest = new SpanFilterBuilder()
                 .replaceSpanAttribute(ATTRIBUTE, value -> null)
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         SpanData span = span("first", Attributes.of(ATTRIBUTE, "test", LONG_ATTRIBUTE, 42L));
 
@@ -201,7 +209,7 @@ public class SpanFilterTest {
         SpanFilterBuilder builder = new SpanFilterBuilder();
         SpanExporter underTest = builder
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         builder.rejectSpansByName(spanName -> spanName.equals("span"))
                 .rejectSpansByAttributeValue(ATTRIBUTE, value -> true)
@@ -220,11 +228,29 @@ public class SpanFilterTest {
         assertSame(expectedResult, result);
     }
 
+    @Test
+    public void shouldSampleWholeTraces() {
+        SpanExporter underTest = new SpanFilterBuilder()
+                .sampleTraces(0.5)
+                .build()
+                .apply(delegate, metrics);
+
+        SpanData sampled = span("span", "00000000000000000000000000000001");
+        SpanData sampledChild = span("child", "00000000000000000000000000000001");
+        SpanData notSampled = span("span", "0000000000000000ffffffffffffffff");
+        when(delegate.export(asList(sampled, sampledChild))).thenReturn(CompletableResultCode.ofSuccess());
+
+        CompletableResultCode result = underTest.export(asList(sampled, notSampled, sampledChild));
+
+        assertTrue(result.isSuccess());
+        assertEquals(1, metrics.getSpansFiltered());
+    }
+
     @Test
     public void shouldDelegateCalls() {
         SpanExporter underTest = new SpanFilterBuilder()
                 .build()
-                .apply(delegate);
+                .apply(delegate, metrics);
 
         underTest.flush();
         verify(delegate).flush();
@@ -237,6 +263,18 @@ public class SpanFilterTest {
         return span(name, Attributes.empty());
     }
 
+    private static SpanData span(String name, String traceId) {
+        return TestSpanData.builder()
+                .setName(name)
+                .setSpanContext(SpanContext.create(traceId, SpanId.fromLong(1), TraceFlags.getSampled(), TraceState.getDefault()))
+                .setKind(SpanKind.INTERNAL)
+                .setStatus(StatusData.unset())
+                .setHasEnded(true)
+                .setStartEpochNanos(0)
+                .setEndEpochNanos(123)
+                .build();
+    }
+
     private static SpanData span(String name, Attributes attributes) {
         return TestSpanData.builder()
                 .setName(name)
@@ -18,6 +18,7 @@ package com.splunk.rum;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -38,6 +39,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.internal.stubbing.answers.ReturnsArgumentAt;
 
+import java.util.Arrays;
 import java.util.List;
 
 import io.opentelemetry.api.common.Attributes;
@@ -75,7 +77,7 @@ public class SplunkRumTest {
 
         when(config.getBeaconEndpoint()).thenReturn("http://backend");
         when(config.isDebugEnabled()).thenReturn(true);
-        when(config.decorateWithSpanFilter(any())).then(new ReturnsArgumentAt(0));
+        when(config.decorateWithSpanFilter(any(), any())).then(new ReturnsArgumentAt(0));
 
         SplunkRum singleton = SplunkRum.initialize(config, application, () -> connectionUtil);
         SplunkRum sameInstance = SplunkRum.initialize(config, application);
@@ -95,7 +97,7 @@ public class SplunkRumTest {
         Config config = mock(Config.class);
 
         when(config.getBeaconEndpoint()).thenReturn("http://backend");
-        when(config.decorateWithSpanFilter(any())).then(new ReturnsArgumentAt(0));
+        when(config.decorateWithSpanFilter(any(), any())).then(new ReturnsArgumentAt(0));
 
         SplunkRum singleton = SplunkRum.initialize(config, application, () -> mock(ConnectionUtil.class, RETURNS_DEEP_STUBS));
         assertSame(singleton, SplunkRum.getInstance());
@@ -112,7 +114,7 @@ public class SplunkRumTest {
         Config config = mock(Config.class);
 
         when(config.getBeaconEndpoint()).thenReturn("http://backend");
-        when(config.decorateWithSpanFilter(any())).then(new ReturnsArgumentAt(0));
+        when(config.decorateWithSpanFilter(any(), any())).then(new ReturnsArgumentAt(0));
 
         SplunkRum splunkRum = SplunkRum.initialize(config, application, () -> mock(ConnectionUtil.class, RETURNS_DEEP_STUBS));
         assertNotNull(splunkRum.getOpenTelemetry());
@@ -144,7 +146,8 @@ public class SplunkRumTest {
 
     @Test
     public void recordAnr() {
-        StackTraceElement[] stackTrace = new Exception().getStackTrace();
+        //short enough to be sent whole.
+        StackTraceElement[] stackTrace = Arrays.copyOf(new Exception().getStackTrace(), 10);
         StringBuilder stringBuilder = new StringBuilder();
         for (StackTraceElement stackTraceElement : stackTrace) {
             stringBuilder.append(stackTraceElement).append("\n");
@@ -191,6 +194,25 @@ public class SplunkRumTest {
         assertEquals(expected.asMap(), spans.get(0).getAttributes().asMap());
     }
 
+    @Test
+    public void addExceptionWithBreadcrumbs() {
+        InMemorySpanExporter testExporter = InMemorySpanExporter.create();
+        OpenTelemetrySdk testSdk = buildTestSdk(testExporter);
+
+        SplunkRum splunkRum = new SplunkRum(testSdk, new SessionId(), config);
+
+        splunkRum.addBreadcrumb("tap", Attributes.of(stringKey("view"), "list"));
+        splunkRum.addRumException(new NullPointerException("oopsie"));
+        splunkRum.addRumException(new IllegalStateException("again"));
+
+        List<SpanData> spans = testExporter.getFinishedSpanItems();
+        assertEquals(2, spans.size());
+        assertEquals(1, (long) spans.get(0).getAttributes().get(BreadcrumbBuffer.BREADCRUMB_COUNT_KEY));
+        assertTrue(spans.get(0).getAttributes().get(BreadcrumbBuffer.BREADCRUMBS_KEY).endsWith(" tap view=list"));
+        //the breadcrumbs were sent with the first error.
+        assertNull(spans.get(1).getAttributes().get(BreadcrumbBuffer.BREADCRUMBS_KEY));
+    }
+
     private OpenTelemetrySdk buildTestSdk(InMemorySpanExporter testExporter) {
         return OpenTelemetrySdk.builder()
                 .setTracerProvider(SdkTracerProvider.builder()
@@ -228,7 +250,7 @@ public class SplunkRumTest {
         WebView webView = mock(WebView.class);
 
         when(config.getBeaconEndpoint()).thenReturn("http://backend");
-        when(config.decorateWithSpanFilter(any())).then(new ReturnsArgumentAt(0));
+        when(config.decorateWithSpanFilter(any(), any())).then(new ReturnsArgumentAt(0));
 
         SplunkRum splunkRum = SplunkRum.initialize(config, application, () -> mock(ConnectionUtil.class, RETURNS_DEEP_STUBS));
         splunkRum.integrateWithBrowserRum(webView);
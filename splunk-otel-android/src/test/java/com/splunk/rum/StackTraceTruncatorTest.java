@@ -0,0 +1,133 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class StackTraceTruncatorTest {
+
+    @Test
+    public void shortStackTraceUnchanged() {
+        String stackTrace = "java.lang.IllegalStateException: oops\n" +
+                "\tat com.example.A.a(A.java:1)\n" +
+                "\tat com.example.B.b(B.java:2)\n" +
+                "\tat com.example.C.c(C.java:3)\n";
+
+        assertEquals(stackTrace, new StackTraceTruncator(1, 1, 0).truncate(stackTrace));
+        assertEquals(stackTrace, new StackTraceTruncator(0, 0, 0).truncate(stackTrace));
+    }
+
+    @Test
+    public void keepsTopAndBottomFramesOfEachCause() {
+        String stackTrace = "java.lang.RuntimeException: outer\n" +
+                frames(10) +
+                "Caused by: java.lang.IllegalStateException: inner\n" +
+                frames(6) +
+                "\t... 4 more\n" +
+                "\tSuppressed: java.io.IOException: closing\n" +
+                "\t\tat com.example.Frame0.run(Frame.java:0)\n" +
+                "\t\tat com.example.Frame1.run(Frame.java:1)\n" +
+                "\t\tat com.example.Frame2.run(Frame.java:2)\n" +
+                "\t\tat com.example.Frame3.run(Frame.java:3)\n" +
+                "\t\tat com.example.Frame4.run(Frame.java:4)\n";
+
+        String expected = "java.lang.RuntimeException: outer\n" +
+                "\tat com.example.Frame0.run(Frame.java:0)\n" +
+                "\tat com.example.Frame1.run(Frame.java:1)\n" +
+                "\t... 7 frames elided\n" +
+                "\tat com.example.Frame9.run(Frame.java:9)\n" +
+                "Caused by: java.lang.IllegalStateException: inner\n" +
+                "\tat com.example.Frame0.run(Frame.java:0)\n" +
+                "\tat com.example.Frame1.run(Frame.java:1)\n" +
+                "\t... 3 frames elided\n" +
+                "\tat com.example.Frame5.run(Frame.java:5)\n" +
+                "\t... 4 more\n" +
+                "\tSuppressed: java.io.IOException: closing\n" +
+                "\t\tat com.example.Frame0.run(Frame.java:0)\n" +
+                "\t\tat com.example.Frame1.run(Frame.java:1)\n" +
+                "\t\t... 2 frames elided\n" +
+                "\t\tat com.example.Frame4.run(Frame.java:4)\n";
+
+        assertEquals(expected, new StackTraceTruncator(2, 1, 0).truncate(stackTrace));
+    }
+
+    @Test
+    public void cutsAtWholeLines() {
+        String stackTrace = "java.lang.RuntimeException: oops\n" + frames(4);
+        StackTraceTruncator truncator = new StackTraceTruncator(0, 0, 100);
+
+        String truncated = truncator.truncate(stackTrace);
+
+        assertEquals("java.lang.RuntimeException: oops\n" +
+                "\tat com.example.Frame0.run(Frame.java:0)\n", truncated);
+    }
+
+    @Test
+    public void keepsRootCauseAtDefaultLimits() {
+        String stackTrace = "java.lang.RuntimeException: Unable to start activity ComponentInfo{com.example.shop/com.example.shop.CheckoutActivity}\n" +
+                androidFrames(40, "\t") +
+                "Caused by: java.lang.IllegalStateException: Failed to bind the cart view\n" +
+                androidFrames(40, "\t") +
+                "\t... 38 more\n" +
+                "Caused by: java.lang.NullPointerException: Attempt to invoke virtual method 'int java.lang.String.length()' on a null object reference\n" +
+                "\tat com.example.shop.cart.CartPriceFormatter.format(CartPriceFormatter.java:42)\n" +
+                androidFrames(30, "\t") +
+                "\t... 38 more\n";
+        StackTraceTruncator truncator = new StackTraceTruncator(Config.DEFAULT_STACK_TRACE_TOP_FRAMES, Config.DEFAULT_STACK_TRACE_BOTTOM_FRAMES, Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH);
+
+        String truncated = truncator.truncate(stackTrace);
+
+        assertTrue(truncated.length() <= Config.DEFAULT_MAX_ATTRIBUTE_VALUE_LENGTH);
+        assertTrue(truncated, truncated.contains("Caused by: java.lang.IllegalStateException: Failed to bind the cart view\n"));
+        assertTrue(truncated, truncated.contains("Caused by: java.lang.NullPointerException: Attempt to invoke virtual method"));
+        assertTrue(truncated, truncated.contains("\tat com.example.shop.cart.CartPriceFormatter.format(CartPriceFormatter.java:42)\n"));
+        //the last cause is complete: nothing was cut off at the end.
+        assertTrue(truncated, truncated.endsWith(" frames elided\n\t... 38 more\n"));
+    }
+
+    @Test
+    public void stackTraceElements() {
+        StackTraceElement[] stackTrace = new StackTraceElement[5];
+        for (int i = 0; i < stackTrace.length; i++) {
+            stackTrace[i] = new StackTraceElement("com.example.Frame" + i, "run", "Frame.java", i);
+        }
+
+        assertEquals("com.example.Frame0.run(Frame.java:0)\n" +
+                "... 3 frames elided\n" +
+                "com.example.Frame4.run(Frame.java:4)\n", new StackTraceTruncator(1, 1, 0).format(stackTrace));
+    }
+
+    private static String androidFrames(int count, String indent) {
+        StringBuilder frames = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            frames.append(indent).append("at androidx.recyclerview.widget.RecyclerView$Recycler.tryGetViewHolderForPositionByDeadline")
+                    .append(i).append("(RecyclerView.java:").append(6000 + i).append(")\n");
+        }
+        return frames.toString();
+    }
+
+    private static String frames(int count) {
+        StringBuilder frames = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            frames.append("\tat com.example.Frame").append(i).append(".run(Frame.java:").append(i).append(")\n");
+        }
+        return frames.toString();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class StartupPhaseTracerTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+
+    private final Clock clock = mock(Clock.class);
+    private Tracer tracer;
+    private StartupPhaseTracer phaseTracer;
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+        when(clock.now()).thenReturn(1_000L);
+        when(clock.nanoTime()).thenReturn(0L);
+        phaseTracer = new StartupPhaseTracer(RumInitializer.AnchoredClock.create(clock));
+    }
+
+    @Test
+    public void phasesAreChildrenOfAppStart() {
+        phaseTracer.enable();
+        at(100);
+        phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ATTACH);
+        at(150);
+        phaseTracer.phaseEnded(StartupPhaseTracer.CONTENT_PROVIDER_INIT);
+
+        Span appStart = tracer.spanBuilder("AppStart").startSpan();
+        phaseTracer.appStartStarted(tracer, appStart, 500);
+
+        at(400);
+        phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ON_CREATE);
+        //a phase is only recorded once.
+        at(450);
+        phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ON_CREATE);
+        appStart.end();
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(4, spans.size());
+        assertPhase(spans.get(0), StartupPhaseTracer.APPLICATION_ATTACH, 500, 1_100, appStart);
+        assertPhase(spans.get(1), StartupPhaseTracer.CONTENT_PROVIDER_INIT, 1_100, 1_150, appStart);
+        assertPhase(spans.get(2), StartupPhaseTracer.APPLICATION_ON_CREATE, 1_150, 1_400, appStart);
+    }
+
+    @Test
+    public void appStartEndsAfterFirstFrame() {
+        phaseTracer.enable();
+        Span appStart = tracer.spanBuilder("AppStart").startSpan();
+        phaseTracer.appStartStarted(tracer, appStart, 500);
+
+        //without first draw timing, the AppStart span is ended when the first activity is resumed.
+        at(300);
+        phaseTracer.phaseEnded(StartupPhaseTracer.ACTIVITY_CREATE);
+        assertTrue(phaseTracer.endAfterFirstFrame(() -> appStart.end(clockNow(), TimeUnit.NANOSECONDS)));
+        assertEquals(1, otelTesting.getSpans().size());
+
+        at(350);
+        phaseTracer.phaseEnded(StartupPhaseTracer.FIRST_FRAME);
+
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(3, spans.size());
+        assertPhase(spans.get(1), StartupPhaseTracer.FIRST_FRAME, 1_300, 1_350, appStart);
+        assertEquals("AppStart", spans.get(2).getName());
+        assertEquals(1_350, spans.get(2).getEndEpochNanos());
+        //later ends aren't held off.
+        assertFalse(phaseTracer.endAfterFirstFrame(() -> {
+        }));
+    }
+
+    @Test
+    public void appStartEndsRightAwayWithoutProvider() {
+        assertFalse(phaseTracer.endAfterFirstFrame(() -> {
+        }));
+    }
+
+    @Test
+    public void disabledWithoutProvider() {
+        phaseTracer.phaseEnded(StartupPhaseTracer.CONTENT_PROVIDER_INIT);
+        phaseTracer.appStartStarted(tracer, tracer.spanBuilder("AppStart").startSpan(), 500);
+        phaseTracer.phaseEnded(StartupPhaseTracer.APPLICATION_ON_CREATE);
+
+        assertTrue(otelTesting.getSpans().isEmpty());
+    }
+
+    private long clockNow() {
+        return 1_000L + clock.nanoTime();
+    }
+
+    private void at(long nanoTime) {
+        when(clock.nanoTime()).thenReturn(nanoTime);
+    }
+
+    private static void assertPhase(SpanData span, String name, long start, long end, Span parent) {
+        assertEquals(name, span.getName());
+        assertEquals(start, span.getStartEpochNanos());
+        assertEquals(end, span.getEndEpochNanos());
+        assertEquals(parent.getSpanContext(), span.getParentSpanContext());
+        assertEquals(SplunkRum.COMPONENT_APPSTART, span.getAttributes().get(SplunkRum.COMPONENT_KEY));
+    }
+}
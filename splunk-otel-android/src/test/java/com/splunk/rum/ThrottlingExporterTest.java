@@ -24,7 +24,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import io.opentelemetry.api.common.Attributes;
@@ -35,6 +39,7 @@ import io.opentelemetry.sdk.trace.data.StatusData;
 import io.opentelemetry.sdk.trace.export.SpanExporter;
 
 import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.verify;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -70,9 +75,11 @@ public class ThrottlingExporterTest {
     @Test
     public void shouldThrottleSpansOverLimit() {
         // given
+        PipelineMetrics metrics = new PipelineMetrics();
         SpanExporter underTest = ThrottlingExporter.newBuilder(delegate)
                 .maxSpansInWindow(2)
                 .windowSize(Duration.ofSeconds(15))
+                .metrics(metrics)
                 .build();
 
         Instant now = Instant.ofEpochMilli(10_000);
@@ -98,6 +105,7 @@ public class ThrottlingExporterTest {
                 spanData.get(4)
                 // idx=5 will be skipped because it's the 3rd span in the last 15 secs
         ));
+        assertEquals(2, metrics.getSpansThrottled());
     }
 
     @Test
@@ -184,6 +192,39 @@ public class ThrottlingExporterTest {
         ));
     }
 
+    @Test
+    public void shouldCountSpansFromConcurrentExports() throws Exception {
+        // given
+        PipelineMetrics metrics = new PipelineMetrics();
+        SpanExporter underTest = ThrottlingExporter.newBuilder(delegate)
+                .categorizeByAttribute(SplunkRum.COMPONENT_KEY)
+                .maxSpansInWindow(100)
+                .windowSize(Duration.ofSeconds(15))
+                .metrics(metrics)
+                .build();
+
+        Instant now = Instant.ofEpochMilli(10_000);
+        List<SpanData> spanData = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            spanData.add(span(i % 2 == 0 ? "ui" : null, now));
+        }
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> underTest.export(spanData)));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        // 500 spans per category, of which 100 fit in the window
+        assertEquals(800, metrics.getSpansThrottled());
+    }
+
     @Test
     public void shouldDelegateFlushCall() {
         // given
@@ -46,6 +46,21 @@ public class VisibleScreenTrackerTest {
         assertEquals(activity.getClass().getSimpleName(), visibleScreenTracker.getPreviouslyVisibleScreen());
     }
 
+    @Test
+    public void activityWithCustomScreenName() {
+        //a new string every time, which the cache turns into a single instance.
+        ScreenNames screenNames = new ScreenNames(screenClass -> new StringBuilder("Home").toString());
+        VisibleScreenTracker visibleScreenTracker = new VisibleScreenTracker(screenNames);
+        Activity activity = mock(Activity.class);
+
+        visibleScreenTracker.activityResumed(activity);
+        assertEquals("Home", visibleScreenTracker.getCurrentlyVisibleScreen());
+
+        visibleScreenTracker.activityPaused(activity);
+        assertEquals("unknown", visibleScreenTracker.getCurrentlyVisibleScreen());
+        assertEquals("Home", visibleScreenTracker.getPreviouslyVisibleScreen());
+    }
+
     @Test
     public void fragmentLifecycle() {
         VisibleScreenTracker visibleScreenTracker = new VisibleScreenTracker();
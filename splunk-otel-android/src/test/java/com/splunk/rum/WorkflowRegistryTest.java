@@ -0,0 +1,169 @@
+/*
+ * Copyright Splunk Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.splunk.rum;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static io.opentelemetry.api.common.AttributeKey.stringKey;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+import io.opentelemetry.sdk.testing.junit4.OpenTelemetryRule;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+public class WorkflowRegistryTest {
+    @Rule
+    public OpenTelemetryRule otelTesting = OpenTelemetryRule.create();
+    private Tracer tracer;
+
+    private final Clock clock = mock(Clock.class);
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final WorkflowRegistry registry = new WorkflowRegistry(Duration.ofSeconds(10), 2, scheduler, clock);
+
+    @Before
+    public void setup() {
+        tracer = otelTesting.getOpenTelemetry().getTracer("testTracer");
+        at(0);
+    }
+
+    @Test
+    public void endedByTheApp() {
+        Span workflow = registry.register(tracer.spanBuilder("workflow").startSpan());
+        assertEquals(1, registry.getOpenWorkflowCount());
+
+        workflow.setAttribute("step", "done");
+        workflow.end();
+
+        assertEquals(0, registry.getOpenWorkflowCount());
+        assertEquals(0, registry.getAbandonedWorkflowCount());
+        SpanData span = otelTesting.getSpans().get(0);
+        assertEquals("done", span.getAttributes().get(stringKey("step")));
+        assertNull(span.getAttributes().get(WorkflowRegistry.ABANDONED_KEY));
+        assertEquals(StatusCode.UNSET, span.getStatus().getStatusCode());
+    }
+
+    @Test
+    public void timedOut() {
+        Span first = registry.register(tracer.spanBuilder("first").startSpan());
+        at(5);
+        Span second = registry.register(tracer.spanBuilder("second").startSpan());
+
+        at(10);
+        registry.endTimedOutWorkflows();
+
+        assertEquals(1, registry.getOpenWorkflowCount());
+        assertEquals(1, registry.getAbandonedWorkflowCount());
+        assertFalse(first.isRecording());
+        assertTrue(second.isRecording());
+
+        //ending it afterwards doesn't do anything.
+        first.end();
+        List<SpanData> spans = otelTesting.getSpans();
+        assertEquals(1, spans.size());
+        SpanData span = spans.get(0);
+        assertEquals("first", span.getName());
+        assertTrue(span.getAttributes().get(WorkflowRegistry.ABANDONED_KEY));
+        assertEquals(StatusCode.ERROR, span.getStatus().getStatusCode());
+        assertEquals(WorkflowRegistry.TIMED_OUT, span.getStatus().getDescription());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), span.getEndEpochNanos());
+
+        //starting a workflow also ends the ones that timed out.
+        at(20);
+        registry.register(tracer.spanBuilder("third").startSpan());
+        assertEquals(2, registry.getAbandonedWorkflowCount());
+        assertEquals(1, registry.getOpenWorkflowCount());
+    }
+
+    @Test
+    public void tooManyOpenWorkflows() {
+        registry.register(tracer.spanBuilder("first").startSpan());
+        Span second = registry.register(tracer.spanBuilder("second").startSpan());
+        registry.register(tracer.spanBuilder("third").startSpan());
+
+        assertEquals(2, registry.getOpenWorkflowCount());
+        assertEquals(1, registry.getAbandonedWorkflowCount());
+        SpanData span = otelTesting.getSpans().get(0);
+        assertEquals("first", span.getName());
+        assertEquals(WorkflowRegistry.TOO_MANY_OPEN, span.getStatus().getDescription());
+
+        second.end();
+        assertEquals(1, registry.getOpenWorkflowCount());
+        assertEquals(1, registry.getAbandonedWorkflowCount());
+    }
+
+    @Test
+    public void nonRecordingSpansAreNotTracked() {
+        Span span = Span.getInvalid();
+
+        assertSame(span, registry.register(span));
+        assertEquals(0, registry.getOpenWorkflowCount());
+    }
+
+    @Test
+    public void sweepIsOnlyScheduledWhileWorkflowsAreOpen() {
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+
+        Span first = registry.register(tracer.spanBuilder("first").startSpan());
+        at(4);
+        registry.register(tracer.spanBuilder("second").startSpan());
+        //a single sweep, for when the first one times out.
+        ArgumentCaptor<Runnable> sweep = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(sweep.capture(), eq(TimeUnit.SECONDS.toNanos(10)), eq(TimeUnit.NANOSECONDS));
+
+        //the first one was ended by the app, so the sweep has nothing to do yet, and waits for the second.
+        first.end();
+        at(10);
+        sweep.getValue().run();
+        assertEquals(1, registry.getOpenWorkflowCount());
+        verify(scheduler).schedule(sweep.capture(), eq(TimeUnit.SECONDS.toNanos(4)), eq(TimeUnit.NANOSECONDS));
+
+        at(14);
+        sweep.getValue().run();
+        assertEquals(0, registry.getOpenWorkflowCount());
+        assertEquals(1, registry.getAbandonedWorkflowCount());
+
+        //nothing is open, so no further sweep until the next workflow.
+        verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private void at(long seconds) {
+        when(clock.now()).thenReturn(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}